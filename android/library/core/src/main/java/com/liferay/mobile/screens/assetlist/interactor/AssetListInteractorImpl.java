@@ -113,6 +113,11 @@ public class AssetListInteractorImpl
 		}
 	}
 
+	@Override
+	protected String getListKey() {
+		return ASSET_LIST_COUNT.name() + "_" + _groupId + "_" + _classNameId;
+	}
+
 	@Override
 	protected void getPageRowCountRequest(Session session) throws Exception {
 		JSONObject entryQueryParams = addQueryParams(_groupId, _classNameId);
@@ -120,6 +125,14 @@ public class AssetListInteractorImpl
 		new AssetEntryService(session).getEntriesCount(entryQuery);
 	}
 
+	/**
+	 * The filtered list is requested at once, with its own callback
+	 */
+	@Override
+	protected boolean canBatchRanges() {
+		return _portletItemName == null;
+	}
+
 	protected JSONObject addQueryParams(long groupId, long classNameId) throws JSONException {
 		JSONObject entryQueryParams = new JSONObject();
 		entryQueryParams.put("classNameIds", classNameId);
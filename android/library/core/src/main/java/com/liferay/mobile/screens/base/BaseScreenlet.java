@@ -14,7 +14,9 @@
 
 package com.liferay.mobile.screens.base;
 
+import android.app.Activity;
 import android.content.Context;
+import android.content.ContextWrapper;
 import android.os.Bundle;
 import android.os.Parcelable;
 import android.util.AttributeSet;
@@ -217,6 +219,17 @@ public abstract class BaseScreenlet<V extends BaseViewModel, I extends Interacto
 
 	protected abstract void onUserAction(String userActionName, I interactor, Object... args);
 
+	/**
+	 * True if the screenlet is detached because its activity is closing, not because of a configuration change
+	 */
+	protected boolean isActivityFinishing() {
+		Context context = getContext();
+		while (context instanceof ContextWrapper && !(context instanceof Activity)) {
+			context = ((ContextWrapper) context).getBaseContext();
+		}
+		return context instanceof Activity && ((Activity) context).isFinishing();
+	}
+
 	protected long castToLong(String value) {
 		return castToLongOrUseDefault(value, 0);
 	}
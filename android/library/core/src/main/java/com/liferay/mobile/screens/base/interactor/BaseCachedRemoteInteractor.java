@@ -1,12 +1,21 @@
 package com.liferay.mobile.screens.base.interactor;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import com.liferay.mobile.screens.cache.CacheListener;
 import com.liferay.mobile.screens.cache.OfflinePolicy;
+import com.liferay.mobile.screens.cache.executor.Executor;
+import com.liferay.mobile.screens.cache.sql.CacheCompactor;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
 import com.liferay.mobile.screens.util.LiferayLogger;
 
 import java.util.NoSuchElementException;
 
 /**
+ * Cache reads (the blocking queries and the parsing done in {@link #cached(Object...)})
+ * always run in the cache executor, the outcome is handled back in the main thread.
+ *
  * @author Javier Gamarra
  */
 public abstract class BaseCachedRemoteInteractor<L extends CacheListener, E extends BasicEvent>
@@ -15,41 +24,37 @@ public abstract class BaseCachedRemoteInteractor<L extends CacheListener, E exte
 	public BaseCachedRemoteInteractor(int targetScreenletId, OfflinePolicy offlinePolicy) {
 		super(targetScreenletId);
 
-		_retrievedFromCache = false;
 		_offlinePolicy = offlinePolicy;
 	}
 
-	protected void processWithCache(Object... args) throws Exception {
+	protected void processWithCache(final Object... args) throws Exception {
 		if (_offlinePolicy == OfflinePolicy.CACHE_FIRST) {
-			try {
-				_retrievedFromCache = cached(args);
+			readFromCache(new CacheReadCallback() {
+				@Override
+				public void onCacheRead(boolean retrievedFromCache, Exception e) throws Exception {
+					if (e != null) {
+						LiferayLogger.e("Retrieve from cache first failed, trying online", e);
+
+						getListener().retrievingOnline(true, e);
+						online(args);
+						return;
+					}
 
-				getListener().loadingFromCache(_retrievedFromCache);
+					getListener().loadingFromCache(retrievedFromCache);
 
-				if (!_retrievedFromCache) {
-					LiferayLogger.i("Retrieve from cache first failed, trying online");
+					if (!retrievedFromCache) {
+						LiferayLogger.i("Retrieve from cache first failed, trying online");
 
-					getListener().retrievingOnline(true, null);
-					online(args);
+						getListener().retrievingOnline(true, null);
+						online(args);
+					}
 				}
-			}
-			catch (Exception e) {
-				LiferayLogger.e("Retrieve from cache first failed, trying online", e);
-
-				getListener().retrievingOnline(true, e);
-				online(args);
-			}
+			}, args);
 		}
 		else if (_offlinePolicy == OfflinePolicy.CACHE_ONLY) {
 			LiferayLogger.i("Trying to retrieve object from cache");
 
-			_retrievedFromCache = cached(args);
-
-			getListener().loadingFromCache(_retrievedFromCache);
-
-			if (!_retrievedFromCache) {
-				throw new NoSuchElementException();
-			}
+			readFromCache(new CacheOnlyReadCallback(), args);
 		}
 		else if (_offlinePolicy == OfflinePolicy.REMOTE_FIRST) {
 			try {
@@ -61,13 +66,7 @@ public abstract class BaseCachedRemoteInteractor<L extends CacheListener, E exte
 			catch (Exception e) {
 				LiferayLogger.e("Retrieve online first failed, trying cached version", e);
 
-				_retrievedFromCache = cached(args);
-
-				getListener().loadingFromCache(_retrievedFromCache);
-
-				if (!_retrievedFromCache) {
-					throw new NoSuchElementException();
-				}
+				readFromCache(new CacheOnlyReadCallback(), args);
 			}
 		}
 		else {
@@ -78,21 +77,26 @@ public abstract class BaseCachedRemoteInteractor<L extends CacheListener, E exte
 		}
 	}
 
-	protected void onEventWithCache(E event, Object... args) {
+	protected void onEventWithCache(final E event, Object... args) {
+		_handledEvent = event;
+
 		if (event.isFailed()) {
 			if (OfflinePolicy.REMOTE_FIRST.equals(_offlinePolicy)) {
-				try {
-					_retrievedFromCache = cached(args);
-
-					getListener().loadingFromCache(_retrievedFromCache);
-
-					if (!_retrievedFromCache) {
-						notifyError(event);
+				readFromCache(new CacheReadCallback() {
+					@Override
+					public void onCacheRead(boolean retrievedFromCache, Exception e) {
+						if (e != null) {
+							notifyError(event);
+							return;
+						}
+
+						getListener().loadingFromCache(retrievedFromCache);
+
+						if (!retrievedFromCache) {
+							notifyError(event);
+						}
 					}
-				}
-				catch (Exception e) {
-					notifyError(event);
-				}
+				}, args);
 			}
 			else {
 				notifyError(event);
@@ -106,10 +110,67 @@ public abstract class BaseCachedRemoteInteractor<L extends CacheListener, E exte
 		}
 	}
 
+	/**
+	 * Runs {@link #cached(Object...)} in the cache executor and calls the callback
+	 * in the main thread, only if the screenlet is still attached
+	 */
+	protected void readFromCache(final CacheReadCallback callback, final Object... args) {
+		Executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				boolean retrievedFromCache = false;
+				Exception exception = null;
+
+				try {
+					retrievedFromCache = cached(args);
+				}
+				catch (Exception e) {
+					exception = e;
+				}
+
+				final boolean retrieved = retrievedFromCache;
+				final Exception cacheException = exception;
+
+				runOnMainThread(new Runnable() {
+					@Override
+					public void run() {
+						if (getListener() == null) {
+							return;
+						}
+
+						try {
+							callback.onCacheRead(retrieved, cacheException);
+						}
+						catch (Exception e) {
+							notifyCacheError(e, args);
+						}
+					}
+				});
+			}
+		});
+	}
+
+	protected void runOnMainThread(Runnable runnable) {
+		_mainThreadHandler.post(runnable);
+	}
+
 	protected abstract void online(Object... args) throws Exception;
 
 	protected abstract void notifyError(E event);
 
+	/**
+	 * Notifies an error that happened after the cache was read, when it is not possible
+	 * to throw it to the caller of {@link #processWithCache(Object...)} anymore.
+	 * By default it's logged, the interactors override it to call the failure method of their listener.
+	 */
+	protected void notifyCacheError(Exception e, Object... args) {
+		LiferayLogger.e("Could not retrieve the object from the cache", e);
+	}
+
+	/**
+	 * Called in a background thread, any result has to be posted to the bus or
+	 * delivered with {@link #runOnMainThread(Runnable)}
+	 */
 	protected abstract boolean cached(Object... args) throws Exception;
 
 	protected abstract void storeToCache(E event, Object... args);
@@ -118,10 +179,50 @@ public abstract class BaseCachedRemoteInteractor<L extends CacheListener, E exte
 		return _offlinePolicy;
 	}
 
+	/**
+	 * Under {@link OfflinePolicy#CACHE_FIRST} a row older than the max age of its type
+	 * is a miss, so it is requested again and refreshed
+	 */
+	protected boolean isExpired(TableCache tableCache) {
+		return _offlinePolicy == OfflinePolicy.CACHE_FIRST && CacheCompactor.isExpired(tableCache);
+	}
+
+	/**
+	 * Whether the event being handled has to be stored, only the events not read from the cache are
+	 *
+	 * @deprecated the events carry their origin, use {@link BasicEvent#isCached()}
+	 */
+	@Deprecated
 	protected boolean hasToStoreToCache() {
-		return !_retrievedFromCache;
+		return _handledEvent == null || !_handledEvent.isCached();
 	}
-	private boolean _retrievedFromCache;
+
+	protected interface CacheReadCallback {
+
+		void onCacheRead(boolean retrievedFromCache, Exception e) throws Exception;
+
+	}
+
+	private class CacheOnlyReadCallback implements CacheReadCallback {
+
+		@Override
+		public void onCacheRead(boolean retrievedFromCache, Exception e) throws Exception {
+			if (e != null) {
+				throw e;
+			}
+
+			getListener().loadingFromCache(retrievedFromCache);
+
+			if (!retrievedFromCache) {
+				throw new NoSuchElementException();
+			}
+		}
+	}
+
+	private static final Handler _mainThreadHandler = new Handler(Looper.getMainLooper());
+
 	private final OfflinePolicy _offlinePolicy;
+	// the events are handled in the main thread
+	private E _handledEvent;
 
 }
@@ -40,6 +40,18 @@ public abstract class BasicEvent {
 		return _exception != null;
 	}
 
+	/**
+	 * Whether the event was read from the cache, so it doesn't have to be stored again
+	 */
+	public boolean isCached() {
+		return _cached;
+	}
+
+	public void setCached(boolean cached) {
+		_cached = cached;
+	}
+
+	private boolean _cached;
 	private Exception _exception;
 	private int _targetScreenletId;
 
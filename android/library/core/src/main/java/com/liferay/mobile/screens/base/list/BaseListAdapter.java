@@ -14,6 +14,8 @@
 
 package com.liferay.mobile.screens.base.list;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -21,9 +23,12 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import com.liferay.mobile.screens.R;
+import com.liferay.mobile.screens.cache.executor.Executor;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Javier Gamarra
@@ -35,18 +40,32 @@ public abstract class BaseListAdapter<E, H extends BaseListAdapter.ViewHolder>
 	public BaseListAdapter(
 		int layoutId, int progressLayoutId, BaseListAdapterListener listener) {
 
-		_entries = new ArrayList<>();
+		_entries = new PagedEntries<>(BaseListScreenlet._FIRST_PAGE_SIZE, BaseListScreenlet._PAGE_SIZE);
 		_layoutId = layoutId;
 		_progressLayoutId = progressLayoutId;
 		_listener = listener;
 	}
 
+	/**
+	 * Sparse list with a position per row, the rows not loaded are null
+	 */
 	public List<E> getEntries() {
 		return _entries;
 	}
 
+	/**
+	 * Replaces the loaded entries, the null ones are rows not loaded
+	 */
 	public void setEntries(List<E> entries) {
-		_entries = entries;
+		_entries.clear();
+
+		for (int i = 0; i < entries.size() && i < _rowCount; i++) {
+			_entries.set(i, entries.get(i));
+		}
+	}
+
+	public PagedEntries<E> getPagedEntries() {
+		return _entries;
 	}
 
 	@Override
@@ -75,6 +94,8 @@ public abstract class BaseListAdapter<E, H extends BaseListAdapter.ViewHolder>
 
 	@Override
 	public void onBindViewHolder(H holder, int position) {
+		_entries.setVisibleRow(position);
+
 		E entry = _entries.get(position);
 
 		if (entry != null) {
@@ -103,17 +124,121 @@ public abstract class BaseListAdapter<E, H extends BaseListAdapter.ViewHolder>
 
 	public void setRowCount(int rowCount) {
 		_rowCount = rowCount;
+		_entries.setRowCount(rowCount);
+	}
+
+	/**
+	 * Notifies the rows inserted or removed at the end of the list
+	 */
+	public void notifyRowCountChanged(int previousRowCount, int rowCount) {
+		if (rowCount > previousRowCount) {
+			notifyItemRangeInserted(previousRowCount, rowCount - previousRowCount);
+		}
+		else if (rowCount < previousRowCount) {
+			notifyItemRangeRemoved(rowCount, previousRowCount - rowCount);
+		}
+	}
+
+	/**
+	 * Compares in background the new entries of a page with the previous ones and
+	 * notifies only the rows that changed. The entries are already stored in the adapter.
+	 */
+	public void notifyEntriesChanged(final int firstRow, final List<E> previousEntries, final List<E> entries) {
+		Executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				final List<int[]> changedRanges = getChangedRanges(previousEntries, entries);
+
+				_mainThreadHandler.post(new Runnable() {
+					@Override
+					public void run() {
+						for (int[] changedRange : changedRanges) {
+							int start = firstRow + changedRange[0];
+							int count = Math.min(changedRange[1], getItemCount() - start);
+
+							if (count > 0) {
+								notifyItemRangeChanged(start, count);
+							}
+						}
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Id of the entry to find it in the previous entries of its page, by default the entry itself
+	 */
+	protected Object getEntryId(E entry) {
+		return entry;
+	}
+
+	/**
+	 * Whether the entry would be shown like the previous one with its id,
+	 * called in a background thread
+	 */
+	protected boolean hasSameContent(E previousEntry, E entry) {
+		return previousEntry.equals(entry);
+	}
+
+	/**
+	 * Ranges, as start and count, of the positions whose entry moved, is new or has changed
+	 */
+	protected List<int[]> getChangedRanges(List<E> previousEntries, List<E> entries) {
+		Map<Object, Integer> previousPositions = new HashMap<>();
+		for (int i = 0; i < previousEntries.size(); i++) {
+			E previousEntry = previousEntries.get(i);
+			if (previousEntry != null) {
+				previousPositions.put(getEntryId(previousEntry), i);
+			}
+		}
+
+		List<int[]> changedRanges = new ArrayList<>();
+		int[] changedRange = null;
+
+		for (int i = 0; i < Math.max(previousEntries.size(), entries.size()); i++) {
+			if (hasChanged(i, previousEntries, entries, previousPositions)) {
+				if (changedRange != null && changedRange[0] + changedRange[1] == i) {
+					changedRange[1]++;
+				}
+				else {
+					changedRange = new int[]{i, 1};
+					changedRanges.add(changedRange);
+				}
+			}
+		}
+
+		return changedRanges;
 	}
 
 	protected abstract void fillHolder(E entry, H holder);
+
+	private boolean hasChanged(int position, List<E> previousEntries, List<E> entries,
+							   Map<Object, Integer> previousPositions) {
+
+		E entry = position < entries.size() ? entries.get(position) : null;
+		E previousEntry = position < previousEntries.size() ? previousEntries.get(position) : null;
+
+		if (entry == null || previousEntry == null) {
+			return entry != previousEntry;
+		}
+
+		Integer previousPosition = previousPositions.get(getEntryId(entry));
+
+		return previousPosition == null || previousPosition != position
+			|| !hasSameContent(previousEntries.get(previousPosition), entry);
+	}
+
 	protected static final int LAYOUT_TYPE_DEFAULT = 0;
 	protected static final int LAYOUT_TYPE_PROGRESS = 1;
-	private List<E> _entries;
+	private PagedEntries<E> _entries;
 	private int _layoutId;
 	private BaseListAdapterListener _listener;
 	private int _progressLayoutId;
 	private int _rowCount;
 
+	private static final Handler _mainThreadHandler = new Handler(Looper.getMainLooper());
+
 	public static class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
 
 		public TextView textView;
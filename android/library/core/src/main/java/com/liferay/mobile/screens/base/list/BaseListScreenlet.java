@@ -26,8 +26,10 @@ import com.liferay.mobile.screens.base.interactor.Interactor;
 import com.liferay.mobile.screens.base.list.interactor.BaseListInteractorListener;
 import com.liferay.mobile.screens.base.list.view.BaseListViewModel;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.TreeSet;
 
 /**
  * @author Silvio Santos
@@ -61,6 +63,8 @@ public abstract class BaseListScreenlet<E, N extends Interactor>
 		if (_listener != null) {
 			_listener.onListPageFailed(this, page, e);
 		}
+
+		onPrefetchFinished(page);
 	}
 
 	@Override
@@ -72,6 +76,50 @@ public abstract class BaseListScreenlet<E, N extends Interactor>
 		if (_listener != null) {
 			_listener.onListPageReceived(this, page, entries, rowCount);
 		}
+
+		onPrefetchFinished(page);
+	}
+
+	/**
+	 * Requests the next pages not loaded when the last visible row is less than
+	 * the prefetch threshold away from them.
+	 *
+	 * The prefetched pages are requested one by one, the pending ones that the
+	 * visible rows have already passed are dropped.
+	 */
+	public void prefetch(int firstVisibleRow, int lastVisibleRow, PagedEntries<?> entries) {
+		if (_prefetchPages <= 0 || entries.isEmpty() || firstVisibleRow < 0 || lastVisibleRow < 0) {
+			return;
+		}
+
+		int firstVisiblePage = getPageFromRow(firstVisibleRow);
+		int lastPage = getPageFromRow(entries.size() - 1);
+
+		Iterator<Integer> pendingPages = _pendingPrefetches.iterator();
+		while (pendingPages.hasNext()) {
+			int page = pendingPages.next();
+			if (page < firstVisiblePage || page > lastPage || entries.isPageLoaded(page)) {
+				pendingPages.remove();
+			}
+		}
+
+		int firstNotLoadedPage = getPageFromRow(lastVisibleRow) + 1;
+		while (firstNotLoadedPage <= lastPage && entries.isPageLoaded(firstNotLoadedPage)) {
+			firstNotLoadedPage++;
+		}
+
+		if (firstNotLoadedPage > lastPage
+			|| getFirstRowForPage(firstNotLoadedPage) - lastVisibleRow > getPrefetchThreshold()) {
+			return;
+		}
+
+		for (int page = firstNotLoadedPage; page < firstNotLoadedPage + _prefetchPages && page <= lastPage; page++) {
+			if (!entries.isPageLoaded(page) && page != _prefetchingPage) {
+				_pendingPrefetches.add(page);
+			}
+		}
+
+		prefetchNextPage();
 	}
 
 	public int getFirstRowForPage(int page) {
@@ -140,6 +188,33 @@ public abstract class BaseListScreenlet<E, N extends Interactor>
 		_pageSize = pageSize;
 	}
 
+	public int getPrefetchPages() {
+		return _prefetchPages;
+	}
+
+	/**
+	 * Number of pages requested ahead of the visible rows, 0 to load them only when shown
+	 */
+	public void setPrefetchPages(int prefetchPages) {
+		_prefetchPages = prefetchPages;
+
+		if (prefetchPages <= 0) {
+			_pendingPrefetches.clear();
+		}
+	}
+
+	/**
+	 * Distance in rows to the next page not loaded that starts the prefetch,
+	 * by default the size of a page
+	 */
+	public int getPrefetchThreshold() {
+		return _prefetchThreshold == null ? _pageSize : _prefetchThreshold;
+	}
+
+	public void setPrefetchThreshold(int prefetchThreshold) {
+		_prefetchThreshold = prefetchThreshold;
+	}
+
 	protected abstract void loadRows(N interactor, int startRow, int endRow, Locale locale)
 		throws Exception;
 
@@ -160,6 +235,8 @@ public abstract class BaseListScreenlet<E, N extends Interactor>
 
 		_autoLoad = typedArray.getBoolean(R.styleable.AssetListScreenlet_autoLoad, true);
 
+		_prefetchPages = typedArray.getInteger(R.styleable.AssetListScreenlet_prefetchPages, _PREFETCH_PAGES);
+
 		typedArray.recycle();
 
 		return LayoutInflater.from(context).inflate(layoutId, null);
@@ -179,12 +256,40 @@ public abstract class BaseListScreenlet<E, N extends Interactor>
 	protected void onUserAction(String userActionName, N interactor, Object... args) {
 	}
 
+	private void prefetchNextPage() {
+		if (_prefetchingPage != NO_PAGE || _pendingPrefetches.isEmpty()) {
+			return;
+		}
+
+		_prefetchingPage = _pendingPrefetches.pollFirst();
+
+		loadPage(_prefetchingPage);
+	}
+
+	private void onPrefetchFinished(int page) {
+		_pendingPrefetches.remove(page);
+
+		if (page == _prefetchingPage) {
+			_prefetchingPage = NO_PAGE;
+
+			prefetchNextPage();
+		}
+	}
+
 	protected static final int _FIRST_PAGE_SIZE = 50;
 	protected static final int _PAGE_SIZE = 25;
+	protected static final int _PREFETCH_PAGES = 1;
+
+	private static final int NO_PAGE = -1;
 
 	protected boolean _autoLoad;
 	protected int _firstPageSize;
 	protected BaseListListener<E> _listener;
 	protected int _pageSize;
+	protected int _prefetchPages = _PREFETCH_PAGES;
+	protected Integer _prefetchThreshold;
+
+	private final TreeSet<Integer> _pendingPrefetches = new TreeSet<>();
+	private int _prefetchingPage = NO_PAGE;
 
 }
\ No newline at end of file
@@ -32,7 +32,6 @@ import com.liferay.mobile.screens.viewsets.defaultviews.LiferayCrouton;
 import com.liferay.mobile.screens.viewsets.defaultviews.ddl.list.DividerItemDecoration;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -62,7 +61,8 @@ public abstract class BaseListScreenletView<
 		List<E> entries = getAdapter().getEntries();
 
 		// we do not want to crash if the user manages to do a phantom click
-		if (!entries.isEmpty() && entries.size() > position && screenlet.getListener() != null) {
+		if (!entries.isEmpty() && entries.size() > position && entries.get(position) != null
+			&& screenlet.getListener() != null) {
 			screenlet.getListener().onListItemSelected(entries.get(position), view);
 		}
 	}
@@ -88,10 +88,13 @@ public abstract class BaseListScreenletView<
 
 		A adapter = getAdapter();
 
+		int previousRowCount = adapter.getItemCount();
+		adapter.setRowCount(rowCount);
+		adapter.notifyRowCountChanged(previousRowCount, rowCount);
+
 		addNewServerEntries(page, serverEntries, rowCount, adapter);
 
-		adapter.setRowCount(rowCount);
-		adapter.notifyDataSetChanged();
+		prefetch();
 	}
 
 	@Override
@@ -126,11 +129,34 @@ public abstract class BaseListScreenletView<
 		super.onRestoreInstanceState(superState);
 
 		List<E> entries = state.getParcelableArrayList(_STATE_ENTRIES);
+		int[] positions = state.getIntArray(_STATE_POSITIONS);
 
 		A adapter = getAdapter();
-		adapter.setRowCount(state.getInt(_STATE_ROW_COUNT));
-		adapter.setEntries(entries);
-		adapter.notifyDataSetChanged();
+
+		int previousRowCount = adapter.getItemCount();
+		int rowCount = state.getInt(_STATE_ROW_COUNT);
+		adapter.setRowCount(rowCount);
+
+		if (positions == null) {
+			adapter.setEntries(entries);
+		}
+		else {
+			PagedEntries<E> pagedEntries = adapter.getPagedEntries();
+			pagedEntries.clear();
+
+			for (int i = 0; i < positions.length; i++) {
+				if (positions[i] < pagedEntries.size()) {
+					pagedEntries.set(positions[i], entries.get(i));
+				}
+			}
+		}
+
+		adapter.notifyRowCountChanged(previousRowCount, rowCount);
+
+		int keptRows = Math.min(previousRowCount, rowCount);
+		if (keptRows > 0) {
+			adapter.notifyItemRangeChanged(0, keptRows);
+		}
 	}
 
 	@Override
@@ -138,10 +164,21 @@ public abstract class BaseListScreenletView<
 		Parcelable superState = super.onSaveInstanceState();
 
 		A adapter = getAdapter();
-		ArrayList<E> entries = (ArrayList<E>) adapter.getEntries();
+		PagedEntries<E> pagedEntries = adapter.getPagedEntries();
+
+		// only the loaded rows are saved, with their positions
+		List<Integer> loadedPositions = pagedEntries.getLoadedPositions();
+		ArrayList<E> entries = new ArrayList<>(loadedPositions.size());
+		int[] positions = new int[loadedPositions.size()];
+
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = loadedPositions.get(i);
+			entries.add(pagedEntries.get(positions[i]));
+		}
 
 		Bundle state = new Bundle();
 		state.putParcelableArrayList(_STATE_ENTRIES, entries);
+		state.putIntArray(_STATE_POSITIONS, positions);
 		state.putSerializable(_STATE_ROW_COUNT, adapter.getItemCount());
 		state.putParcelable(_STATE_SUPER, superState);
 
@@ -164,6 +201,12 @@ public abstract class BaseListScreenletView<
 		_recyclerView.setAdapter(adapter);
 		_recyclerView.setHasFixedSize(true);
 		_recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+		_recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+			@Override
+			public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+				prefetch();
+			}
+		});
 
 		DividerItemDecoration dividerItemDecoration = getDividerDecoration();
 		if (dividerItemDecoration != null) {
@@ -174,21 +217,21 @@ public abstract class BaseListScreenletView<
 	}
 
 	protected List<E> createAllEntries(int page, List<E> serverEntries, int rowCount, A adapter) {
-		List<E> entries = adapter.getEntries();
-		List<E> allEntries = new ArrayList<>(
-			Collections.<E>nCopies(rowCount, null));
-
-		for (int i = 0; i < entries.size(); i++) {
-			allEntries.set(i, entries.get(i));
-		}
-
 		BaseListScreenlet screenlet = ((BaseListScreenlet) getParent());
 
-		int firstRowForPage = screenlet.getFirstRowForPage(page);
+		PagedEntries<E> entries = adapter.getPagedEntries();
+		PagedEntries<E> allEntries = new PagedEntries<>(screenlet.getFirstPageSize(), screenlet.getPageSize());
+		allEntries.setRowCount(rowCount);
+		allEntries.setMaxLoadedRows(entries.getMaxLoadedRows());
 
-		for (int i = 0; i < serverEntries.size(); i++) {
-			allEntries.set(i + firstRowForPage, serverEntries.get(i));
+		for (int position : entries.getLoadedPositions()) {
+			if (position < rowCount) {
+				allEntries.set(position, entries.get(position));
+			}
 		}
+
+		allEntries.setPage(page, serverEntries);
+
 		return allEntries;
 	}
 
@@ -222,20 +265,59 @@ public abstract class BaseListScreenletView<
 
 	protected abstract A createListAdapter(int itemLayoutId, int itemProgressLayoutId);
 
+	/**
+	 * Asks the screenlet to load the pages ahead of the visible rows
+	 */
+	protected void prefetch() {
+		if (!(getParent() instanceof BaseListScreenlet)
+			|| !(_recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+			return;
+		}
+
+		BaseListScreenlet screenlet = (BaseListScreenlet) getParent();
+		LinearLayoutManager layoutManager = (LinearLayoutManager) _recyclerView.getLayoutManager();
+
+		screenlet.prefetch(layoutManager.findFirstVisibleItemPosition(),
+			layoutManager.findLastVisibleItemPosition(), getAdapter().getPagedEntries());
+	}
+
 	private void addNewServerEntries(int page, List<E> serverEntries, int rowCount, A adapter) {
 		BaseListScreenlet screenlet = ((BaseListScreenlet) getParent());
-		int firstRowForPage = screenlet.getFirstRowForPage(page);
 
-		List<E> entries = adapter.getEntries();
-		for (int i = entries.size(); i < rowCount; i++) {
-			entries.add(null);
+		PagedEntries<E> entries = adapter.getPagedEntries();
+		entries.setPageSizes(screenlet.getFirstPageSize(), screenlet.getPageSize());
+
+		int firstRow = entries.getFirstRowForPage(page);
+		int rows = Math.max(0, Math.min(serverEntries.size(), rowCount - firstRow));
+
+		// a page already loaded is a refresh, only the rows that changed are bound again
+		List<E> previousEntries = entries.isPageLoaded(page) && rows > 0
+			? new ArrayList<>(entries.subList(firstRow, firstRow + rows)) : null;
+
+		List<Integer> evictedPages = entries.setPage(page, serverEntries);
+
+		// the evicted rows are bound again as progress rows, so they are requested when shown
+		for (int evictedPage : evictedPages) {
+			int evictedRow = entries.getFirstRowForPage(evictedPage);
+			int evictedRows = Math.min(entries.getPageSize(evictedPage), rowCount - evictedRow);
+
+			if (evictedRows > 0) {
+				adapter.notifyItemRangeChanged(evictedRow, evictedRows);
+			}
 		}
 
-		for (int i = 0; i < serverEntries.size(); i++) {
-			entries.set(i + firstRowForPage, serverEntries.get(i));
+		if (previousEntries == null) {
+			if (rows > 0) {
+				adapter.notifyItemRangeChanged(firstRow, rows);
+			}
+		}
+		else {
+			adapter.notifyEntriesChanged(firstRow, previousEntries, new ArrayList<>(serverEntries.subList(0, rows)));
 		}
 	}
+
 	private static final String _STATE_ENTRIES = "entries";
+	private static final String _STATE_POSITIONS = "positions";
 	private static final String _STATE_ROW_COUNT = "rowCount";
 	private static final String _STATE_SUPER = "super";
 
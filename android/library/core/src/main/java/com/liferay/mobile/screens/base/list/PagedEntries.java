@@ -0,0 +1,306 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.base.list;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sparse list of the entries of a list screenlet: it has one position per row of the list
+ * but it only holds the pages already loaded, keyed by page index.
+ * The rows of the pages not loaded are null.
+ *
+ * When the loaded rows exceed the budget the pages farthest from the visible page are evicted,
+ * they are loaded again, like any missing page, when they are shown.
+ *
+ * @author Javier Gamarra
+ */
+public class PagedEntries<E> extends AbstractList<E> {
+
+	public static final int DEFAULT_MAX_LOADED_ROWS = 1000;
+
+	public PagedEntries(int firstPageSize, int pageSize) {
+		setPageSizes(firstPageSize, pageSize);
+	}
+
+	/**
+	 * The rows of a page not loaded are null
+	 */
+	@Override
+	public E get(int location) {
+		checkPosition(location);
+
+		int page = getPageFromRow(location);
+		Object[] entries = _pages.get(page);
+
+		return entries == null ? null : (E) entries[location - getFirstRowForPage(page)];
+	}
+
+	@Override
+	public E set(int location, E entry) {
+		checkPosition(location);
+
+		int page = getPageFromRow(location);
+		Object[] entries = _pages.get(page);
+
+		if (entries == null) {
+			if (entry == null) {
+				return null;
+			}
+
+			entries = new Object[getPageSize(page)];
+			_pages.put(page, entries);
+		}
+
+		int offset = location - getFirstRowForPage(page);
+		E previous = (E) entries[offset];
+		entries[offset] = entry;
+
+		updateLoadedRows(previous, entry);
+
+		return previous;
+	}
+
+	/**
+	 * Only looks in the loaded pages
+	 */
+	@Override
+	public int indexOf(Object object) {
+		if (object == null) {
+			return _rowCount > _loadedRows ? firstNotLoaded() : -1;
+		}
+
+		for (Map.Entry<Integer, Object[]> page : _pages.entrySet()) {
+			Object[] entries = page.getValue();
+
+			for (int i = 0; i < entries.length; i++) {
+				if (object.equals(entries[i])) {
+					return getFirstRowForPage(page.getKey()) + i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int size() {
+		return _rowCount;
+	}
+
+	@Override
+	public void clear() {
+		_pages.clear();
+		_loadedRows = 0;
+	}
+
+	/**
+	 * Stores the entries of a page, starting in its first row, and evicts the
+	 * pages farthest from the visible page if the budget is exceeded
+	 *
+	 * @return the evicted pages
+	 */
+	public List<Integer> setPage(int page, List<E> entries) {
+		int firstRow = getFirstRowForPage(page);
+
+		for (int i = 0; i < entries.size() && firstRow + i < _rowCount; i++) {
+			set(firstRow + i, entries.get(i));
+		}
+
+		return evict(page);
+	}
+
+	public boolean isPageLoaded(int page) {
+		return _pages.containsKey(page);
+	}
+
+	public int getLoadedRows() {
+		return _loadedRows;
+	}
+
+	/**
+	 * Positions of the rows loaded, in order
+	 */
+	public List<Integer> getLoadedPositions() {
+		List<Integer> positions = new ArrayList<>(_loadedRows);
+
+		for (Map.Entry<Integer, Object[]> page : _pages.entrySet()) {
+			int firstRow = getFirstRowForPage(page.getKey());
+			Object[] entries = page.getValue();
+
+			for (int i = 0; i < entries.length; i++) {
+				if (entries[i] != null) {
+					positions.add(firstRow + i);
+				}
+			}
+		}
+		return positions;
+	}
+
+	/**
+	 * Discards the pages beyond the new row count
+	 */
+	public void setRowCount(int rowCount) {
+		_rowCount = rowCount;
+
+		Iterator<Map.Entry<Integer, Object[]>> pages = _pages.tailMap(getPageFromRow(rowCount)).entrySet().iterator();
+		while (pages.hasNext()) {
+			Map.Entry<Integer, Object[]> page = pages.next();
+			int firstRow = getFirstRowForPage(page.getKey());
+			Object[] entries = page.getValue();
+
+			for (int i = Math.max(0, rowCount - firstRow); i < entries.length; i++) {
+				updateLoadedRows((E) entries[i], null);
+				entries[i] = null;
+			}
+
+			if (rowCount <= firstRow) {
+				pages.remove();
+			}
+		}
+	}
+
+	/**
+	 * Changing the sizes of the pages keeps the loaded rows in their positions
+	 */
+	public void setPageSizes(int firstPageSize, int pageSize) {
+		if (firstPageSize <= 0 || pageSize <= 0) {
+			throw new IllegalArgumentException("The pages need at least one row");
+		}
+
+		if (firstPageSize == _firstPageSize && pageSize == _pageSize) {
+			return;
+		}
+
+		List<Integer> positions = getLoadedPositions();
+		List<E> entries = new ArrayList<>(positions.size());
+		for (int position : positions) {
+			entries.add(get(position));
+		}
+
+		clear();
+
+		_firstPageSize = firstPageSize;
+		_pageSize = pageSize;
+
+		for (int i = 0; i < positions.size(); i++) {
+			set(positions.get(i), entries.get(i));
+		}
+	}
+
+	/**
+	 * Max number of rows held in memory, the visible page is always kept
+	 */
+	public void setMaxLoadedRows(int maxLoadedRows) {
+		_maxLoadedRows = maxLoadedRows;
+	}
+
+	public int getMaxLoadedRows() {
+		return _maxLoadedRows;
+	}
+
+	/**
+	 * The row being shown, the eviction keeps the pages around it
+	 */
+	public void setVisibleRow(int row) {
+		_visiblePage = getPageFromRow(row);
+	}
+
+	public int getFirstRowForPage(int page) {
+		if (page == 0) {
+			return 0;
+		}
+
+		return _firstPageSize + (page - 1) * _pageSize;
+	}
+
+	public int getPageFromRow(int row) {
+		if (row < _firstPageSize) {
+			return 0;
+		}
+
+		return ((row - _firstPageSize) / _pageSize) + 1;
+	}
+
+	public int getPageSize(int page) {
+		return page == 0 ? _firstPageSize : _pageSize;
+	}
+
+	private List<Integer> evict(int lastPage) {
+		List<Integer> evictedPages = new ArrayList<>();
+
+		while (_loadedRows > _maxLoadedRows) {
+			Integer farthestPage = null;
+
+			for (Integer page : _pages.keySet()) {
+				if (page != _visiblePage && page != lastPage
+					&& (farthestPage == null || distance(page) > distance(farthestPage))) {
+					farthestPage = page;
+				}
+			}
+
+			if (farthestPage == null) {
+				break;
+			}
+
+			for (Object entry : _pages.remove(farthestPage)) {
+				updateLoadedRows((E) entry, null);
+			}
+			evictedPages.add(farthestPage);
+		}
+
+		return evictedPages;
+	}
+
+	private int firstNotLoaded() {
+		for (int i = 0; i < _rowCount; i++) {
+			if (get(i) == null) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int distance(int page) {
+		return Math.abs(page - _visiblePage);
+	}
+
+	private void updateLoadedRows(E previous, E entry) {
+		if (previous == null && entry != null) {
+			_loadedRows++;
+		}
+		else if (previous != null && entry == null) {
+			_loadedRows--;
+		}
+	}
+
+	private void checkPosition(int location) {
+		if (location < 0 || location >= _rowCount) {
+			throw new IndexOutOfBoundsException("Invalid position " + location + ", size is " + _rowCount);
+		}
+	}
+
+	private final TreeMap<Integer, Object[]> _pages = new TreeMap<>();
+	private int _firstPageSize;
+	private int _pageSize;
+	private int _rowCount;
+	private int _loadedRows;
+	private int _visiblePage;
+	private int _maxLoadedRows = DEFAULT_MAX_LOADED_ROWS;
+
+}
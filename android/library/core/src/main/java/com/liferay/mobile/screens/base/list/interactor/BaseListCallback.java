@@ -19,12 +19,14 @@ import android.util.Pair;
 import com.liferay.mobile.screens.base.context.RequestState;
 import com.liferay.mobile.screens.base.interactor.BasicEvent;
 import com.liferay.mobile.screens.base.interactor.InteractorBatchAsyncTaskCallback;
+import com.liferay.mobile.screens.util.EventBusUtil;
 import com.liferay.mobile.screens.util.JSONUtil;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -40,20 +42,55 @@ public abstract class BaseListCallback<E>
 
 		_rowsRange = rowsRange;
 		_locale = locale;
+		_rowsRanges = Collections.singletonList(rowsRange);
+		_fetchedRanges = _rowsRanges;
+	}
+
+	/**
+	 * The batch has a rows request for every fetched range and a count request at the end,
+	 * the requested ranges are inside the fetched ones and are delivered in their own events
+	 */
+	public void setRowsRanges(List<Pair<Integer, Integer>> rowsRanges, List<Pair<Integer, Integer>> fetchedRanges) {
+		_rowsRanges = rowsRanges;
+		_fetchedRanges = fetchedRanges;
+	}
+
+	/**
+	 * The batch has no count request if the row count is cached, otherwise the
+	 * received row count is cached with the key of the list
+	 */
+	public void setRowCount(String listKey, Integer cachedRowCount) {
+		_listKey = listKey;
+		_cachedRowCount = cachedRowCount;
 	}
 
 	public BaseListResult transform(Object obj) throws Exception {
 		BaseListResult result = new BaseListResult();
-		JSONArray jsonArray = ((JSONArray) obj).getJSONArray(0);
-		List<E> entries = new ArrayList<>();
+		JSONArray jsonArray = (JSONArray) obj;
 
-		for (int i = 0; i < jsonArray.length(); i++) {
-			JSONObject jsonObject = jsonArray.getJSONObject(i);
-			entries.add(createEntity(JSONUtil.toMap(jsonObject)));
+		List<List<E>> fetchedEntries = new ArrayList<>(_fetchedRanges.size());
+		for (int i = 0; i < _fetchedRanges.size(); i++) {
+			fetchedEntries.add(createEntities(jsonArray.getJSONArray(i)));
+		}
+
+		if (isBatch()) {
+			List<List<E>> rangesEntries = new ArrayList<>(_rowsRanges.size());
+			for (Pair<Integer, Integer> rowsRange : _rowsRanges) {
+				rangesEntries.add(getRangeEntries(rowsRange, fetchedEntries));
+			}
+			result.setRangesEntries(rangesEntries);
 		}
 
-		result.setEntries(entries);
-		result.setRowCount(((JSONArray) obj).getInt(1));
+		result.setEntries(fetchedEntries.get(0));
+
+		if (_cachedRowCount == null) {
+			int rowCount = jsonArray.getInt(_fetchedRanges.size());
+			RowCountCache.put(_listKey, rowCount);
+			result.setRowCount(rowCount);
+		}
+		else {
+			result.setRowCount(_cachedRowCount);
+		}
 		return result;
 	}
 
@@ -66,14 +103,32 @@ public abstract class BaseListCallback<E>
 	public void onSuccess(BaseListResult<E> result) {
 		cleanRequestState();
 
-		super.onSuccess(result);
+		if (!isBatch()) {
+			super.onSuccess(result);
+			return;
+		}
+
+		for (int i = 0; i < _rowsRanges.size(); i++) {
+			Pair<Integer, Integer> rowsRange = _rowsRanges.get(i);
+
+			EventBusUtil.post(new BaseListEvent<>(getTargetScreenletId(), rowsRange.first, rowsRange.second,
+				_locale, result.getRangesEntries().get(i), result.getRowCount()));
+		}
 	}
 
 	@Override
 	public void onFailure(Exception e) {
 		cleanRequestState();
 
-		super.onFailure(e);
+		if (!isBatch()) {
+			super.onFailure(e);
+			return;
+		}
+
+		for (Pair<Integer, Integer> rowsRange : _rowsRanges) {
+			EventBusUtil.post(new BaseListEvent<E>(getTargetScreenletId(), rowsRange.first, rowsRange.second,
+				_locale, e));
+		}
 	}
 
 	public abstract E createEntity(Map<String, Object> stringObjectMap);
@@ -90,10 +145,49 @@ public abstract class BaseListCallback<E>
 	}
 
 	protected void cleanRequestState() {
-		RequestState.getInstance().remove(getTargetScreenletId(), _rowsRange);
+		for (Pair<Integer, Integer> rowsRange : _rowsRanges) {
+			RequestState.getInstance().remove(getTargetScreenletId(), rowsRange);
+		}
+	}
+
+	private boolean isBatch() {
+		return _rowsRanges.size() > 1;
+	}
+
+	private List<E> createEntities(JSONArray jsonArray) throws Exception {
+		List<E> entries = new ArrayList<>();
+
+		for (int i = 0; i < jsonArray.length(); i++) {
+			JSONObject jsonObject = jsonArray.getJSONObject(i);
+			entries.add(createEntity(JSONUtil.toMap(jsonObject)));
+		}
+		return entries;
+	}
+
+	/**
+	 * The rows of a requested range, the last pages can have less rows than requested
+	 */
+	private List<E> getRangeEntries(Pair<Integer, Integer> rowsRange, List<List<E>> fetchedEntries) {
+		for (int i = 0; i < _fetchedRanges.size(); i++) {
+			Pair<Integer, Integer> fetchedRange = _fetchedRanges.get(i);
+
+			if (fetchedRange.first <= rowsRange.first && rowsRange.second <= fetchedRange.second) {
+				List<E> entries = fetchedEntries.get(i);
+
+				int start = Math.min(rowsRange.first - fetchedRange.first, entries.size());
+				int end = Math.min(rowsRange.second - fetchedRange.first, entries.size());
+
+				return new ArrayList<>(entries.subList(start, end));
+			}
+		}
+		return new ArrayList<>();
 	}
 
 	private final Pair<Integer, Integer> _rowsRange;
 
 	private final Locale _locale;
+	private List<Pair<Integer, Integer>> _rowsRanges;
+	private List<Pair<Integer, Integer>> _fetchedRanges;
+	private String _listKey;
+	private Integer _cachedRowCount;
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.liferay.mobile.screens.base.list.interactor;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.util.Pair;
 
@@ -11,24 +13,46 @@ import com.liferay.mobile.screens.cache.Cache;
 import com.liferay.mobile.screens.cache.OfflinePolicy;
 import com.liferay.mobile.screens.cache.CachedType;
 import com.liferay.mobile.screens.cache.sql.CacheSQL;
+import com.liferay.mobile.screens.cache.sql.CursorList;
+import com.liferay.mobile.screens.cache.tablecache.ListRowCache;
 import com.liferay.mobile.screens.cache.tablecache.TableCache;
 import com.liferay.mobile.screens.context.LiferayServerContext;
 import com.liferay.mobile.screens.context.SessionContext;
 import com.liferay.mobile.screens.util.EventBusUtil;
 import com.liferay.mobile.screens.util.LiferayLocale;
+import com.liferay.mobile.screens.util.LiferayLogger;
 
 import org.json.JSONException;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 
 /**
+ * The pages requested within the batch delay are fetched together: the adjacent ranges
+ * are merged and all of them are requested in one batch with only one count call.
+ * Every requested page is still delivered in its own event.
+ *
  * @author Javier Gamarra
  */
 public abstract class BaseListInteractor<E, L extends BaseListInteractorListener>
 	extends BaseCachedRemoteInteractor<L, BaseListEvent> {
 
+	public static final long DEFAULT_BATCH_DELAY = 50;
+
+	/**
+	 * Time in milliseconds the requested pages wait to be fetched together, 0 to fetch them one by one
+	 */
+	public static void setBatchDelay(long batchDelayInMillis) {
+		_batchDelay = batchDelayInMillis;
+	}
+
+	public static long getBatchDelay() {
+		return _batchDelay;
+	}
+
 	public BaseListInteractor(int targetScreenletId, OfflinePolicy offlinePolicy) {
 		super(targetScreenletId, offlinePolicy);
 	}
@@ -48,14 +72,37 @@ public abstract class BaseListInteractor<E, L extends BaseListInteractorListener
 			return;
 		}
 
-		BatchSessionImpl session = getSession(rowsRange, locale);
+		if (!canBatchRanges()) {
+			BatchSessionImpl session = getSession(rowsRange, locale);
+
+			getPageRowsRequest(session, startRow, endRow, locale);
+			getPageRowCountRequest(session);
+
+			session.invoke();
+
+			requestState.put(getTargetScreenletId(), rowsRange);
+			return;
+		}
+
+		if (_batchDelay <= 0) {
+			requestState.put(getTargetScreenletId(), rowsRange);
 
-		getPageRowsRequest(session, startRow, endRow, locale);
-		getPageRowCountRequest(session);
+			loadRanges(Collections.singletonList(rowsRange), locale);
+			return;
+		}
 
-		session.invoke();
+		if (_pendingLocale != null && !_pendingLocale.equals(locale)) {
+			loadPendingRanges();
+		}
 
 		requestState.put(getTargetScreenletId(), rowsRange);
+
+		_pendingRanges.add(rowsRange);
+		_pendingLocale = locale;
+
+		if (_pendingRanges.size() == 1) {
+			_handler.postDelayed(_loadPendingRanges, _batchDelay);
+		}
 	}
 
 	public void onEventMainThread(BaseListEvent event) {
@@ -90,59 +137,64 @@ public abstract class BaseListInteractor<E, L extends BaseListInteractorListener
 			event.getStartRow(), event.getEndRow(), event.getException());
 	}
 
+	@Override
+	protected void notifyCacheError(Exception e, Object... args) {
+		getListener().onListRowsFailure((int) args[0], (int) args[1], e);
+	}
+
 	protected boolean recoverRows(String id, CachedType type, CachedType typeCount, Long groupId, Long userId,
 								  Locale locale, int startRow, int endRow)
 		throws JSONException {
 
-		String query = " AND "
-			+ TableCache.ID + " >= ? AND "
-			+ TableCache.ID + " < ? AND "
-			+ TableCache.USER_ID + " = ? AND "
-			+ TableCache.GROUP_ID + " = ? AND "
-			+ TableCache.LOCALE + " = ? ";
-
-		String startId = createId(id, startRow);
-		String endId = createId(id, endRow);
-
 		Long defaultGroupId = groupId == null ? LiferayServerContext.getGroupId() : groupId;
 		Long defaultUserId = userId == null ? (long) SessionContext.getDefaultUserId() : userId;
 		String defaultLocale = locale == null ? LiferayLocale.getDefaultSupportedLocale() :
 			LiferayLocale.getSupportedLocale(locale.getDisplayLanguage());
 
 		Cache cache = CacheSQL.getInstance();
-		List<TableCache> elements = (List<TableCache>) cache.get(type, query, startId, endId, defaultUserId, defaultGroupId, defaultLocale);
+		CursorList<TableCache> elements = (CursorList<TableCache>) cache.getLazy(type, PAGE_QUERY, id,
+			defaultUserId, defaultGroupId, defaultLocale, startRow, endRow);
 
-		if (elements != null && !elements.isEmpty()) {
+		try {
+			if (elements.isEmpty()) {
+				return false;
+			}
 
-			List<E> entries = new ArrayList<>();
+			TableCache tableCache = (TableCache) cache.getById(typeCount, id, groupId, userId, locale);
 
-			for (TableCache tableCache : elements) {
-				entries.add(getElement(tableCache));
+			if (tableCache == null || isExpired(tableCache)) {
+				return false;
 			}
 
-			TableCache tableCache = (TableCache) cache.getById(typeCount, id, groupId, userId, locale);
+			List<E> entries = new ArrayList<>(elements.size());
+
+			for (TableCache element : elements) {
+				if (isExpired(element)) {
+					return false;
+				}
+				entries.add(getElement(element));
+			}
 
 			Integer rowCount = Integer.valueOf(tableCache.getContent());
 
 			BaseListEvent event = new BaseListEvent(getTargetScreenletId(), startRow, endRow, locale, entries, rowCount);
+			event.setCached(true);
 			EventBusUtil.post(event);
 
 			return true;
 		}
-		return false;
+		finally {
+			elements.close();
+		}
 	}
 
 	@NonNull
 	protected abstract E getElement(TableCache tableCache) throws JSONException;
 
-	protected String createId(String recordSetId, Integer row) {
-		return String.format("%s_%05d", recordSetId, row);
-	}
-
 	protected void storeRows(String id, CachedType cachedType, CachedType cachedTypeCount, Long groupId, Long userId, BaseListEvent event) {
-		Cache cache = CacheSQL.getInstance();
+		List<TableCache> rows = new ArrayList<>(event.getEntries().size() + 1);
 
-		cache.set(new TableCache(id, cachedTypeCount, String.valueOf(event.getRowCount()),
+		rows.add(new TableCache(id, cachedTypeCount, String.valueOf(event.getRowCount()),
 			groupId, userId, event.getLocale()));
 
 		for (int i = 0; i < event.getEntries().size(); i++) {
@@ -151,8 +203,11 @@ public abstract class BaseListInteractor<E, L extends BaseListInteractorListener
 
 			String content = getContent((E) event.getEntries().get(i));
 
-			cache.set(new TableCache(createId(id, range), cachedType, content, groupId, userId, event.getLocale()));
+			rows.add(new ListRowCache(id, range, cachedType, content, groupId, userId, event.getLocale()));
 		}
+
+		Cache cache = CacheSQL.getInstance();
+		cache.setAll(rows);
 	}
 
 	protected abstract String getContent(E object);
@@ -167,6 +222,87 @@ public abstract class BaseListInteractor<E, L extends BaseListInteractorListener
 		return batchSession;
 	}
 
+	/**
+	 * Without a cached row count the batch ends with a count request
+	 */
+	protected BatchSessionImpl getSession(
+		List<Pair<Integer, Integer>> rowsRanges, List<Pair<Integer, Integer>> fetchedRanges, Locale locale,
+		Integer cachedRowCount) {
+
+		Session currentSession = SessionContext.createSessionFromCurrentSession();
+
+		BatchSessionImpl batchSession = new BatchSessionImpl(currentSession);
+
+		BaseListCallback<E> callback = getCallback(rowsRanges.get(0), locale);
+		callback.setRowsRanges(rowsRanges, fetchedRanges);
+		callback.setRowCount(getListKey(), cachedRowCount);
+		batchSession.setCallback(callback);
+
+		return batchSession;
+	}
+
+	/**
+	 * Identifies the list to cache its row count, null to request it with every page
+	 */
+	protected String getListKey() {
+		return null;
+	}
+
+	/**
+	 * The row count of the list if it doesn't have to be requested again:
+	 * it's fresh and the first page is not requested, as it's loaded to refresh the list
+	 */
+	protected Integer getCachedRowCount(List<Pair<Integer, Integer>> rowsRanges) {
+		for (Pair<Integer, Integer> rowsRange : rowsRanges) {
+			if (rowsRange.first == 0) {
+				return null;
+			}
+		}
+
+		return RowCountCache.get(getListKey());
+	}
+
+	/**
+	 * Whether several ranges can be requested in the same batch, each one with a rows request
+	 */
+	protected boolean canBatchRanges() {
+		return true;
+	}
+
+	/**
+	 * Sorts the ranges and merges the adjacent and overlapping ones
+	 */
+	protected static List<Pair<Integer, Integer>> mergeRanges(List<Pair<Integer, Integer>> rowsRanges) {
+		List<Pair<Integer, Integer>> sortedRanges = new ArrayList<>(rowsRanges);
+		Collections.sort(sortedRanges, new Comparator<Pair<Integer, Integer>>() {
+			@Override
+			public int compare(Pair<Integer, Integer> range, Pair<Integer, Integer> otherRange) {
+				return range.first.compareTo(otherRange.first);
+			}
+		});
+
+		List<Pair<Integer, Integer>> mergedRanges = new ArrayList<>();
+		Pair<Integer, Integer> current = null;
+
+		for (Pair<Integer, Integer> range : sortedRanges) {
+			if (current != null && range.first <= current.second) {
+				current = new Pair<>(current.first, Math.max(current.second, range.second));
+			}
+			else {
+				if (current != null) {
+					mergedRanges.add(current);
+				}
+				current = range;
+			}
+		}
+
+		if (current != null) {
+			mergedRanges.add(current);
+		}
+
+		return mergedRanges;
+	}
+
 	protected void validate(
 		int startRow, int endRow, Locale locale) {
 
@@ -193,4 +329,75 @@ public abstract class BaseListInteractor<E, L extends BaseListInteractorListener
 
 	protected abstract void getPageRowCountRequest(Session session) throws Exception;
 
+	private void loadPendingRanges() {
+		_handler.removeCallbacks(_loadPendingRanges);
+
+		if (_pendingRanges.isEmpty()) {
+			return;
+		}
+
+		List<Pair<Integer, Integer>> rowsRanges = new ArrayList<>(_pendingRanges);
+		Locale locale = _pendingLocale;
+
+		_pendingRanges.clear();
+		_pendingLocale = null;
+
+		loadRanges(rowsRanges, locale);
+	}
+
+	private void loadRanges(List<Pair<Integer, Integer>> rowsRanges, Locale locale) {
+		List<Pair<Integer, Integer>> fetchedRanges = mergeRanges(rowsRanges);
+		Integer cachedRowCount = getCachedRowCount(rowsRanges);
+
+		try {
+			BatchSessionImpl session = getSession(rowsRanges, fetchedRanges, locale, cachedRowCount);
+
+			for (Pair<Integer, Integer> fetchedRange : fetchedRanges) {
+				getPageRowsRequest(session, fetchedRange.first, fetchedRange.second, locale);
+			}
+
+			if (cachedRowCount == null) {
+				getPageRowCountRequest(session);
+			}
+
+			session.invoke();
+		}
+		catch (Exception e) {
+			LiferayLogger.e("Could not load the pages of the list", e);
+
+			RequestState requestState = RequestState.getInstance();
+
+			for (Pair<Integer, Integer> rowsRange : rowsRanges) {
+				requestState.remove(getTargetScreenletId(), rowsRange);
+
+				EventBusUtil.post(new BaseListEvent<E>(getTargetScreenletId(), rowsRange.first,
+					rowsRange.second, locale, e));
+			}
+		}
+	}
+
+	/**
+	 * Selection of a range of rows of a list, by list key, user, group, locale and row index
+	 */
+	public static final String PAGE_QUERY = " AND "
+		+ ListRowCache.LIST_KEY + " = ? AND "
+		+ TableCache.USER_ID + " = ? AND "
+		+ TableCache.GROUP_ID + " = ? AND "
+		+ TableCache.LOCALE + " = ? AND "
+		+ ListRowCache.ROW_INDEX + " >= ? AND "
+		+ ListRowCache.ROW_INDEX + " < ? ";
+
+	private static final Handler _handler = new Handler(Looper.getMainLooper());
+	private static volatile long _batchDelay = DEFAULT_BATCH_DELAY;
+
+	private final List<Pair<Integer, Integer>> _pendingRanges = new ArrayList<>();
+	private Locale _pendingLocale;
+
+	private final Runnable _loadPendingRanges = new Runnable() {
+		@Override
+		public void run() {
+			loadPendingRanges();
+		}
+	};
+
 }
\ No newline at end of file
@@ -20,7 +20,19 @@ public class BaseListResult<E> {
         return _rowCount;
     }
 
+    /**
+     * The entries of every requested range when several ranges are fetched in the same batch
+     */
+    public List<List<E>> getRangesEntries() {
+        return _rangesEntries;
+    }
+
+    public void setRangesEntries(List<List<E>> rangesEntries) {
+        _rangesEntries = rangesEntries;
+    }
+
 	private List<E> _entries;
 	private int _rowCount;
+	private List<List<E>> _rangesEntries;
 
 }
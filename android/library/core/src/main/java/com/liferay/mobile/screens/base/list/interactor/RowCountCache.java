@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.base.list.interactor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Last row count of every list, so the pages after the first one don't request it again
+ * while it's fresh. The first page of a list always requests it.
+ *
+ * @author Javier Gamarra
+ */
+public class RowCountCache {
+
+	public static final long DEFAULT_MAX_AGE = 60 * 1000;
+
+	/**
+	 * Time in milliseconds a row count is fresh, 0 to request it with every page
+	 */
+	public static void setMaxAge(long maxAgeInMillis) {
+		_maxAge = maxAgeInMillis;
+	}
+
+	public static long getMaxAge() {
+		return _maxAge;
+	}
+
+	/**
+	 * The row count of the list if it's fresh, null otherwise
+	 */
+	public static synchronized Integer get(String listKey) {
+		RowCount rowCount = listKey == null ? null : _rowCounts.get(listKey);
+
+		if (rowCount == null || System.currentTimeMillis() - rowCount.date > _maxAge) {
+			return null;
+		}
+		return rowCount.count;
+	}
+
+	public static synchronized void put(String listKey, int count) {
+		if (listKey != null) {
+			_rowCounts.put(listKey, new RowCount(count, System.currentTimeMillis()));
+		}
+	}
+
+	/**
+	 * Forces the next page of the list to request the row count
+	 */
+	public static synchronized void invalidate(String listKey) {
+		_rowCounts.remove(listKey);
+	}
+
+	public static synchronized void clear() {
+		_rowCounts.clear();
+	}
+
+	private RowCountCache() {
+		super();
+	}
+
+	private static final Map<String, RowCount> _rowCounts = new HashMap<>();
+	private static volatile long _maxAge = DEFAULT_MAX_AGE;
+
+	private static class RowCount {
+
+		RowCount(int count, long date) {
+			this.count = count;
+			this.date = date;
+		}
+
+		final int count;
+		final long date;
+	}
+
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.mobile.screens.base.upload;
+
+import com.liferay.mobile.screens.base.interactor.BasicEvent;
+
+/**
+ * @author Javier Gamarra
+ */
+public class UploadProgressEvent extends BasicEvent {
+
+	public UploadProgressEvent(int targetScreenletId, String path, long uploadedBytes, long totalBytes) {
+		super(targetScreenletId);
+
+		_path = path;
+		_uploadedBytes = uploadedBytes;
+		_totalBytes = totalBytes;
+	}
+
+	public String getPath() {
+		return _path;
+	}
+
+	public long getUploadedBytes() {
+		return _uploadedBytes;
+	}
+
+	public long getTotalBytes() {
+		return _totalBytes;
+	}
+
+	private final String _path;
+	private final long _uploadedBytes;
+	private final long _totalBytes;
+
+}
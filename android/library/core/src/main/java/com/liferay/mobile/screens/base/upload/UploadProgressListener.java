@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.mobile.screens.base.upload;
+
+/**
+ * Optional listener of the screenlets that upload files, the screenlet listener
+ * can implement it to receive the progress of the uploads
+ *
+ * @author Javier Gamarra
+ */
+public interface UploadProgressListener {
+
+	void onUploadProgress(String path, long uploadedBytes, long totalBytes);
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.mobile.screens.base.upload;
+
+import com.liferay.mobile.screens.util.LiferayLogger;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the uploads of the screenlets and of the sync in parallel, the waiting uploads start by priority
+ * and, with the same priority, the smallest first.
+ *
+ * @author Javier Gamarra
+ */
+public class UploadQueue {
+
+	public static final int PRIORITY_USER_VISIBLE = 0;
+	public static final int PRIORITY_DEFAULT = 5;
+	/**
+	 * The uploads of the documents and portraits stored offline, sent by the sync
+	 */
+	public static final int PRIORITY_BULK = 10;
+
+	public static final int DEFAULT_PARALLELISM = 2;
+
+	/**
+	 * Max uploads running at the same time
+	 */
+	public static synchronized void setParallelism(int parallelism) {
+		_parallelism = Math.max(1, parallelism);
+
+		if (_executor != null) {
+			if (_parallelism > _executor.getMaximumPoolSize()) {
+				_executor.setMaximumPoolSize(_parallelism);
+				_executor.setCorePoolSize(_parallelism);
+			}
+			else {
+				_executor.setCorePoolSize(_parallelism);
+				_executor.setMaximumPoolSize(_parallelism);
+			}
+		}
+	}
+
+	public static synchronized int getParallelism() {
+		return _parallelism;
+	}
+
+	public static synchronized void submit(UploadTask task) {
+		_tasks.add(task);
+		getExecutor().execute(task);
+	}
+
+	/**
+	 * Cancels the waiting and running uploads of a screenlet, the running ones don't post their result
+	 *
+	 * @return the number of cancelled uploads
+	 */
+	public static synchronized int cancel(int screenletId) {
+		int cancelled = 0;
+
+		for (UploadTask task : new HashSet<>(_tasks)) {
+			if (task.getTargetScreenletId() == screenletId) {
+				task.cancel();
+				_tasks.remove(task);
+				_executor.remove(task);
+				cancelled++;
+			}
+		}
+
+		if (cancelled > 0) {
+			LiferayLogger.i("Cancelled " + cancelled + " uploads of the screenlet " + screenletId);
+		}
+
+		return cancelled;
+	}
+
+	/**
+	 * Waiting and running uploads
+	 */
+	public static synchronized int size() {
+		return _tasks.size();
+	}
+
+	private static synchronized void finished(UploadTask task) {
+		_tasks.remove(task);
+	}
+
+	private static ThreadPoolExecutor getExecutor() {
+		if (_executor == null) {
+			_executor = new ThreadPoolExecutor(_parallelism, _parallelism, KEEP_ALIVE, TimeUnit.MILLISECONDS,
+				new PriorityBlockingQueue<Runnable>(), new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "screens-upload-" + _threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			}) {
+				@Override
+				protected void afterExecute(Runnable runnable, Throwable throwable) {
+					finished((UploadTask) runnable);
+				}
+			};
+			_executor.allowCoreThreadTimeOut(true);
+		}
+		return _executor;
+	}
+
+	private UploadQueue() {
+		super();
+	}
+
+	private static final long KEEP_ALIVE = 30 * 1000;
+
+	private static final Set<UploadTask> _tasks = new HashSet<>();
+	private static final AtomicInteger _threadCount = new AtomicInteger();
+	private static ThreadPoolExecutor _executor;
+	private static int _parallelism = DEFAULT_PARALLELISM;
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.mobile.screens.base.upload;
+
+import com.liferay.mobile.screens.util.EventBusUtil;
+import com.liferay.mobile.screens.util.LiferayLogger;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Upload of a screenlet run by the {@link UploadQueue}, it posts its progress and its result
+ * to the screenlet unless it's cancelled.
+ *
+ * @author Javier Gamarra
+ */
+public abstract class UploadTask implements Runnable, Comparable<UploadTask> {
+
+	public UploadTask(int targetScreenletId, int priority, long sizeInBytes) {
+		_targetScreenletId = targetScreenletId;
+		_priority = priority;
+		_sizeInBytes = sizeInBytes;
+		_sequence = _sequences.incrementAndGet();
+	}
+
+	@Override
+	public final void run() {
+		if (_cancelled) {
+			return;
+		}
+
+		try {
+			upload();
+		}
+		catch (CancellationException e) {
+			LiferayLogger.i("Upload of the screenlet " + _targetScreenletId + " cancelled");
+		}
+	}
+
+	public void cancel() {
+		_cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return _cancelled;
+	}
+
+	public int getTargetScreenletId() {
+		return _targetScreenletId;
+	}
+
+	public int getPriority() {
+		return _priority;
+	}
+
+	public long getSizeInBytes() {
+		return _sizeInBytes;
+	}
+
+	/**
+	 * Lower priority first, then the smallest, then in the order they were created
+	 */
+	@Override
+	public int compareTo(UploadTask other) {
+		if (_priority != other._priority) {
+			return _priority < other._priority ? -1 : 1;
+		}
+		if (_sizeInBytes != other._sizeInBytes) {
+			return _sizeInBytes < other._sizeInBytes ? -1 : 1;
+		}
+		return _sequence < other._sequence ? -1 : (_sequence == other._sequence ? 0 : 1);
+	}
+
+	/**
+	 * Sends the file and posts the result event to the screenlet
+	 */
+	protected abstract void upload();
+
+	/**
+	 * Posts an {@link UploadProgressEvent}, throws a CancellationException to stop the upload
+	 * if it has been cancelled
+	 */
+	protected void postProgress(String path, long uploadedBytes, long totalBytes) {
+		if (_cancelled) {
+			throw new CancellationException();
+		}
+
+		EventBusUtil.post(new UploadProgressEvent(_targetScreenletId, path, uploadedBytes, totalBytes));
+	}
+
+	/**
+	 * Posts the result of the upload if it hasn't been cancelled
+	 */
+	protected void postResult(Object event) {
+		if (!_cancelled) {
+			EventBusUtil.post(event);
+		}
+	}
+
+	private static final AtomicLong _sequences = new AtomicLong();
+
+	private final int _targetScreenletId;
+	private final int _priority;
+	private final long _sizeInBytes;
+	private final long _sequence;
+	private volatile boolean _cancelled;
+
+}
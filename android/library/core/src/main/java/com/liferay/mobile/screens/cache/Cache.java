@@ -2,6 +2,8 @@ package com.liferay.mobile.screens.cache;
 
 import android.content.Context;
 
+import com.liferay.mobile.screens.cache.sql.CursorList;
+
 import java.util.List;
 import java.util.Locale;
 
@@ -9,6 +11,8 @@ public interface Cache<E> {
 
 	List<E> get(CachedType cachedType, String query, Object... args);
 
+	CursorList<E> getLazy(CachedType cachedType, String query, Object... args);
+
 //	List<E> get(CachedType cachedType, String orderBy, String query, Object... args);
 
 	E getById(CachedType cachedType, String id);
@@ -17,6 +21,10 @@ public interface Cache<E> {
 
 	void set(E object);
 
+	void setAll(List<E> objects);
+
+	void flush();
+
 	int clear(CachedType cachedType);
 
 	int clear(CachedType cachedType, String id);
@@ -5,17 +5,28 @@ import android.content.Context;
 import android.content.Intent;
 import android.support.v4.content.WakefulBroadcastReceiver;
 
-import com.liferay.mobile.screens.cache.CacheSyncService;
+import com.liferay.mobile.screens.cache.sync.SyncScheduler;
 
 /**
+ * Starts the sync when its alarm goes off, the other broadcasts (like a resync or
+ * a change of connectivity) request a sync to the scheduler
+ *
  * @author Javier Gamarra
  */
 public class CacheReceiver extends WakefulBroadcastReceiver {
 	@Override
 	public void onReceive(Context context, Intent intent) {
 
-		ComponentName component = new ComponentName(context.getPackageName(), CacheSyncService.class.getName());
-		intent.setComponent(component);
-		startWakefulService(context, intent);
+		if (Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction())) {
+			SyncScheduler.restore(context);
+		}
+		else if (SyncScheduler.ACTION_SYNC.equals(intent.getAction())) {
+			ComponentName component = new ComponentName(context.getPackageName(), CacheSyncService.class.getName());
+			intent.setComponent(component);
+			startWakefulService(context, intent);
+		}
+		else {
+			SyncScheduler.requestSync(context);
+		}
 	}
 }
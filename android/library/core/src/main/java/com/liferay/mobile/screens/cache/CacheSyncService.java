@@ -6,27 +6,32 @@ import android.content.Intent;
 import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
 
-import com.liferay.mobile.android.service.JSONObjectWrapper;
-import com.liferay.mobile.android.v62.ddlrecord.DDLRecordService;
+import com.liferay.mobile.screens.base.upload.UploadQueue;
+import com.liferay.mobile.screens.base.upload.UploadTask;
 import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCache;
 import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
 import com.liferay.mobile.screens.cache.sql.CacheSQL;
+import com.liferay.mobile.screens.cache.sql.CursorList;
+import com.liferay.mobile.screens.cache.sync.DDLRecordBatchTask;
+import com.liferay.mobile.screens.cache.sync.SyncEngine;
+import com.liferay.mobile.screens.cache.sync.SyncScheduler;
+import com.liferay.mobile.screens.cache.sync.SyncTask;
 import com.liferay.mobile.screens.cache.tablecache.TableCache;
 import com.liferay.mobile.screens.context.LiferayServerContext;
 import com.liferay.mobile.screens.context.SessionContext;
 import com.liferay.mobile.screens.ddl.form.service.UploadService;
-import com.liferay.mobile.screens.ddl.model.DocumentField;
-import com.liferay.mobile.screens.ddl.model.Record;
 import com.liferay.mobile.screens.userportrait.interactor.upload.UserPortraitService;
 import com.liferay.mobile.screens.util.LiferayLogger;
 
 import org.json.JSONObject;
 
+import java.io.File;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Locale;
-import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_RECORD;
 import static com.liferay.mobile.screens.cache.DefaultCachedType.DOCUMENT_UPLOAD;
@@ -37,12 +42,39 @@ import static com.liferay.mobile.screens.cache.DefaultCachedType.USER_PORTRAIT_U
  */
 public class CacheSyncService extends IntentService {
 
+	public static final int DEFAULT_RECORDS_PER_BATCH = 20;
+	public static final long DEFAULT_UPLOAD_TIMEOUT = 10 * 60 * 1000;
+
+	public static final String WHERE_DIRTY_PORTRAITS = " AND " + TableCache.DIRTY + " = 1 "
+		+ " AND " + TableCache.USER_ID + " = ? ";
+	public static final String WHERE_DOCUMENTS_TO_UPLOAD = DocumentUploadCache.DIRTY + " = 1 "
+		+ "AND " + DocumentUploadCache.USER_ID + " = ? "
+		+ "AND " + DocumentUploadCache.GROUP_ID + " = ? ";
+	public static final String WHERE_RECORDS_TO_SYNC = DDLRecordCache.DIRTY + " = 1 AND "
+		+ TableCache.GROUP_ID + " = ? ";
+
 	public CacheSyncService() {
 		super(CacheSyncService.class.getName());
 	}
 
+	/**
+	 * Max time in milliseconds waiting for an upload of the sync, it's retried after it
+	 */
+	public static void setUploadTimeout(long uploadTimeout) {
+		_uploadTimeout = uploadTimeout;
+	}
+
+	/**
+	 * Max records sent in one JSON-WS invocation
+	 */
+	public static void setRecordsPerBatch(int recordsPerBatch) {
+		_recordsPerBatch = Math.max(1, recordsPerBatch);
+	}
+
 	@Override
 	protected void onHandleIntent(Intent intent) {
+		SyncScheduler.onSyncStarted(this);
+
 		ConnectivityManager cm =
 			(ConnectivityManager) getApplicationContext().getSystemService(Context.CONNECTIVITY_SERVICE);
 
@@ -50,114 +82,321 @@ public class CacheSyncService extends IntentService {
 		boolean isConnected = activeNetwork != null &&
 			activeNetwork.isConnectedOrConnecting();
 
-		if (isConnected && SessionContext.hasSession()) {
+		if (!isConnected) {
+			SyncScheduler.requestDeferredSync(this);
+		}
+		else if (SessionContext.hasSession()) {
+			_metered = SyncScheduler.isMetered(this);
+			_charging = SyncScheduler.isCharging(this);
+			_deferred = false;
+
+			SyncEngine syncEngine = new SyncEngine();
 			try {
 				Cache cache = CacheSQL.getInstance();
-				sendPortrait(cache);
-				sendDocuments(cache);
-				sendRecords(cache);
+				cache.flush();
+
+				sendPortrait(cache, syncEngine);
+				sendDocuments(cache, syncEngine);
+				// the records reference the uploaded documents
+				syncEngine.await();
+
+				if (hasDocumentsToUpload(cache)) {
+					deferRecords(cache, syncEngine);
+				}
+				else {
+					sendRecords(cache, syncEngine);
+					syncEngine.await();
+				}
+
+				syncEngine.logStats();
+				syncEngine.postStatus(true);
 			}
 			catch (Exception e) {
 				LiferayLogger.e("Error syncing resources", e);
 			}
+			finally {
+				syncEngine.shutdown();
+			}
+
+			if (_deferred) {
+				SyncScheduler.requestDeferredSync(this);
+			}
 		}
 		CacheReceiver.completeWakefulIntent(intent);
 	}
 
-	private void sendPortrait(Cache cache) {
+	private void sendPortrait(final Cache cache, SyncEngine syncEngine) throws InterruptedException {
 		long userId = SessionContext.getDefaultUserId();
 
-		List<TableCache> userPortraits = cache.get(USER_PORTRAIT_UPLOAD,
-			" AND " + TableCache.DIRTY + " = 1 " +
-				" AND " + TableCache.USER_ID + " = ? ",
-			userId);
+		CursorList<TableCache> userPortraits = cache.getLazy(USER_PORTRAIT_UPLOAD, WHERE_DIRTY_PORTRAITS, userId);
 
-		for (TableCache userPortrait : userPortraits) {
-			try {
-				UserPortraitService userPortraitService = new UserPortraitService();
-				JSONObject jsonObject = userPortraitService.uploadUserPortrait(Long.valueOf(userPortrait.getId()), userPortrait.getContent());
+		try {
+			syncEngine.expect(USER_PORTRAIT_UPLOAD, userPortraits.size());
+
+			for (final TableCache userPortrait : userPortraits) {
+				if (!canSync(syncEngine, USER_PORTRAIT_UPLOAD, getFileSize(userPortrait.getContent()))) {
+					continue;
+				}
+
+				syncEngine.submit(new SyncTask() {
+					@Override
+					public CachedType getCachedType() {
+						return USER_PORTRAIT_UPLOAD;
+					}
+
+					@Override
+					public String getKey() {
+						return null;
+					}
+
+					@Override
+					public int getSize() {
+						return 1;
+					}
+
+					@Override
+					public long getSizeInBytes() {
+						return getFileSize(userPortrait.getContent());
+					}
 
-				userPortrait.setDirty(false);
-				userPortrait.setSyncDate(new Date());
-				cache.set(userPortrait);
+					@Override
+					public void sync() throws Exception {
+						new BulkUpload(getSizeInBytes(), new Callable<JSONObject>() {
+							@Override
+							public JSONObject call() throws Exception {
+								UserPortraitService userPortraitService = new UserPortraitService();
+								return userPortraitService.uploadUserPortrait(Long.valueOf(userPortrait.getId()),
+									userPortrait.getContent());
+							}
+						}).send();
+
+						userPortrait.setDirty(false);
+						userPortrait.setSyncDate(new Date());
+						cache.set(userPortrait);
+					}
+				});
 			}
-			catch (Exception e) {
-				LiferayLogger.e("Error sending portrait images", e);
+		}
+		finally {
+			userPortraits.close();
+		}
+	}
+
+	private void sendDocuments(final Cache cache, SyncEngine syncEngine) throws InterruptedException {
+		CursorList<DocumentUploadCache> documentsToUpload = getDocumentsToUpload(cache);
+
+		try {
+			syncEngine.expect(DOCUMENT_UPLOAD, documentsToUpload.size());
+
+			for (final DocumentUploadCache document : documentsToUpload) {
+				if (!canSync(syncEngine, DOCUMENT_UPLOAD, getFileSize(document.getPath()))) {
+					continue;
+				}
+
+				syncEngine.submit(new SyncTask() {
+					@Override
+					public CachedType getCachedType() {
+						return DOCUMENT_UPLOAD;
+					}
+
+					@Override
+					public String getKey() {
+						return null;
+					}
+
+					@Override
+					public int getSize() {
+						return 1;
+					}
+
+					@Override
+					public long getSizeInBytes() {
+						return getFileSize(document.getPath());
+					}
+
+					@Override
+					public void sync() throws Exception {
+						new BulkUpload(getSizeInBytes(), new Callable<JSONObject>() {
+							@Override
+							public JSONObject call() throws Exception {
+								return new UploadService().uploadFile(document);
+							}
+						}).send();
+
+						document.setDirty(false);
+						document.setSyncDate(new Date());
+						cache.set(document);
+					}
+				});
 			}
 		}
+		finally {
+			documentsToUpload.close();
+		}
 	}
 
-	private void sendDocuments(Cache cache) {
-		long userId = SessionContext.getDefaultUserId();
+	private void sendRecords(Cache cache, SyncEngine syncEngine) throws InterruptedException {
 		long groupId = LiferayServerContext.getGroupId();
+		int recordsPerBatch = _recordsPerBatch;
 
-		List<DocumentUploadCache> documentsToUpload = cache.get(DOCUMENT_UPLOAD,
-			DocumentUploadCache.DIRTY + " = 1 " +
-				"AND " + DocumentUploadCache.USER_ID + " = ? " +
-				"AND " + DocumentUploadCache.GROUP_ID + " = ? ",
-			userId,
-			groupId);
+		CursorList<DDLRecordCache> records = getLatestRecordsToSync(cache);
 
-		for (DocumentUploadCache document : documentsToUpload) {
-			try {
-				Map<String, Object> objectObjectHashMap = new HashMap<>();
-				DocumentField documentField = new DocumentField(objectObjectHashMap, new Locale("es"));
-				documentField.createLocalFile(document.getPath());
+		try {
+			syncEngine.expect(DDL_RECORD, records.size());
+
+			DDLRecordBatchTask batch = new DDLRecordBatchTask(cache, groupId);
 
-				UploadService uploadService = new UploadService();
-				JSONObject jsonObject = uploadService.uploadFile(documentField, document.getUserId(), document.getGroupId(),
-					document.getRepositoryId(), document.getFolderId(), document.getFilePrefix());
+			for (DDLRecordCache cachedRecord : records) {
+				if (!canSync(syncEngine, DDL_RECORD, DDLRecordBatchTask.getPayloadSizeInBytes(cachedRecord))) {
+					continue;
+				}
 
-				document.setDirty(false);
-				document.setSyncDate(new Date());
-				cache.set(document);
+				batch.add(cachedRecord);
+
+				if (batch.getSize() == recordsPerBatch) {
+					syncEngine.submit(batch);
+					batch = new DDLRecordBatchTask(cache, groupId);
+				}
 			}
-			catch (Exception e) {
-				LiferayLogger.e("Error sending documentsToUpload", e);
+
+			if (batch.getSize() > 0) {
+				syncEngine.submit(batch);
 			}
 		}
+		finally {
+			records.close();
+		}
 	}
 
-	private void sendRecords(Cache cache) {
+	/**
+	 * Leaves the large objects for a later sync if the device doesn't meet the constraint of their type
+	 */
+	private boolean canSync(SyncEngine syncEngine, CachedType cachedType, long sizeInBytes) {
+		if (SyncScheduler.canSync(cachedType, sizeInBytes, _metered, _charging)) {
+			return true;
+		}
 
-		Long groupId = LiferayServerContext.getGroupId();
-		List<DDLRecordCache> records = getLatestRecordsToSync(cache);
+		syncEngine.defer(cachedType, 1);
+		_deferred = true;
+		return false;
+	}
 
-		DDLRecordService recordService = new DDLRecordService(SessionContext.createSessionFromCurrentSession());
+	private long getFileSize(String path) {
+		return path == null ? 0 : new File(path).length();
+	}
 
-		for (DDLRecordCache cachedRecord : records) {
-			try {
-				Record record = cachedRecord.getRecord();
-				record.setCreatorUserId(SessionContext.getLoggedUser().getId());
-				final JSONObject serviceContextAttributes = new JSONObject();
-				serviceContextAttributes.put("userId", record.getCreatorUserId());
-				serviceContextAttributes.put("scopeGroupId", groupId);
-				JSONObjectWrapper serviceContextWrapper = new JSONObjectWrapper(serviceContextAttributes);
-				JSONObject jsonContent = cachedRecord.getJSONContent();
-
-				JSONObject jsonObject = saveOrUpdate(recordService, record, groupId, serviceContextWrapper, jsonContent);
-
-				cachedRecord.setDirty(false);
-				cachedRecord.setSyncDate(new Date());
-				cache.set(cachedRecord);
-			}
-			catch (Exception e) {
-				LiferayLogger.e("Error syncing a record", e);
+	/**
+	 * A document deferred or failed is still dirty, the records stored offline reference it with
+	 * an empty value, so no record is sent until every document is uploaded
+	 */
+	private boolean hasDocumentsToUpload(Cache cache) {
+		CursorList<DocumentUploadCache> documentsToUpload = getDocumentsToUpload(cache);
+		try {
+			return !documentsToUpload.isEmpty();
+		}
+		finally {
+			documentsToUpload.close();
+		}
+	}
+
+	private void deferRecords(Cache cache, SyncEngine syncEngine) {
+		CursorList<DDLRecordCache> records = getLatestRecordsToSync(cache);
+		try {
+			if (!records.isEmpty()) {
+				LiferayLogger.i("There are documents pending to upload, the records are synced later");
+
+				syncEngine.expect(DDL_RECORD, records.size());
+				syncEngine.defer(DDL_RECORD, records.size());
+				_deferred = true;
 			}
 		}
+		finally {
+			records.close();
+		}
+	}
+
+	private CursorList<DocumentUploadCache> getDocumentsToUpload(Cache cache) {
+		long userId = SessionContext.getDefaultUserId();
+		long groupId = LiferayServerContext.getGroupId();
+
+		return cache.getLazy(DOCUMENT_UPLOAD, WHERE_DOCUMENTS_TO_UPLOAD, userId, groupId);
 	}
 
-	private List<DDLRecordCache> getLatestRecordsToSync(Cache cache) {
+	private CursorList<DDLRecordCache> getLatestRecordsToSync(Cache cache) {
 		long groupId = LiferayServerContext.getGroupId();
-		return cache.get(DDL_RECORD, DDLRecordCache.DIRTY + " = 1 AND " + TableCache.GROUP_ID + " = ? ", groupId);
+		return cache.getLazy(DDL_RECORD, WHERE_RECORDS_TO_SYNC, groupId);
 	}
 
-	private JSONObject saveOrUpdate(DDLRecordService recordService, Record record, long groupId, JSONObjectWrapper serviceContextWrapper, JSONObject jsonContent) throws Exception {
-		if (record.getRecordId() == 0) {
-			return recordService.addRecord(groupId, record.getRecordSetId(), 0, jsonContent, serviceContextWrapper);
+	private static final int NO_SCREENLET = 0;
+
+	private static volatile int _recordsPerBatch = DEFAULT_RECORDS_PER_BATCH;
+	private static volatile long _uploadTimeout = DEFAULT_UPLOAD_TIMEOUT;
+
+	private boolean _metered;
+	private boolean _charging;
+	private boolean _deferred;
+
+	/**
+	 * Upload of the sync, it shares the parallelism of the {@link UploadQueue} with the screenlets
+	 * and starts after their waiting uploads
+	 */
+	private static class BulkUpload extends UploadTask {
+
+		BulkUpload(long sizeInBytes, Callable<JSONObject> upload) {
+			super(NO_SCREENLET, UploadQueue.PRIORITY_BULK, sizeInBytes);
+			_upload = upload;
+		}
+
+		/**
+		 * Queues the upload and waits for it, throwing its exception if it fails, is cancelled
+		 * or doesn't finish in time, so the sync engine retries it
+		 */
+		void send() throws Exception {
+			UploadQueue.submit(this);
+
+			if (!_done.await(_uploadTimeout, TimeUnit.MILLISECONDS)) {
+				cancel();
+				throw new TimeoutException("The upload didn't finish in " + _uploadTimeout + " ms");
+			}
+
+			if (_exception != null) {
+				throw _exception;
+			}
+		}
+
+		/**
+		 * A cancelled task is never run, so the wait ends here
+		 */
+		@Override
+		public void cancel() {
+			super.cancel();
+			finish(new CancellationException());
 		}
-		else {
-			return recordService.updateRecord(record.getRecordId(), 0, jsonContent, true, serviceContextWrapper);
+
+		@Override
+		protected void upload() {
+			try {
+				_upload.call();
+				finish(null);
+			}
+			catch (Exception e) {
+				finish(e);
+			}
 		}
+
+		/**
+		 * Only the first outcome counts, a cancelled upload can still end later
+		 */
+		private synchronized void finish(Exception exception) {
+			if (_done.getCount() > 0) {
+				_exception = exception;
+				_done.countDown();
+			}
+		}
+
+		private final Callable<JSONObject> _upload;
+		private final CountDownLatch _done = new CountDownLatch(1);
+		private volatile Exception _exception;
 	}
+
 }
@@ -24,6 +24,9 @@ public class DocumentUploadCache implements CachedContent {
 	public static final String FILE_PREFIX = "filePrefix";
 	public static final String DIRTY = "dirty";
 	public static final String SYNC_DATE = "sync_date";
+	public static final String UPLOAD_ID = "uploadId";
+	public static final String UPLOADED_BYTES = "uploadedBytes";
+	public static final String TITLE = "title";
 
 	public DocumentUploadCache() {
 		super();
@@ -91,6 +94,39 @@ public class DocumentUploadCache implements CachedContent {
 		_filePrefix = filePrefix;
 	}
 
+	/**
+	 * Id of the resumable upload of the file, null if it hasn't started
+	 */
+	public String getUploadId() {
+		return _uploadId;
+	}
+
+	public void setUploadId(String uploadId) {
+		_uploadId = uploadId;
+	}
+
+	/**
+	 * Bytes of the file acknowledged by the portal in the resumable upload
+	 */
+	public long getUploadedBytes() {
+		return _uploadedBytes;
+	}
+
+	public void setUploadedBytes(long uploadedBytes) {
+		_uploadedBytes = uploadedBytes;
+	}
+
+	/**
+	 * Title of the file entry given in the first attempt of the upload, null if it hasn't started
+	 */
+	public String getTitle() {
+		return _title;
+	}
+
+	public void setTitle(String title) {
+		_title = title;
+	}
+
 	@Override
 	public CachedType getCachedType() {
 		return DefaultCachedType.DOCUMENT_UPLOAD;
@@ -130,4 +166,10 @@ public class DocumentUploadCache implements CachedContent {
 	int _dirty;
 	@StorIOSQLiteColumn(name = SYNC_DATE)
 	Long _syncDate;
+	@StorIOSQLiteColumn(name = UPLOAD_ID)
+	String _uploadId;
+	@StorIOSQLiteColumn(name = UPLOADED_BYTES)
+	long _uploadedBytes;
+	@StorIOSQLiteColumn(name = TITLE)
+	String _title;
 }
@@ -12,16 +12,13 @@ import java.util.Locale;
  */
 public class DocumentUploadCacheStrategy extends BaseCacheStrategy implements CacheStrategy {
 
+	public static final String WHERE_BY_ID_AND_SCOPE = DocumentUploadCache.PATH + " = ? AND "
+		+ DocumentUploadCache.GROUP_ID + " = ? AND "
+		+ DocumentUploadCache.USER_ID + " = ? ";
+
 	@Override
 	public DocumentUploadCache getById(String id, Long groupId, Long userId, Locale locale) {
-		List list = get(
-			DocumentUploadCache.PATH + " = ? AND "
-				+ DocumentUploadCache.GROUP_ID + " = ? AND "
-				+ DocumentUploadCache.USER_ID + " = ? ",
-			id,
-			groupId,
-			userId
-		);
+		List list = get(WHERE_BY_ID_AND_SCOPE, id, groupId, userId);
 		return list.isEmpty() ? null : (DocumentUploadCache) list.get(0);
 	}
 
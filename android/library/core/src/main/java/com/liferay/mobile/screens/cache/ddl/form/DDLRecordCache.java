@@ -6,10 +6,13 @@ import com.liferay.mobile.screens.cache.tablecache.TableCache;
 import com.liferay.mobile.screens.context.LiferayServerContext;
 import com.liferay.mobile.screens.ddl.model.Record;
 
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.Date;
 import java.util.Locale;
+import java.util.UUID;
 
 /**
  * @author Javier Gamarra
@@ -21,6 +24,7 @@ public class DDLRecordCache extends RecordCache {
 	public static final String DIRTY = "dirty";
 	public static final String GROUP_ID = "groupId";
 	public static final String DATE_ADDED = "dateAdded";
+	public static final String CHANGED_FIELDS = "changedFields";
 
 	public DDLRecordCache() {
 		super();
@@ -32,6 +36,13 @@ public class DDLRecordCache extends RecordCache {
 		_groupId = groupId == null ? LiferayServerContext.getGroupId() : groupId;
 		_dateAdded = new Date().getTime();
 		_dirty = 1;
+		_changedFields = new JSONArray(record.getChangedFieldNames()).toString();
+
+		// the record keeps the local id, so its next versions replace this one
+		if (_recordId == 0 && _localId == null) {
+			_localId = UUID.randomUUID().toString();
+			record.setLocalId(_localId);
+		}
 	}
 
 	public long getGroupId() {
@@ -81,8 +92,44 @@ public class DDLRecordCache extends RecordCache {
 		_dateAdded = dateAdded;
 	}
 
+	/**
+	 * Names of the fields changed since the record was loaded, as a JSON array,
+	 * null if every field has to be sent
+	 */
+	public String getChangedFields() {
+		return _changedFields;
+	}
+
+	public void setChangedFields(String changedFields) {
+		_changedFields = changedFields;
+	}
+
+	/**
+	 * Only the changed fields of a stored record, they are merged with the other ones by the portal
+	 */
+	public JSONObject getJSONContentToSync() throws JSONException {
+		JSONObject content = getJSONContent();
+
+		if (_recordId == 0 || _changedFields == null) {
+			return content;
+		}
+
+		JSONArray changedFields = new JSONArray(_changedFields);
+		JSONObject changedContent = new JSONObject();
+
+		for (int i = 0; i < changedFields.length(); i++) {
+			String field = changedFields.getString(i);
+			if (content.has(field)) {
+				changedContent.put(field, content.get(field));
+			}
+		}
+
+		return changedContent;
+	}
+
 	private long _syncDate;
 	private int _dirty;
 	private long _groupId;
 	private long _dateAdded;
+	private String _changedFields;
 }
@@ -12,6 +12,9 @@ import java.util.Locale;
  */
 public class DDLRecordCacheStrategy extends BaseCacheStrategy<DDLRecordCache> implements CacheStrategy<DDLRecordCache> {
 
+	public static final String WHERE_BY_ID_AND_GROUP_ID = DDLRecordCache.RECORD_ID + " = ? AND "
+		+ DDLRecordCache.GROUP_ID + " = ?";
+
 	@Override
 	public DDLRecordCache getById(String id, Long groupId, Long userId, Locale locale) {
 		List list = get(WHERE_BY_ID_AND_GROUP_ID, id, groupId);
@@ -34,5 +37,4 @@ public class DDLRecordCacheStrategy extends BaseCacheStrategy<DDLRecordCache> im
 	}
 
 	private static final String WHERE_BY_ID = DDLRecordCache.RECORD_ID + " = ?";
-	private static final String WHERE_BY_ID_AND_GROUP_ID = WHERE_BY_ID + " AND " + DDLRecordCache.GROUP_ID + " = ?";
 }
@@ -18,6 +18,7 @@ public abstract class RecordCache implements CachedContent {
 	public static final String STRUCTURE_ID = "structureId";
 	public static final String RECORD_SET_ID = "recordSetId";
 	public static final String RECORD_ID = "recordId";
+	public static final String LOCAL_ID = "localId";
 	public static final String LOCALE = "locale";
 	public static final String CONTENT = "content";
 
@@ -27,6 +28,7 @@ public abstract class RecordCache implements CachedContent {
 
 	public RecordCache(Record record, JSONObject jsonObject) {
 		_recordId = record.getRecordId();
+		_localId = record.getLocalId();
 		_recordSetId = record.getRecordSetId();
 		_structureId = record.getStructureId();
 		_locale = record.getLocale().getLanguage();
@@ -38,6 +40,7 @@ public abstract class RecordCache implements CachedContent {
 		record.setStructureId(_structureId);
 		record.setRecordSetId(_recordSetId);
 		record.setRecordId(_recordId);
+		record.setLocalId(_localId);
 		return record;
 	}
 
@@ -57,6 +60,14 @@ public abstract class RecordCache implements CachedContent {
 		_recordId = recordId;
 	}
 
+	public String getLocalId() {
+		return _localId;
+	}
+
+	public void setLocalId(String localId) {
+		_localId = localId;
+	}
+
 	public long getRecordSetId() {
 		return _recordSetId;
 	}
@@ -92,6 +103,7 @@ public abstract class RecordCache implements CachedContent {
 
 	protected long _structureId;
 	protected long _recordId;
+	protected String _localId;
 	protected long _recordSetId;
 	protected String _locale;
 	protected String _content;
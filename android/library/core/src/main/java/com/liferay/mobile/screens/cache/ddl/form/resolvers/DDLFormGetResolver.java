@@ -4,6 +4,7 @@ import android.database.Cursor;
 import android.support.annotation.NonNull;
 
 import com.liferay.mobile.screens.cache.ddl.form.DDLFormCache;
+import com.liferay.mobile.screens.cache.sql.ContentCodec;
 import com.pushtorefresh.storio.sqlite.operations.get.DefaultGetResolver;
 
 /**
@@ -16,7 +17,7 @@ public class DDLFormGetResolver extends DefaultGetResolver<DDLFormCache> {
 
 		DDLFormCache object = new DDLFormCache();
 
-		object.setContent(cursor.getString(cursor.getColumnIndex(DDLFormCache.CONTENT)));
+		object.setContent(ContentCodec.getContent(cursor, DDLFormCache.CONTENT));
 		object.setRecordSetId(cursor.getLong(cursor.getColumnIndex(DDLFormCache.RECORD_SET_ID)));
 		object.setRecordId(cursor.getLong(cursor.getColumnIndex(DDLFormCache.RECORD_ID)));
 		object.setStructureId(cursor.getLong(cursor.getColumnIndex(DDLFormCache.STRUCTURE_ID)));
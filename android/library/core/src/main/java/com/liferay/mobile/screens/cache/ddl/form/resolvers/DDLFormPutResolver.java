@@ -4,6 +4,7 @@ import android.content.ContentValues;
 import android.support.annotation.NonNull;
 
 import com.liferay.mobile.screens.cache.ddl.form.DDLFormCache;
+import com.liferay.mobile.screens.cache.sql.ContentCodec;
 import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
 import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
@@ -39,7 +40,7 @@ public class DDLFormPutResolver extends DefaultPutResolver<DDLFormCache> {
 		contentValues.put(DDLFormCache.STRUCTURE_ID, object.getStructureId());
 		contentValues.put(DDLFormCache.RECORD_ID, object.getRecordId());
 		contentValues.put(DDLFormCache.RECORD_SET_ID, object.getRecordSetId());
-		contentValues.put(DDLFormCache.CONTENT, object.getContent());
+		ContentCodec.putContent(contentValues, DDLFormCache.CONTENT, object.getCachedType(), object.getContent());
 		contentValues.put(DDLFormCache.LOCALE, object.getLocale());
 
 		return contentValues;
@@ -15,8 +15,8 @@ public class DDLRecordDeleteResolver extends DefaultDeleteResolver<DDLRecordCach
 	protected DeleteQuery mapToDeleteQuery(DDLRecordCache object) {
 		return DeleteQuery.builder()
 			.table(DDLRecordCache.TABLE_NAME)
-			.where(DDLRecordCache.RECORD_ID + " = ?")
-			.whereArgs(object.getId())
+			.where(DDLRecordPutResolver.getWhere(object))
+			.whereArgs((Object[]) DDLRecordPutResolver.getWhereArgs(object))
 			.build();
 	}
 }
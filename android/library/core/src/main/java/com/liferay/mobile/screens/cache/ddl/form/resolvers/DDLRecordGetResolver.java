@@ -4,6 +4,7 @@ import android.database.Cursor;
 import android.support.annotation.NonNull;
 
 import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
+import com.liferay.mobile.screens.cache.sql.ContentCodec;
 import com.pushtorefresh.storio.sqlite.operations.get.DefaultGetResolver;
 
 import java.util.Date;
@@ -18,15 +19,17 @@ public class DDLRecordGetResolver extends DefaultGetResolver<DDLRecordCache> {
 
 		DDLRecordCache object = new DDLRecordCache();
 
-		object.setContent(cursor.getString(cursor.getColumnIndex(DDLRecordCache.CONTENT)));
+		object.setContent(ContentCodec.getContent(cursor, DDLRecordCache.CONTENT));
 		object.setRecordSetId(cursor.getLong(cursor.getColumnIndex(DDLRecordCache.RECORD_SET_ID)));
 		object.setRecordId(cursor.getLong(cursor.getColumnIndex(DDLRecordCache.RECORD_ID)));
+		object.setLocalId(cursor.getString(cursor.getColumnIndex(DDLRecordCache.LOCAL_ID)));
 		object.setStructureId(cursor.getLong(cursor.getColumnIndex(DDLRecordCache.STRUCTURE_ID)));
 		object.setLocale(cursor.getString(cursor.getColumnIndex(DDLRecordCache.LOCALE)));
 		object.setDirty(cursor.getInt(cursor.getColumnIndex(DDLRecordCache.DIRTY)) == 1);
 		object.setSyncDate(new Date(cursor.getLong(cursor.getColumnIndex(DDLRecordCache.SYNC_DATE))));
 		object.setGroupId(cursor.getLong(cursor.getColumnIndex(DDLRecordCache.GROUP_ID)));
 		object.setDateAdded(cursor.getLong(cursor.getColumnIndex(DDLRecordCache.DATE_ADDED)));
+		object.setChangedFields(cursor.getString(cursor.getColumnIndex(DDLRecordCache.CHANGED_FIELDS)));
 
 		return object;
 	}
@@ -1,51 +1,208 @@
 package com.liferay.mobile.screens.cache.ddl.form.resolvers;
 
 import android.content.ContentValues;
+import android.database.Cursor;
 import android.support.annotation.NonNull;
 
 import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
-import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;
+import com.liferay.mobile.screens.cache.sql.ContentCodec;
+import com.liferay.mobile.screens.util.LiferayLogger;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResolver;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResult;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
 
+import org.json.JSONArray;
+import org.json.JSONException;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
+ * Keeps one row per record: the versions of a record replace the stored one,
+ * by recordId or, while it's not synced, by localId.
+ *
+ * A version that is not dirty (loaded from the portal or marked as synced) doesn't
+ * replace a different version pending to sync, and a dirty version keeps the changed
+ * fields of the pending version it replaces.
+ *
  * @author Javier Gamarra
  */
-public class DDLRecordPutResolver extends DefaultPutResolver<DDLRecordCache> {
+public class DDLRecordPutResolver extends PutResolver<DDLRecordCache> {
+
+	public static final String WHERE_BY_LOCAL_ID = DDLRecordCache.LOCAL_ID + " = ?";
+	public static final String WHERE_BY_RECORD_ID_OR_LOCAL_ID =
+		DDLRecordCache.RECORD_ID + " = ? OR " + WHERE_BY_LOCAL_ID;
 
 	@NonNull
 	@Override
-	protected InsertQuery mapToInsertQuery(@NonNull DDLRecordCache object) {
-		return InsertQuery.builder()
+	public PutResult performPut(@NonNull StorIOSQLite storIOSQLite, @NonNull DDLRecordCache object) {
+		StorIOSQLite.Internal internal = storIOSQLite.internal();
+
+		if (object.getRecordId() != 0 && object.getLocalId() != null) {
+			mapLocalId(internal, object);
+		}
+
+		if (object.isDirty() && object.getChangedFields() != null) {
+			mergeChangedFields(internal, object);
+		}
+
+		String where = getWhere(object);
+		String[] whereArgs = getWhereArgs(object);
+
+		if (!object.isDirty()) {
+			where = "(" + where + ") AND (" + DDLRecordCache.DIRTY + " = 0 OR " + DDLRecordCache.DATE_ADDED + " = ?)";
+			whereArgs = append(whereArgs, String.valueOf(object.getDateAdded()));
+		}
+
+		ContentValues contentValues = mapToContentValues(object);
+
+		int updated = internal.update(UpdateQuery.builder()
 			.table(DDLRecordCache.TABLE_NAME)
-			.build();
-	}
+			.where(where)
+			.whereArgs((Object[]) whereArgs)
+			.build(), contentValues);
 
-	@NonNull
-	@Override
-	protected UpdateQuery mapToUpdateQuery(@NonNull DDLRecordCache object) {
-		return UpdateQuery.builder()
+		if (updated > 0 || exists(internal, object)) {
+			return PutResult.newUpdateResult(updated, DDLRecordCache.TABLE_NAME);
+		}
+
+		contentValues.put(DDLRecordCache.RECORD_ID, object.getRecordId());
+
+		long insertedId = internal.insert(InsertQuery.builder()
 			.table(DDLRecordCache.TABLE_NAME)
-			.where(DDLRecordCache.RECORD_ID + " = ? ")
-			.whereArgs(object.getId())
-			.build();
+			.build(), contentValues);
+
+		return PutResult.newInsertResult(insertedId, DDLRecordCache.TABLE_NAME);
 	}
 
+	/**
+	 * The recordId is only written once it's known, so the versions of a record
+	 * added offline don't overwrite the id assigned by the portal
+	 */
 	@NonNull
-	@Override
 	protected ContentValues mapToContentValues(@NonNull DDLRecordCache object) {
-		ContentValues contentValues = new ContentValues(6);
+		ContentValues contentValues = new ContentValues(10);
 
 		contentValues.put(DDLRecordCache.STRUCTURE_ID, object.getStructureId());
-		contentValues.put(DDLRecordCache.RECORD_ID, object.getRecordId());
+		if (object.getRecordId() != 0) {
+			contentValues.put(DDLRecordCache.RECORD_ID, object.getRecordId());
+		}
+		if (object.getLocalId() != null) {
+			contentValues.put(DDLRecordCache.LOCAL_ID, object.getLocalId());
+		}
 		contentValues.put(DDLRecordCache.RECORD_SET_ID, object.getRecordSetId());
-		contentValues.put(DDLRecordCache.CONTENT, object.getContent());
+		ContentCodec.putContent(contentValues, DDLRecordCache.CONTENT, object.getCachedType(), object.getContent());
 		contentValues.put(DDLRecordCache.LOCALE, object.getLocale());
 		contentValues.put(DDLRecordCache.DIRTY, object.isDirty());
 		contentValues.put(DDLRecordCache.SYNC_DATE, object.getSyncDate().getTime());
 		contentValues.put(DDLRecordCache.GROUP_ID, object.getGroupId());
 		contentValues.put(DDLRecordCache.DATE_ADDED, object.getDateAdded());
+		contentValues.put(DDLRecordCache.CHANGED_FIELDS, object.getChangedFields());
 
 		return contentValues;
 	}
+
+	static String getWhere(DDLRecordCache object) {
+		if (object.getRecordId() != 0) {
+			return object.getLocalId() == null ? WHERE_BY_RECORD_ID : WHERE_BY_RECORD_ID_OR_LOCAL_ID;
+		}
+		return object.getLocalId() == null ? WHERE_BY_DATE_ADDED : WHERE_BY_LOCAL_ID;
+	}
+
+	static String[] getWhereArgs(DDLRecordCache object) {
+		if (object.getRecordId() != 0) {
+			String recordId = String.valueOf(object.getRecordId());
+			return object.getLocalId() == null ? new String[]{recordId} : new String[]{recordId, object.getLocalId()};
+		}
+		return object.getLocalId() == null ?
+			new String[]{String.valueOf(object.getDateAdded())} : new String[]{object.getLocalId()};
+	}
+
+	/**
+	 * The first add of a record was synced, its pending versions are updates from now on
+	 */
+	private void mapLocalId(StorIOSQLite.Internal internal, DDLRecordCache object) {
+		ContentValues contentValues = new ContentValues(1);
+		contentValues.put(DDLRecordCache.RECORD_ID, object.getRecordId());
+
+		internal.update(UpdateQuery.builder()
+			.table(DDLRecordCache.TABLE_NAME)
+			.where(DDLRecordCache.LOCAL_ID + " = ? AND " + DDLRecordCache.RECORD_ID + " = 0")
+			.whereArgs(object.getLocalId())
+			.build(), contentValues);
+	}
+
+	/**
+	 * The version pending to sync is replaced, so its changed fields have to be sent too
+	 */
+	private void mergeChangedFields(StorIOSQLite.Internal internal, DDLRecordCache object) {
+		Cursor cursor = internal.query(Query.builder()
+			.table(DDLRecordCache.TABLE_NAME)
+			.columns(DDLRecordCache.CHANGED_FIELDS)
+			.where("(" + getWhere(object) + ") AND " + DDLRecordCache.DIRTY + " = 1")
+			.whereArgs((Object[]) getWhereArgs(object))
+			.limit(1)
+			.build());
+		try {
+			if (!cursor.moveToFirst()) {
+				return;
+			}
+
+			String pendingFields = cursor.getString(0);
+			if (pendingFields == null) {
+				object.setChangedFields(null);
+				return;
+			}
+
+			Set<String> changedFields = new LinkedHashSet<>();
+			addAll(changedFields, new JSONArray(pendingFields));
+			addAll(changedFields, new JSONArray(object.getChangedFields()));
+
+			object.setChangedFields(new JSONArray(changedFields).toString());
+		}
+		catch (JSONException e) {
+			LiferayLogger.e("Could not merge the changed fields, sending every field", e);
+			object.setChangedFields(null);
+		}
+		finally {
+			cursor.close();
+		}
+	}
+
+	private void addAll(Set<String> fields, JSONArray array) throws JSONException {
+		for (int i = 0; i < array.length(); i++) {
+			fields.add(array.getString(i));
+		}
+	}
+
+	private boolean exists(StorIOSQLite.Internal internal, DDLRecordCache object) {
+		Cursor cursor = internal.query(Query.builder()
+			.table(DDLRecordCache.TABLE_NAME)
+			.columns(DDLRecordCache.DATE_ADDED)
+			.where(getWhere(object))
+			.whereArgs((Object[]) getWhereArgs(object))
+			.limit(1)
+			.build());
+		try {
+			return cursor.getCount() > 0;
+		}
+		finally {
+			cursor.close();
+		}
+	}
+
+	private String[] append(String[] args, String arg) {
+		String[] result = new String[args.length + 1];
+		System.arraycopy(args, 0, result, 0, args.length);
+		result[args.length] = arg;
+		return result;
+	}
+
+	private static final String WHERE_BY_RECORD_ID = DDLRecordCache.RECORD_ID + " = ?";
+	private static final String WHERE_BY_DATE_ADDED =
+		DDLRecordCache.RECORD_ID + " = 0 AND " + DDLRecordCache.DATE_ADDED + " = ?";
+
 }
@@ -22,6 +22,11 @@ public abstract class BaseCacheStrategy<E extends CachedContent> implements Cach
 		return queryGet(getDomainClass(), getTableName(), "", query, args);
 	}
 
+	@Override
+	public CursorList<E> getLazy(String orderBy, String query, Object... args) {
+		return StorIOSQLite.queryLazy(getDomainClass(), getTableName(), orderBy, query, args);
+	}
+
 	@Override
 	public DatabaseResult set(E object) {
 		DatabaseResult result = CacheSQL.querySet(object.getTableCache());
@@ -0,0 +1,336 @@
+package com.liferay.mobile.screens.cache.sql;
+
+import com.liferay.mobile.screens.cache.CachedType;
+import com.liferay.mobile.screens.cache.executor.Executor;
+import com.liferay.mobile.screens.cache.tablecache.ListRowCache;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+import com.liferay.mobile.screens.util.LiferayLogger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.liferay.mobile.screens.cache.sql.StorIOSQLite.queryDelete;
+
+/**
+ * Bounds the cache and list row tables by age and by size.
+ *
+ * Every cached type can have a max age, older rows are expired.
+ * The tables have a shared budget in bytes of content, when it's exceeded
+ * the least recently accessed rows are evicted.
+ *
+ * The compaction runs in the cache executor in small batches, so it never holds
+ * the database for long, and never deletes the dirty rows pending to sync.
+ *
+ * @author Javier Gamarra
+ */
+public class CacheCompactor {
+
+	public static final long NO_LIMIT = 0;
+
+	/**
+	 * Max age in milliseconds of the rows of a type, {@link #NO_LIMIT} to keep them forever
+	 */
+	public static synchronized void setMaxAge(CachedType cachedType, long maxAgeInMillis) {
+		_maxAges.put(cachedType.name(), maxAgeInMillis);
+	}
+
+	public static synchronized long getMaxAge(CachedType cachedType) {
+		Long maxAge = _maxAges.get(cachedType.name());
+		return maxAge == null ? NO_LIMIT : maxAge;
+	}
+
+	/**
+	 * Max size in bytes of the contents of the cache and list row tables, {@link #NO_LIMIT} to let it grow
+	 */
+	public static void setMaxSize(long maxSizeInBytes) {
+		_maxSize = maxSizeInBytes;
+	}
+
+	public static long getMaxSize() {
+		return _maxSize;
+	}
+
+	/**
+	 * Number of writes after which a compaction is scheduled
+	 */
+	public static void setWritesBetweenCompactions(int writes) {
+		_writesBetweenCompactions = writes;
+	}
+
+	public static boolean isExpired(TableCache tableCache) {
+		if (tableCache == null || tableCache.getCachedType() == null || tableCache.getDate() == null) {
+			return false;
+		}
+
+		long maxAge = getMaxAge(tableCache.getCachedType());
+		return maxAge != NO_LIMIT && System.currentTimeMillis() - tableCache.getDate() > maxAge;
+	}
+
+	/**
+	 * Counts the writes and schedules a compaction every {@link #setWritesBetweenCompactions(int)}
+	 */
+	public static void onWrite(int writes) {
+		if (_writes.addAndGet(writes) >= _writesBetweenCompactions) {
+			_writes.set(0);
+			scheduleCompaction();
+		}
+	}
+
+	/**
+	 * Async, only one compaction runs at a time
+	 */
+	public static void scheduleCompaction() {
+		if (_compacting.compareAndSet(false, true)) {
+			Executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						compact();
+					}
+					catch (Exception e) {
+						LiferayLogger.e("Could not compact the cache", e);
+					}
+					finally {
+						_compacting.set(false);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Sync and blocking, returns the number of deleted rows
+	 */
+	public static int compact() {
+		int deleted = deleteExpired() + deleteLeastRecentlyUsed();
+
+		if (deleted > 0) {
+			LiferayLogger.i("Compacted the cache, " + deleted + " rows deleted");
+
+			MemoryCache memoryCache = CacheSQL.getMemoryCache();
+			if (memoryCache != null) {
+				memoryCache.evictAll();
+			}
+		}
+
+		return deleted;
+	}
+
+	/**
+	 * Async, updates the last access of the rows not accessed in the last minute,
+	 * so repeated reads of the same instance (like the hits of the memory cache) write once a minute
+	 */
+	public static void touch(List<TableCache> rows) {
+		final long now = System.currentTimeMillis();
+		final List<TableCache> staleRows = new ArrayList<>();
+
+		for (TableCache row : rows) {
+			if (row != null && (row.getLastAccess() == null || now - row.getLastAccess() > TOUCH_INTERVAL)) {
+				row.setLastAccess(now);
+				staleRows.add(row);
+			}
+		}
+
+		if (staleRows.isEmpty()) {
+			return;
+		}
+
+		Executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				StorIOSQLite.beginTransaction();
+				try {
+					for (TableCache row : staleRows) {
+						if (row instanceof ListRowCache) {
+							ListRowCache listRow = (ListRowCache) row;
+							StorIOSQLite.executeSQL(UPDATE_LIST_ROW_LAST_ACCESS, now, listRow.getListKey(),
+								listRow.getRowIndex(), row.getCachedType().name());
+						}
+						else {
+							StorIOSQLite.executeSQL(UPDATE_LAST_ACCESS, now, row.getId(), row.getCachedType().name());
+						}
+					}
+					StorIOSQLite.setTransactionSuccessful();
+				}
+				catch (Exception e) {
+					LiferayLogger.e("Could not update the last access", e);
+				}
+				finally {
+					StorIOSQLite.endTransaction();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Async, updates the last access of all the rows of a query
+	 */
+	public static void touch(final String tableName, final String where, final Object... args) {
+		Executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Object[] arguments = new Object[args.length + 1];
+					arguments[0] = System.currentTimeMillis();
+					System.arraycopy(args, 0, arguments, 1, args.length);
+
+					StorIOSQLite.executeSQL("UPDATE " + tableName + " SET " + TableCache.LAST_ACCESS + " = ? WHERE "
+						+ where, arguments);
+				}
+				catch (Exception e) {
+					LiferayLogger.e("Could not update the last access", e);
+				}
+			}
+		});
+	}
+
+	private static int deleteExpired() {
+		Map<String, Long> maxAges;
+		synchronized (CacheCompactor.class) {
+			maxAges = new HashMap<>(_maxAges);
+		}
+
+		int deleted = 0;
+		long now = System.currentTimeMillis();
+
+		for (Map.Entry<String, Long> maxAge : maxAges.entrySet()) {
+			if (maxAge.getValue() == NO_LIMIT) {
+				continue;
+			}
+
+			for (String tableName : TABLES) {
+				int deletedInBatch;
+				do {
+					deletedInBatch = queryDelete(tableName, getWhereExpired(tableName), maxAge.getKey(),
+						now - maxAge.getValue());
+					deleted += deletedInBatch;
+				}
+				while (deletedInBatch == BATCH_SIZE);
+			}
+		}
+
+		return deleted;
+	}
+
+	private static int deleteLeastRecentlyUsed() {
+		long maxSize = _maxSize;
+		if (maxSize == NO_LIMIT) {
+			return 0;
+		}
+
+		int deleted = 0;
+
+		// the size is read once, every batch subtracts the size of the rows it deletes
+		long size = StorIOSQLite.queryLong(SELECT_SIZE);
+
+		while (size > maxSize) {
+			String tableName = getLeastRecentlyUsedTable();
+			if (tableName == null) {
+				LiferayLogger.i("The cache is over its size but only dirty rows are left");
+				break;
+			}
+
+			String where = getWhereLeastRecentlyUsed(tableName);
+			long sizeOfBatch;
+			int deletedInBatch;
+
+			StorIOSQLite.beginTransaction();
+			try {
+				sizeOfBatch = StorIOSQLite.queryLong(getSelectSize(tableName, where));
+				deletedInBatch = queryDelete(tableName, where);
+				StorIOSQLite.setTransactionSuccessful();
+			}
+			finally {
+				StorIOSQLite.endTransaction();
+			}
+
+			if (deletedInBatch == 0) {
+				LiferayLogger.i("The cache is over its size but only dirty rows are left");
+				break;
+			}
+			deleted += deletedInBatch;
+			size -= sizeOfBatch;
+		}
+
+		return deleted;
+	}
+
+	private static String getSelectSize(String tableName, String where) {
+		return "SELECT IFNULL(SUM(LENGTH(" + TableCache.CONTENT + ")), 0) FROM " + tableName + " WHERE " + where;
+	}
+
+	/**
+	 * The table with the oldest evictable row, null if there is none
+	 */
+	private static String getLeastRecentlyUsedTable() {
+		String leastRecentlyUsedTable = null;
+		long oldestAccess = Long.MAX_VALUE;
+
+		for (String tableName : TABLES) {
+			// MIN of no rows is null, read as 0
+			long lastAccess = StorIOSQLite.queryLong(getSelectOldestAccess(tableName));
+			if (lastAccess != 0 && lastAccess < oldestAccess) {
+				leastRecentlyUsedTable = tableName;
+				oldestAccess = lastAccess;
+			}
+		}
+		return leastRecentlyUsedTable;
+	}
+
+	static String getWhereExpired(String tableName) {
+		return "rowid IN (SELECT rowid FROM " + tableName
+			+ " WHERE " + TableCache.TYPE + " = ? AND " + getWhereNotDirty(tableName) + TableCache.DATE + " < ?"
+			+ " LIMIT " + BATCH_SIZE + ")";
+	}
+
+	static String getWhereLeastRecentlyUsed(String tableName) {
+		return "rowid IN (SELECT rowid FROM " + tableName
+			+ " WHERE " + getWhereNotDirty(tableName) + TableCache.LAST_ACCESS + " IS NOT NULL"
+			+ " ORDER BY " + TableCache.LAST_ACCESS
+			+ " LIMIT " + BATCH_SIZE + ")";
+	}
+
+	static String getSelectOldestAccess(String tableName) {
+		return "SELECT MIN(" + TableCache.LAST_ACCESS + ") FROM " + tableName
+			+ " WHERE " + getWhereNotDirty(tableName) + TableCache.LAST_ACCESS + " IS NOT NULL";
+	}
+
+	/**
+	 * Only the cache table has rows pending to sync
+	 */
+	private static String getWhereNotDirty(String tableName) {
+		return TableCache.TABLE_NAME.equals(tableName) ? TableCache.DIRTY + " = 0 AND " : "";
+	}
+
+	private CacheCompactor() {
+		super();
+	}
+
+	private static final int BATCH_SIZE = 100;
+	private static final long TOUCH_INTERVAL = 60 * 1000;
+
+	private static final String[] TABLES = {TableCache.TABLE_NAME, ListRowCache.TABLE_NAME};
+
+	static final String SELECT_SIZE = "SELECT "
+		+ "(SELECT IFNULL(SUM(LENGTH(" + TableCache.CONTENT + ")), 0) FROM " + TableCache.TABLE_NAME + ") + "
+		+ "(SELECT IFNULL(SUM(LENGTH(" + TableCache.CONTENT + ")), 0) FROM " + ListRowCache.TABLE_NAME + ")";
+
+	private static final String UPDATE_LAST_ACCESS = "UPDATE " + TableCache.TABLE_NAME
+		+ " SET " + TableCache.LAST_ACCESS + " = ? WHERE "
+		+ TableCache.ID + " = ? AND " + TableCache.TYPE + " = ?";
+
+	private static final String UPDATE_LIST_ROW_LAST_ACCESS = "UPDATE " + ListRowCache.TABLE_NAME
+		+ " SET " + TableCache.LAST_ACCESS + " = ? WHERE "
+		+ ListRowCache.LIST_KEY + " = ? AND " + ListRowCache.ROW_INDEX + " = ? AND " + TableCache.TYPE + " = ?";
+
+	private static final Map<String, Long> _maxAges = new HashMap<>();
+	private static final AtomicBoolean _compacting = new AtomicBoolean();
+	private static final AtomicInteger _writes = new AtomicInteger();
+	private static volatile long _maxSize = NO_LIMIT;
+	private static volatile int _writesBetweenCompactions = 100;
+
+}
@@ -1,19 +1,23 @@
 package com.liferay.mobile.screens.cache.sql;
 
 import android.content.Context;
-import android.content.Intent;
 import android.support.annotation.NonNull;
 
 import com.liferay.mobile.screens.cache.Cache;
 import com.liferay.mobile.screens.cache.CachedContent;
 import com.liferay.mobile.screens.cache.CachedType;
-import com.liferay.mobile.screens.cache.executor.Executor;
+import com.liferay.mobile.screens.cache.sync.SyncScheduler;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
 import com.liferay.mobile.screens.context.LiferayScreensContext;
+import com.liferay.mobile.screens.context.LiferayServerContext;
+import com.liferay.mobile.screens.context.SessionContext;
 import com.liferay.mobile.screens.util.EventBusUtil;
+import com.liferay.mobile.screens.util.LiferayLocale;
 import com.liferay.mobile.screens.util.LiferayLogger;
 import com.pushtorefresh.storio.sqlite.impl.DefaultStorIOSQLite;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
@@ -21,6 +25,14 @@ public class CacheSQL<E extends CachedContent> implements Cache<E> {
 
 	public CacheSQL(CacheStrategyFactory cacheStrategyFactory) {
 		_cacheStrategyFactory = cacheStrategyFactory;
+		_writeQueue = new WriteBehindQueue<>(new WriteBehindQueue.Writer<E>() {
+			@Override
+			public void write(List<E> objects) {
+				Object result = saveAll(objects);
+				EventBusUtil.post(result);
+				CacheCompactor.onWrite(objects.size());
+			}
+		}, MAX_BATCH_SIZE, FLUSH_DELAY);
 	}
 
 	/**
@@ -28,6 +40,7 @@ public class CacheSQL<E extends CachedContent> implements Cache<E> {
 	 */
 	@Override
 	public List get(CachedType cachedType, String query, Object... args) {
+		flush(cachedType);
 		return _cacheStrategyFactory.recoverStrategy(cachedType).get("", query, args);
 	}
 
@@ -36,51 +49,111 @@ public class CacheSQL<E extends CachedContent> implements Cache<E> {
 	 */
 //	@Override
 	public List get(CachedType cachedType, String orderBy, String query, Object... args) {
+		flush(cachedType);
 		return _cacheStrategyFactory.recoverStrategy(cachedType).get(orderBy, query, args);
 	}
 
 	/**
-	 * Sync and blocking get by id
+	 * Sync and blocking get of a lazy list, the rows are read from the cursor when requested,
+	 * the list has to be closed after use
+	 */
+	@Override
+	public CursorList<E> getLazy(CachedType cachedType, String query, Object... args) {
+		flush(cachedType);
+		return _cacheStrategyFactory.recoverStrategy(cachedType).getLazy("", query, args);
+	}
+
+	/**
+	 * Sync and blocking get by id, looks first in the memory cache if it's enabled.
+	 *
+	 * A hit in memory returns the same instance to every caller, it must not be modified,
+	 * a change has to be stored as a new object with {@link #set(CachedContent)}
 	 */
 	@Override
 	public E getById(CachedType cachedType, String id) {
-		return (E) _cacheStrategyFactory.recoverStrategy(cachedType).getById(id);
+		flush(cachedType);
+
+		String key = createMemoryKey(cachedType, id, null, null, null);
+
+		E object = getFromMemory(cachedType, key);
+		if (object == null) {
+			object = (E) _cacheStrategyFactory.recoverStrategy(cachedType).getById(id);
+			putInMemory(key, object);
+		}
+		return object;
 	}
 
 	/**
-	 * Sync and blocking get by id with the other default params, userId, groupId and locale
+	 * Sync and blocking get by id with the other default params, userId, groupId and locale,
+	 * looks first in the memory cache if it's enabled.
+	 * The instance is shared like in {@link #getById(CachedType, String)}
 	 */
 	@Override
 	public E getById(CachedType cachedType, String id, Long groupId, Long userId, Locale locale) {
-		return (E) _cacheStrategyFactory.recoverStrategy(cachedType).getById(id, groupId, userId, locale);
+		flush(cachedType);
+
+		String key = createMemoryKey(cachedType, id, groupId, userId, locale);
+
+		E object = getFromMemory(cachedType, key);
+		if (object == null) {
+			object = (E) _cacheStrategyFactory.recoverStrategy(cachedType).getById(id, groupId, userId, locale);
+			putInMemory(key, object);
+		}
+		return object;
 	}
 
 	/**
-	 * Async and non-blocking save or update and posts the result in the bus
+	 * Async and non-blocking save or update, the write is queued and coalesced with the pending writes
+	 * of the same object, and stored in a batch that posts one result in the bus
 	 */
 	@Override
 	public void set(final E object) {
-		Executor.execute(new Runnable() {
-			@Override
-			public void run() {
-				Object result = save(object);
-				EventBusUtil.post(result);
-			}
-		});
+		_writeQueue.add(object);
+	}
+
+	/**
+	 * Async and non-blocking save or update of several objects, queued like {@link #set(CachedContent)}
+	 */
+	@Override
+	public void setAll(final List<E> objects) {
+		_writeQueue.addAll(objects);
+	}
+
+	/**
+	 * Sync and blocking, stores every pending write
+	 */
+	@Override
+	public void flush() {
+		_writeQueue.flush();
+	}
+
+	/**
+	 * Sync and blocking, stores the pending writes of a type, the reads only wait for the writes
+	 * of the type they read
+	 */
+	public void flush(CachedType cachedType) {
+		_writeQueue.flush(cachedType);
 	}
 
 	@Override
 	public int clear(CachedType cachedType) {
+		_writeQueue.discard(cachedType);
+		evictMemory();
 		return _cacheStrategyFactory.recoverStrategy(cachedType).clear();
 	}
 
 	@Override
 	public int clear(CachedType cachedType, String id) {
+		flush(cachedType);
+		evictMemory();
 		return _cacheStrategyFactory.recoverStrategy(cachedType).clear(id);
 	}
 
 	@Override
 	public boolean clear(Context context) {
+		_writeQueue.discardAll();
+		_writeQueue.flush();
+		evictMemory();
 		try {
 			StorIOSQLite.getInstance().close();
 			return context.deleteDatabase(ScreensSQLiteOpenHelper.SCREENS_CACHE_DB);
@@ -93,8 +166,7 @@ public class CacheSQL<E extends CachedContent> implements Cache<E> {
 
 	@Override
 	public void resync() {
-		Context context = LiferayScreensContext.getContext();
-		context.sendBroadcast(new Intent("com.liferay.mobile.screens.cache.resync"));
+		SyncScheduler.requestSync(LiferayScreensContext.getContext());
 	}
 
 	public synchronized static Cache getInstance(DefaultStorIOSQLite customStorIOSQLite, CacheStrategyFactory cacheStrategyFactory) {
@@ -108,10 +180,31 @@ public class CacheSQL<E extends CachedContent> implements Cache<E> {
 	public synchronized static Cache getInstance() {
 		if (_cache == null) {
 			_cache = new CacheSQL(new CacheStrategyFactory());
+
+			Context context = LiferayScreensContext.getContext();
+			if (context != null) {
+				SyncScheduler.restore(context);
+			}
 		}
 		return _cache;
 	}
 
+	/**
+	 * Enables the in memory tier in front of the database, bounded by the estimated size
+	 * in bytes of the cached contents
+	 */
+	public static synchronized void enableMemoryCache(int maxSizeInBytes) {
+		_memoryCache = new MemoryCache(maxSizeInBytes);
+	}
+
+	public static synchronized void disableMemoryCache() {
+		_memoryCache = null;
+	}
+
+	public static MemoryCache getMemoryCache() {
+		return _memoryCache;
+	}
+
 	@NonNull
 	public static DatabaseResult querySet(Object object) {
 		return StorIOSQLite.querySet(object);
@@ -121,10 +214,91 @@ public class CacheSQL<E extends CachedContent> implements Cache<E> {
 		return StorIOSQLite.queryGet(tableClass, tableName, orderBy, where, queryArgs);
 	}
 
+	DatabaseResult saveAll(List<E> objects) {
+		StorIOSQLite.beginTransaction();
+		try {
+			for (E object : objects) {
+				Object result = save(object);
+
+				if (result instanceof DatabaseResult && ((DatabaseResult) result).hasError()) {
+					return new DatabaseResult(true);
+				}
+			}
+			StorIOSQLite.setTransactionSuccessful();
+			return new DatabaseResult(objects, null);
+		}
+		catch (Exception e) {
+			LiferayLogger.e("Could not store the objects", e);
+			return new DatabaseResult(true);
+		}
+		finally {
+			StorIOSQLite.endTransaction();
+		}
+	}
+
 	private Object save(E object) {
-		return _cacheStrategyFactory.recoverStrategy(object.getCachedType()).set(object);
+		Object result = _cacheStrategyFactory.recoverStrategy(object.getCachedType()).set(object);
+
+		MemoryCache memoryCache = _memoryCache;
+		if (memoryCache != null) {
+			TableCache tableCache = object.getTableCache();
+			memoryCache.update(MemoryCache.createKey(object.getCachedType(), object.getId(),
+				tableCache.getGroupId(), tableCache.getUserId(), tableCache.getLocale()), object);
+		}
+
+		return result;
 	}
 
+	private String createMemoryKey(CachedType cachedType, String id, Long groupId, Long userId, Locale locale) {
+		if (_memoryCache == null) {
+			return null;
+		}
+
+		Long defaultGroupId = groupId == null ? LiferayServerContext.getGroupId() : groupId;
+		Long defaultUserId = userId == null ? (long) SessionContext.getDefaultUserId() : userId;
+		String defaultLocale = locale == null ? LiferayLocale.getDefaultSupportedLocale() :
+			LiferayLocale.getSupportedLocale(locale.getDisplayLanguage());
+
+		return MemoryCache.createKey(cachedType, id, defaultGroupId, defaultUserId, defaultLocale);
+	}
+
+	/**
+	 * A hit updates the last access of the row like a read from the database,
+	 * so the rows kept in memory are not the first ones evicted by size
+	 */
+	private E getFromMemory(CachedType cachedType, String key) {
+		MemoryCache memoryCache = _memoryCache;
+		if (memoryCache == null || key == null) {
+			return null;
+		}
+
+		E object = (E) memoryCache.get(cachedType, key);
+		if (object instanceof TableCache) {
+			CacheCompactor.touch(Collections.singletonList((TableCache) object));
+		}
+		return object;
+	}
+
+	private void putInMemory(String key, E object) {
+		MemoryCache memoryCache = _memoryCache;
+		if (memoryCache != null && key != null && object != null) {
+			memoryCache.put(key, object);
+		}
+	}
+
+	private void evictMemory() {
+		MemoryCache memoryCache = _memoryCache;
+		if (memoryCache != null) {
+			memoryCache.evictAll();
+		}
+	}
+
+	private static final int MAX_BATCH_SIZE = 100;
+	private static final long FLUSH_DELAY = 250;
+
 	private static Cache _cache;
 	private static CacheStrategyFactory _cacheStrategyFactory;
+	private static volatile MemoryCache _memoryCache;
+
+	private final WriteBehindQueue<E> _writeQueue;
 }
\ No newline at end of file
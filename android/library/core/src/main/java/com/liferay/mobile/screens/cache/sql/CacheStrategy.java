@@ -16,6 +16,8 @@ public interface CacheStrategy<E extends CachedContent> {
 
 	List<E> get(String orderBy, String query, Object[] args);
 
+	CursorList<E> getLazy(String orderBy, String query, Object[] args);
+
 	Object set(E object);
 
 	int clear();
@@ -4,10 +4,13 @@ import com.liferay.mobile.screens.cache.CachedType;
 import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCacheStrategy;
 import com.liferay.mobile.screens.cache.ddl.form.DDLFormCacheStrategy;
 import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCacheStrategy;
+import com.liferay.mobile.screens.cache.tablecache.ListRowCacheStrategy;
 import com.liferay.mobile.screens.cache.tablecache.TableCacheStrategy;
 import com.liferay.mobile.screens.cache.userportrait.UserPortraitCacheStrategy;
 
+import static com.liferay.mobile.screens.cache.DefaultCachedType.ASSET_LIST;
 import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_FORM;
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_LIST;
 import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_RECORD;
 import static com.liferay.mobile.screens.cache.DefaultCachedType.DOCUMENT_UPLOAD;
 import static com.liferay.mobile.screens.cache.DefaultCachedType.USER_PORTRAIT;
@@ -30,8 +33,19 @@ public class CacheStrategyFactory {
 		else if (USER_PORTRAIT.equals(cachedType)) {
 			return new UserPortraitCacheStrategy();
 		}
+		else if (isListType(cachedType)) {
+			return new ListRowCacheStrategy(cachedType);
+		}
 		else {
 			return new TableCacheStrategy(cachedType);
 		}
 	}
+
+	/**
+	 * The rows of these types are stored in the list row table,
+	 * override it to store the rows of custom lists there
+	 */
+	public boolean isListType(CachedType cachedType) {
+		return DDL_LIST.equals(cachedType) || ASSET_LIST.equals(cachedType);
+	}
 }
@@ -0,0 +1,202 @@
+package com.liferay.mobile.screens.cache.sql;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+
+import com.liferay.mobile.screens.cache.CachedType;
+import com.liferay.mobile.screens.cache.DefaultCachedType;
+import com.liferay.mobile.screens.util.LiferayLogger;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Optional compression of the cached contents.
+ *
+ * When it's enabled the contents bigger than the threshold are stored as a BLOB:
+ * a header byte and the content deflated with the preset dictionary of its type.
+ * The zlib stream carries the id of the dictionary, so the contents are readable
+ * whatever the current configuration is, and the TEXT contents are read as before.
+ *
+ * @author Javier Gamarra
+ */
+public class ContentCodec {
+
+	public static final int DEFAULT_MIN_SIZE = 512;
+
+	public static void enable() {
+		enable(DEFAULT_MIN_SIZE);
+	}
+
+	/**
+	 * Compresses the contents with at least minSizeInChars characters
+	 */
+	public static void enable(int minSizeInChars) {
+		_minSize = minSizeInChars;
+		_enabled = true;
+	}
+
+	public static void disable() {
+		_enabled = false;
+	}
+
+	public static boolean isEnabled() {
+		return _enabled;
+	}
+
+	/**
+	 * Sets the preset dictionary of a type, the most frequent strings should be at the end.
+	 * The dictionaries used to write contents already stored have to be kept registered.
+	 */
+	public static void setDictionary(CachedType cachedType, String dictionary) {
+		byte[] bytes = dictionary.getBytes(UTF_8);
+		_dictionaries.put(cachedType.name(), bytes);
+		_dictionariesById.put(getDictionaryId(bytes), bytes);
+	}
+
+	public static void putContent(ContentValues contentValues, String column, CachedType cachedType, String content) {
+		if (_enabled && content != null && content.length() >= _minSize) {
+			contentValues.put(column, encode(cachedType, content));
+		}
+		else {
+			contentValues.put(column, content);
+		}
+	}
+
+	public static String getContent(Cursor cursor, String column) {
+		int columnIndex = cursor.getColumnIndex(column);
+
+		if (cursor.getType(columnIndex) == Cursor.FIELD_TYPE_BLOB) {
+			return decode(cursor.getBlob(columnIndex));
+		}
+		return cursor.getString(columnIndex);
+	}
+
+	public static byte[] encode(CachedType cachedType, String content) {
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try {
+			byte[] dictionary = cachedType == null ? null : _dictionaries.get(cachedType.name());
+			if (dictionary != null) {
+				deflater.setDictionary(dictionary);
+			}
+
+			byte[] input = content.getBytes(UTF_8);
+			deflater.setInput(input);
+			deflater.finish();
+
+			ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 4 + 16);
+			output.write(DEFLATE);
+
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (!deflater.finished()) {
+				int length = deflater.deflate(buffer);
+				output.write(buffer, 0, length);
+			}
+			return output.toByteArray();
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	public static String decode(byte[] bytes) {
+		if (bytes.length == 0 || bytes[0] != DEFLATE) {
+			throw new IllegalArgumentException("Unknown format of the cached content");
+		}
+
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(bytes, 1, bytes.length - 1);
+
+			ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length * 4);
+			byte[] buffer = new byte[BUFFER_SIZE];
+
+			while (!inflater.finished()) {
+				int length = inflater.inflate(buffer);
+
+				if (length == 0) {
+					if (inflater.needsDictionary()) {
+						inflater.setDictionary(findDictionary(inflater.getAdler()));
+					}
+					else if (inflater.needsInput()) {
+						throw new IllegalArgumentException("Truncated cached content");
+					}
+				}
+				output.write(buffer, 0, length);
+			}
+			return new String(output.toByteArray(), UTF_8);
+		}
+		catch (DataFormatException e) {
+			LiferayLogger.e("Could not decode the cached content", e);
+			throw new IllegalArgumentException(e);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	private static byte[] findDictionary(int id) {
+		byte[] dictionary = _dictionariesById.get(id);
+		if (dictionary == null) {
+			throw new IllegalArgumentException("The dictionary of the cached content is not registered");
+		}
+		return dictionary;
+	}
+
+	private static int getDictionaryId(byte[] dictionary) {
+		Adler32 adler32 = new Adler32();
+		adler32.update(dictionary);
+		return (int) adler32.getValue();
+	}
+
+	private ContentCodec() {
+		super();
+	}
+
+	private static final byte DEFLATE = 1;
+	private static final int BUFFER_SIZE = 4096;
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final String WEB_CONTENT_DICTIONARY =
+		"<table><tbody><tr><td></td></tr></tbody></table><ul><li></li></ul><ol><li></li></ol>"
+			+ "<h1></h1><h2></h2><h3></h3><em></em><a href=\"http://\" target=\"_blank\"></a>"
+			+ "<img alt=\"\" src=\"/documents/\" /><br /><span style=\"\"></span>"
+			+ "<strong></strong><div class=\"\"></div><p></p>";
+
+	private static final String DDL_FORM_DICTIONARY =
+		"{\"classNameId\":,\"companyId\":,\"createDate\":,\"description\":\"\",\"groupId\":,"
+			+ "\"modifiedDate\":,\"name\":\"\",\"parentStructureId\":0,\"storageType\":\"xml\","
+			+ "\"structureId\":,\"structureKey\":\"\",\"userId\":,\"userName\":\"\",\"uuid\":\"\","
+			+ "\"xsd\":\"<?xml version=\\\"1.0\\\"?>\\n\\n<root available-locales=\\\"en_US\\\" "
+			+ "default-locale=\\\"en_US\\\">\\n\\t<dynamic-element dataType=\\\"string\\\" "
+			+ "indexType=\\\"keyword\\\" name=\\\"\\\" readOnly=\\\"false\\\" repeatable=\\\"false\\\" "
+			+ "required=\\\"false\\\" showLabel=\\\"true\\\" type=\\\"text\\\" width=\\\"small\\\">"
+			+ "\\n\\t\\t<meta-data locale=\\\"en_US\\\">\\n\\t\\t\\t<entry name=\\\"label\\\">"
+			+ "<![CDATA[]]></entry>\\n\\t\\t\\t<entry name=\\\"predefinedValue\\\"><![CDATA[]]></entry>"
+			+ "\\n\\t\\t\\t<entry name=\\\"tip\\\"><![CDATA[]]></entry>\\n\\t\\t</meta-data>"
+			+ "\\n\\t</dynamic-element>\\n</root>\"}";
+
+	private static final String ASSET_LIST_DICTIONARY =
+		"{\"classNameId\":,\"classPK\":,\"className\":\"com.liferay.portlet.\","
+			+ "\"companyId\":,\"createDate\":,\"description\":\"\",\"entryId\":,\"groupId\":,"
+			+ "\"mimeType\":\"text/html\",\"modifiedDate\":,\"object\":{},\"title\":\"\","
+			+ "\"userId\":,\"userName\":\"\",\"viewCount\":0,\"visible\":true}";
+
+	private static final Map<String, byte[]> _dictionaries = new ConcurrentHashMap<>();
+	private static final Map<Integer, byte[]> _dictionariesById = new ConcurrentHashMap<>();
+	private static volatile boolean _enabled;
+	private static volatile int _minSize = DEFAULT_MIN_SIZE;
+
+	static {
+		setDictionary(DefaultCachedType.WEB_CONTENT, WEB_CONTENT_DICTIONARY);
+		setDictionary(DefaultCachedType.DDL_FORM, DDL_FORM_DICTIONARY);
+		setDictionary(DefaultCachedType.ASSET_LIST, ASSET_LIST_DICTIONARY);
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.liferay.mobile.screens.cache.sql;
+
+import android.database.Cursor;
+
+import com.pushtorefresh.storio.sqlite.operations.get.GetResolver;
+
+import java.io.Closeable;
+import java.util.AbstractList;
+
+/**
+ * Read only view over the rows of a query, each row is mapped to an object
+ * only when it is requested and it is not retained, so iterating over
+ * the result needs constant memory.
+ *
+ * It has to be closed after use, and it can't be used after closing it.
+ *
+ * @author Javier Gamarra
+ */
+public class CursorList<E> extends AbstractList<E> implements Closeable {
+
+	public CursorList(Cursor cursor, GetResolver<E> getResolver) {
+		_cursor = cursor;
+		_getResolver = getResolver;
+	}
+
+	/**
+	 * Maps the row in the position to a new object, not thread safe
+	 */
+	@Override
+	public E get(int location) {
+		if (!_cursor.moveToPosition(location)) {
+			throw new IndexOutOfBoundsException("Invalid position " + location + ", size is " + size());
+		}
+		return map(_getResolver.mapFromCursor(_cursor));
+	}
+
+	@Override
+	public int size() {
+		return _cursor.getCount();
+	}
+
+	@Override
+	public void close() {
+		_cursor.close();
+	}
+
+	public boolean isClosed() {
+		return _cursor.isClosed();
+	}
+
+	/**
+	 * Hook to complete the objects read from the database
+	 */
+	protected E map(E object) {
+		return object;
+	}
+
+	private final Cursor _cursor;
+	private final GetResolver<E> _getResolver;
+
+}
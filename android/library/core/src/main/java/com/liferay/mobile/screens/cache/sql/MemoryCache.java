@@ -0,0 +1,178 @@
+package com.liferay.mobile.screens.cache.sql;
+
+import android.util.LruCache;
+
+import com.liferay.mobile.screens.cache.CachedContent;
+import com.liferay.mobile.screens.cache.CachedType;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In memory tier in front of the database, bounded by the estimated size in bytes
+ * of the cached contents and evicted in LRU order.
+ *
+ * Entries are keyed by type, id, groupId, userId and locale.
+ * It also keeps the hits and misses of every cached type.
+ *
+ * The objects are not copied, {@link #get(CachedType, String)} returns the stored instance
+ * to every caller, so they must be treated as read only.
+ *
+ * @author Javier Gamarra
+ */
+public class MemoryCache {
+
+	public MemoryCache(int maxSizeInBytes) {
+		_entries = new LruCache<String, Entry>(maxSizeInBytes) {
+			@Override
+			protected int sizeOf(String key, Entry entry) {
+				return entry.size;
+			}
+
+			@Override
+			protected void entryRemoved(boolean evicted, String key, Entry oldValue, Entry newValue) {
+				if (newValue == null) {
+					removeFromIndex(oldValue.typeAndId, key);
+				}
+			}
+		};
+	}
+
+	public synchronized CachedContent get(CachedType cachedType, String key) {
+		Entry entry = _entries.get(key);
+
+		getStats(cachedType).record(entry != null);
+
+		return entry == null ? null : entry.object;
+	}
+
+	public synchronized void put(String key, CachedContent object) {
+		String typeAndId = createTypeAndId(object.getCachedType(), object.getId());
+
+		Set<String> keys = _keysByTypeAndId.get(typeAndId);
+		if (keys == null) {
+			keys = new HashSet<>();
+			_keysByTypeAndId.put(typeAndId, keys);
+		}
+		keys.add(key);
+
+		_entries.put(key, new Entry(typeAndId, object, estimateSize(key, object)));
+	}
+
+	/**
+	 * Write-through of a stored object, it only replaces the object if its id is already
+	 * in memory, so bulk writes (like list pages) don't evict the hot entries
+	 */
+	public synchronized void update(String key, CachedContent object) {
+		String typeAndId = createTypeAndId(object.getCachedType(), object.getId());
+
+		if (_keysByTypeAndId.containsKey(typeAndId)) {
+			remove(object.getCachedType(), object.getId());
+			put(key, object);
+		}
+	}
+
+	public synchronized void remove(CachedType cachedType, String id) {
+		Set<String> keys = _keysByTypeAndId.remove(createTypeAndId(cachedType, id));
+
+		if (keys != null) {
+			for (String key : keys) {
+				_entries.remove(key);
+			}
+		}
+	}
+
+	public synchronized void evictAll() {
+		_entries.evictAll();
+		_keysByTypeAndId.clear();
+	}
+
+	public synchronized int size() {
+		return _entries.size();
+	}
+
+	public synchronized long getHitCount(CachedType cachedType) {
+		return getStats(cachedType).hits;
+	}
+
+	public synchronized long getMissCount(CachedType cachedType) {
+		return getStats(cachedType).misses;
+	}
+
+	public synchronized void resetStats() {
+		_stats.clear();
+	}
+
+	public static String createKey(CachedType cachedType, String id, Long groupId, Long userId, String locale) {
+		return createTypeAndId(cachedType, id) + SEPARATOR + groupId + SEPARATOR + userId + SEPARATOR + locale;
+	}
+
+	protected int estimateSize(String key, CachedContent object) {
+		String content = object.getTableCache().getContent();
+		int contentLength = content == null ? 0 : content.length();
+		return ENTRY_OVERHEAD + 2 * (key.length() + contentLength);
+	}
+
+	private static String createTypeAndId(CachedType cachedType, String id) {
+		return cachedType.name() + SEPARATOR + id;
+	}
+
+	private void removeFromIndex(String typeAndId, String key) {
+		Set<String> keys = _keysByTypeAndId.get(typeAndId);
+
+		if (keys != null) {
+			keys.remove(key);
+
+			if (keys.isEmpty()) {
+				_keysByTypeAndId.remove(typeAndId);
+			}
+		}
+	}
+
+	private Stats getStats(CachedType cachedType) {
+		Stats stats = _stats.get(cachedType.name());
+		if (stats == null) {
+			stats = new Stats();
+			_stats.put(cachedType.name(), stats);
+		}
+		return stats;
+	}
+
+	private static final int ENTRY_OVERHEAD = 64;
+	private static final String SEPARATOR = "|";
+
+	private final LruCache<String, Entry> _entries;
+	private final Map<String, Set<String>> _keysByTypeAndId = new HashMap<>();
+	private final Map<String, Stats> _stats = new HashMap<>();
+
+	private static class Entry {
+
+		Entry(String typeAndId, CachedContent object, int size) {
+			this.typeAndId = typeAndId;
+			this.object = object;
+			this.size = size;
+		}
+
+		final String typeAndId;
+		final CachedContent object;
+		final int size;
+	}
+
+	private static class Stats {
+
+		void record(boolean hit) {
+			if (hit) {
+				hits++;
+			}
+			else {
+				misses++;
+			}
+		}
+
+		long hits;
+		long misses;
+	}
+
+}
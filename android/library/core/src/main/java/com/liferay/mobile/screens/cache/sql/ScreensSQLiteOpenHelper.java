@@ -6,39 +6,77 @@ import android.database.sqlite.SQLiteOpenHelper;
 import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCache;
 import com.liferay.mobile.screens.cache.ddl.form.DDLFormCache;
 import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
+import com.liferay.mobile.screens.cache.sql.migration.AddIndexesMigration;
+import com.liferay.mobile.screens.cache.sql.migration.ChangedFieldsMigration;
+import com.liferay.mobile.screens.cache.sql.migration.LastAccessMigration;
+import com.liferay.mobile.screens.cache.sql.migration.ListRowMigration;
+import com.liferay.mobile.screens.cache.sql.migration.Migration;
+import com.liferay.mobile.screens.cache.sql.migration.RecordLocalIdMigration;
+import com.liferay.mobile.screens.cache.sql.migration.UploadProgressMigration;
+import com.liferay.mobile.screens.cache.sql.migration.UploadTitleMigration;
+import com.liferay.mobile.screens.cache.sql.migration.UploadedFileMigration;
+import com.liferay.mobile.screens.cache.tablecache.ListRowCache;
 import com.liferay.mobile.screens.cache.tablecache.TableCache;
 import com.liferay.mobile.screens.cache.userportrait.UserPortraitCache;
 import com.liferay.mobile.screens.context.LiferayScreensContext;
+import com.liferay.mobile.screens.util.LiferayLogger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * @author Javier Gamarra
  */
 public class ScreensSQLiteOpenHelper extends SQLiteOpenHelper {
 
-	public static final int DB_VERSION = 1;
+	public static final int DB_VERSION = 9;
 	public static final String SCREENS_CACHE_DB = "ScreensCacheDB";
 
 	public ScreensSQLiteOpenHelper() {
 		super(LiferayScreensContext.getContext(), SCREENS_CACHE_DB, null, DB_VERSION);
 	}
 
+	/**
+	 * Creates the first version of the schema and applies every migration,
+	 * so a new database and an upgraded one end with the same schema
+	 */
 	@Override
 	public void onCreate(SQLiteDatabase db) {
 		createTable(db);
+		migrate(db, 1, DB_VERSION);
 	}
 
+	/**
+	 * Applies, in order, the migrations after the old version,
+	 * keeping the cached contents and the rows pending to sync
+	 */
 	@Override
 	public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+		migrate(db, oldVersion, newVersion);
+	}
+
+	/**
+	 * There is no way back from a newer schema, we start again with an empty cache
+	 */
+	@Override
+	public void onDowngrade(SQLiteDatabase db, int oldVersion, int newVersion) {
 		String dropTable = "DROP TABLE IF EXISTS ";
 		db.execSQL(dropTable + TableCache.TABLE_NAME);
 		db.execSQL(dropTable + UserPortraitCache.TABLE_NAME);
 		db.execSQL(dropTable + DDLFormCache.TABLE_NAME);
 		db.execSQL(dropTable + DDLRecordCache.TABLE_NAME);
 		db.execSQL(dropTable + DocumentUploadCache.TABLE_NAME);
-		createTable(db);
+		db.execSQL(dropTable + ListRowCache.TABLE_NAME);
+		db.execSQL(dropTable + UploadedFiles.TABLE_NAME);
+		onCreate(db);
 	}
 
-	private void createTable(SQLiteDatabase db) {
+	public static List<Migration> getMigrations() {
+		return MIGRATIONS;
+	}
+
+	static void createTable(SQLiteDatabase db) {
 		db.execSQL(CREATE_TABLE_CACHED_RESULT);
 		db.execSQL(CREATE_TABLE_USER_PORTRAIT);
 		db.execSQL(CREATE_TABLE_DDL_FORM);
@@ -46,6 +84,27 @@ public class ScreensSQLiteOpenHelper extends SQLiteOpenHelper {
 		db.execSQL(CREATE_TABLE_DOCUMENT_UPLOAD);
 	}
 
+	static void migrate(SQLiteDatabase db, int oldVersion, int newVersion) {
+		for (Migration migration : MIGRATIONS) {
+			int version = migration.getVersion();
+			if (version > oldVersion && version <= newVersion) {
+				LiferayLogger.i("Migrating the cache database to version " + version);
+				migration.migrate(db);
+			}
+		}
+	}
+
+	private static final List<Migration> MIGRATIONS = Collections.<Migration>unmodifiableList(Arrays.asList(
+		new AddIndexesMigration(),
+		new LastAccessMigration(),
+		new ListRowMigration(),
+		new RecordLocalIdMigration(),
+		new ChangedFieldsMigration(),
+		new UploadProgressMigration(),
+		new UploadedFileMigration(),
+		new UploadTitleMigration()
+	));
+
 	private static final String CREATE_TABLE_CACHED_RESULT = "CREATE TABLE "
 		+ TableCache.TABLE_NAME + "("
 		+ TableCache.ID + " TEXT NOT NULL, "
@@ -1,5 +1,6 @@
 package com.liferay.mobile.screens.cache.sql;
 
+import android.database.Cursor;
 import android.support.annotation.NonNull;
 
 import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCache;
@@ -14,10 +15,14 @@ import com.liferay.mobile.screens.cache.ddl.form.resolvers.DDLFormPutResolver;
 import com.liferay.mobile.screens.cache.ddl.form.resolvers.DDLRecordDeleteResolver;
 import com.liferay.mobile.screens.cache.ddl.form.resolvers.DDLRecordGetResolver;
 import com.liferay.mobile.screens.cache.ddl.form.resolvers.DDLRecordPutResolver;
+import com.liferay.mobile.screens.cache.tablecache.ListRowCache;
+import com.liferay.mobile.screens.cache.tablecache.ListRowDeleteResolver;
+import com.liferay.mobile.screens.cache.tablecache.ListRowGetResolver;
+import com.liferay.mobile.screens.cache.tablecache.ListRowPutResolver;
 import com.liferay.mobile.screens.cache.tablecache.TableCache;
-import com.liferay.mobile.screens.cache.tablecache.TableCacheStorIOSQLiteDeleteResolver;
-import com.liferay.mobile.screens.cache.tablecache.TableCacheStorIOSQLiteGetResolver;
-import com.liferay.mobile.screens.cache.tablecache.TableCacheStorIOSQLitePutResolver;
+import com.liferay.mobile.screens.cache.tablecache.TableCacheDeleteResolver;
+import com.liferay.mobile.screens.cache.tablecache.TableCacheGetResolver;
+import com.liferay.mobile.screens.cache.tablecache.TableCachePutResolver;
 import com.liferay.mobile.screens.cache.userportrait.UserPortraitCache;
 import com.liferay.mobile.screens.cache.userportrait.UserPortraitCacheStorIOSQLiteDeleteResolver;
 import com.liferay.mobile.screens.cache.userportrait.UserPortraitCacheStorIOSQLiteGetResolver;
@@ -28,6 +33,7 @@ import com.pushtorefresh.storio.sqlite.operations.delete.DeleteResult;
 import com.pushtorefresh.storio.sqlite.operations.put.PutResult;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
 import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
 import java.util.List;
 
@@ -67,6 +73,38 @@ public class StorIOSQLite {
 			.executeAsBlocking();
 	}
 
+	/**
+	 * The cursor has to be closed by the caller
+	 */
+	public static Cursor queryCursor(String tableName, String orderBy, String where, Object... queryArgs) {
+		return getInstance()
+			.get()
+			.cursor()
+			.withQuery(
+				Query.builder()
+					.table(tableName)
+					.where(where)
+					.whereArgs(queryArgs)
+					.orderBy(orderBy)
+					.build())
+			.prepare()
+			.executeAsBlocking();
+	}
+
+	/**
+	 * Lazy version of {@link #queryGet(Class, String, String, String, Object...)},
+	 * the list has to be closed by the caller
+	 */
+	public static <E> CursorList<E> queryLazy(Class<E> tableClass, String tableName, String orderBy, String where,
+											  Object... queryArgs) {
+		SQLiteTypeMapping<E> typeMapping = getInstance().internal().typeMapping(tableClass);
+		if (typeMapping == null) {
+			throw new IllegalStateException("There is no type mapping for " + tableClass.getName());
+		}
+
+		return new CursorList<>(queryCursor(tableName, orderBy, where, queryArgs), typeMapping.getResolver());
+	}
+
 	public static int queryDelete(String tableName, String where, Object... queryArgs) {
 		DeleteResult deleteResult = getInstance()
 			.delete()
@@ -81,6 +119,53 @@ public class StorIOSQLite {
 		return deleteResult.numberOfRowsDeleted();
 	}
 
+	public static void executeSQL(String sql, Object... args) {
+		getInstance()
+			.executeSQL()
+			.withQuery(
+				RawQuery.builder()
+					.query(sql)
+					.args(args)
+					.build())
+			.prepare()
+			.executeAsBlocking();
+	}
+
+	/**
+	 * Returns the first column of the first row of the query, 0 if there is no result or it is null
+	 */
+	public static long queryLong(String sql, Object... args) {
+		Cursor cursor = getInstance()
+			.get()
+			.cursor()
+			.withQuery(
+				RawQuery.builder()
+					.query(sql)
+					.args(args)
+					.build())
+			.prepare()
+			.executeAsBlocking();
+
+		try {
+			return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+		}
+		finally {
+			cursor.close();
+		}
+	}
+
+	public static void beginTransaction() {
+		getInstance().internal().beginTransaction();
+	}
+
+	public static void setTransactionSuccessful() {
+		getInstance().internal().setTransactionSuccessful();
+	}
+
+	public static void endTransaction() {
+		getInstance().internal().endTransaction();
+	}
+
 	public static synchronized void initWithCustomStorIOSQLite(DefaultStorIOSQLite defaultStorIOSQLite) {
 		_storIOSQLite = defaultStorIOSQLite;
 	}
@@ -101,9 +186,14 @@ public class StorIOSQLite {
 		return DefaultStorIOSQLite.builder()
 			.sqliteOpenHelper(new ScreensSQLiteOpenHelper())
 			.addTypeMapping(TableCache.class, SQLiteTypeMapping.<TableCache>builder()
-				.putResolver(new TableCacheStorIOSQLitePutResolver())
-				.getResolver(new TableCacheStorIOSQLiteGetResolver())
-				.deleteResolver(new TableCacheStorIOSQLiteDeleteResolver())
+				.putResolver(new TableCachePutResolver())
+				.getResolver(new TableCacheGetResolver())
+				.deleteResolver(new TableCacheDeleteResolver())
+				.build())
+			.addTypeMapping(ListRowCache.class, SQLiteTypeMapping.<ListRowCache>builder()
+				.putResolver(new ListRowPutResolver())
+				.getResolver(new ListRowGetResolver())
+				.deleteResolver(new ListRowDeleteResolver())
 				.build())
 			.addTypeMapping(DDLRecordCache.class, SQLiteTypeMapping.<DDLRecordCache>builder()
 				.putResolver(new DDLRecordPutResolver())
@@ -0,0 +1,143 @@
+package com.liferay.mobile.screens.cache.sql;
+
+import android.database.Cursor;
+
+import com.liferay.mobile.screens.util.LiferayLogger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Files already uploaded, keyed by the hash of their content and the scope of the upload
+ * (the repository and folder of a document, the user of a portrait), so a repeated upload
+ * reuses the result of the first one without sending the file again.
+ *
+ * The portal can change after the upload, so the services check a result
+ * before reusing it and {@link #remove(String, String)} it if it's stale.
+ *
+ * @author Javier Gamarra
+ */
+public class UploadedFiles {
+
+	public static final String TABLE_NAME = "uploaded_file";
+	public static final String HASH = "hash";
+	public static final String SCOPE = "scope";
+	public static final String RESULT = "result";
+	public static final String DATE = "date";
+
+	public static void setEnabled(boolean enabled) {
+		_enabled = enabled;
+	}
+
+	public static boolean isEnabled() {
+		return _enabled;
+	}
+
+	public static String getDocumentScope(long repositoryId, long folderId) {
+		return "document_" + repositoryId + "_" + folderId;
+	}
+
+	public static String getPortraitScope(long userId) {
+		return "portrait_" + userId;
+	}
+
+	/**
+	 * SHA-1 of the content of the file, read from disk in fixed size buffers
+	 */
+	public static String hash(File file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+
+		InputStream inputStream = new DigestInputStream(new FileInputStream(file), digest);
+		try {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (inputStream.read(buffer) != -1) {
+				// the digest is updated while reading
+			}
+		}
+		finally {
+			inputStream.close();
+		}
+
+		StringBuilder hash = new StringBuilder();
+		for (byte b : digest.digest()) {
+			hash.append(String.format("%02x", b));
+		}
+		return hash.append('_').append(file.length()).toString();
+	}
+
+	/**
+	 * The result of the upload of a file with the same content in the same scope, null if there is none
+	 */
+	public static JSONObject find(String hash, String scope) {
+		Cursor cursor = StorIOSQLite.queryCursor(TABLE_NAME, null, HASH + " = ? AND " + SCOPE + " = ?", hash, scope);
+		try {
+			return cursor.moveToFirst() ? new JSONObject(cursor.getString(cursor.getColumnIndex(RESULT))) : null;
+		}
+		catch (JSONException e) {
+			LiferayLogger.e("Invalid result of an uploaded file", e);
+			return null;
+		}
+		finally {
+			cursor.close();
+		}
+	}
+
+	public static void put(String hash, String scope, JSONObject result) {
+		StorIOSQLite.executeSQL(INSERT, hash, scope, result.toString(), System.currentTimeMillis());
+	}
+
+	/**
+	 * Forgets an upload whose result is not valid anymore, like a file entry deleted in the portal
+	 */
+	public static int remove(String hash, String scope) {
+		return StorIOSQLite.queryDelete(TABLE_NAME, HASH + " = ? AND " + SCOPE + " = ?", hash, scope);
+	}
+
+	/**
+	 * Keeps only the last file of the scope, like the current portrait of a user
+	 */
+	public static void replace(String hash, String scope, JSONObject result) {
+		StorIOSQLite.beginTransaction();
+		try {
+			StorIOSQLite.queryDelete(TABLE_NAME, SCOPE + " = ?", scope);
+			put(hash, scope, result);
+			StorIOSQLite.setTransactionSuccessful();
+		}
+		finally {
+			StorIOSQLite.endTransaction();
+		}
+	}
+
+	/**
+	 * Forgets the uploaded files, for example after deleting them in the portal
+	 */
+	public static int clear() {
+		return StorIOSQLite.queryDelete(TABLE_NAME, null);
+	}
+
+	private UploadedFiles() {
+		super();
+	}
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+
+	private static final String INSERT = "INSERT OR REPLACE INTO " + TABLE_NAME
+		+ " (" + HASH + ", " + SCOPE + ", " + RESULT + ", " + DATE + ") VALUES (?, ?, ?, ?)";
+
+	private static volatile boolean _enabled = true;
+
+}
@@ -0,0 +1,276 @@
+package com.liferay.mobile.screens.cache.sql;
+
+import com.liferay.mobile.screens.cache.CachedContent;
+import com.liferay.mobile.screens.cache.CachedType;
+import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+import com.liferay.mobile.screens.util.LiferayLogger;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pending writes of the cache, coalesced by primary key: if an object is written again
+ * before it's stored only the last version is stored.
+ *
+ * The writes are stored in batches, in one transaction, when there are maxBatchSize pending
+ * writes or flushDelay milliseconds after the first pending write. The batches are written
+ * in order by only one thread.
+ *
+ * @author Javier Gamarra
+ */
+public class WriteBehindQueue<E extends CachedContent> {
+
+	public interface Writer<E> {
+
+		void write(List<E> objects);
+
+	}
+
+	public WriteBehindQueue(Writer<E> writer, int maxBatchSize, long flushDelayInMillis) {
+		_writer = writer;
+		_maxBatchSize = maxBatchSize;
+		_flushDelay = flushDelayInMillis;
+	}
+
+	public void add(E object) {
+		synchronized (_pending) {
+			_pending.put(createKey(object), object);
+
+			schedule();
+		}
+	}
+
+	public void addAll(List<E> objects) {
+		synchronized (_pending) {
+			for (E object : objects) {
+				_pending.put(createKey(object), object);
+			}
+
+			schedule();
+		}
+	}
+
+	/**
+	 * Blocks until every write added before the call is stored
+	 */
+	public void flush() {
+		flush(null);
+	}
+
+	/**
+	 * Blocks until every write of a type added before the call is stored, the pending writes
+	 * of the other types are left in the queue
+	 */
+	public void flush(CachedType cachedType) {
+		final String prefix = cachedType == null ? "" : cachedType.name() + SEPARATOR;
+
+		if (Thread.currentThread() == _writerThread) {
+			writePending(prefix);
+			return;
+		}
+
+		if (!hasPending(prefix) && !isFlushing(cachedType)) {
+			return;
+		}
+
+		Future<?> future = getExecutor().submit(new Runnable() {
+			@Override
+			public void run() {
+				writePending(prefix);
+			}
+		});
+
+		try {
+			future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e) {
+			LiferayLogger.e("Could not flush the pending writes", e);
+		}
+	}
+
+	/**
+	 * Discards the pending writes of a type, the objects that are being written are not discarded
+	 */
+	public void discard(CachedType cachedType) {
+		String prefix = cachedType.name() + SEPARATOR;
+
+		synchronized (_pending) {
+			Iterator<String> keys = _pending.keySet().iterator();
+			while (keys.hasNext()) {
+				if (keys.next().startsWith(prefix)) {
+					keys.remove();
+				}
+			}
+		}
+	}
+
+	public void discardAll() {
+		synchronized (_pending) {
+			_pending.clear();
+		}
+	}
+
+	public boolean isEmpty() {
+		synchronized (_pending) {
+			return _pending.isEmpty();
+		}
+	}
+
+	public int size() {
+		synchronized (_pending) {
+			return _pending.size();
+		}
+	}
+
+	/**
+	 * Writes with the same key replace the pending one: the type, id and scope of the object,
+	 * and the local id of the records added offline, that don't have an id yet
+	 */
+	protected String createKey(E object) {
+		TableCache tableCache = object.getTableCache();
+
+		StringBuilder key = new StringBuilder()
+			.append(object.getCachedType().name()).append(SEPARATOR)
+			.append(object.getClass().getName()).append(SEPARATOR)
+			.append(object.getId()).append(SEPARATOR)
+			.append(tableCache.getGroupId()).append(SEPARATOR)
+			.append(tableCache.getUserId()).append(SEPARATOR)
+			.append(tableCache.getLocale());
+
+		if (object instanceof DDLRecordCache) {
+			key.append(SEPARATOR).append(((DDLRecordCache) object).getLocalId());
+		}
+
+		return key.toString();
+	}
+
+	private boolean hasPending(String prefix) {
+		synchronized (_pending) {
+			for (String key : _pending.keySet()) {
+				if (key.startsWith(prefix)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private boolean isFlushing(CachedType cachedType) {
+		List<E> flushing = _flushing;
+		if (flushing == null) {
+			return false;
+		}
+		if (cachedType == null) {
+			return true;
+		}
+		for (E object : flushing) {
+			if (cachedType.equals(object.getCachedType())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void schedule() {
+		if (_pending.size() >= _maxBatchSize) {
+			cancelScheduledFlush();
+			_scheduledFlush = getExecutor().submit(_flushTask);
+		}
+		else if (_scheduledFlush == null) {
+			_scheduledFlush = getExecutor().schedule(_flushTask, _flushDelay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void cancelScheduledFlush() {
+		if (_scheduledFlush != null) {
+			_scheduledFlush.cancel(false);
+		}
+	}
+
+	/**
+	 * Writes the pending writes whose key starts with the prefix, an empty prefix writes all of them
+	 */
+	private void writePending(String prefix) {
+		while (true) {
+			List<E> batch;
+
+			synchronized (_pending) {
+				if (prefix.isEmpty()) {
+					_scheduledFlush = null;
+				}
+
+				batch = new ArrayList<>(Math.min(_pending.size(), _maxBatchSize));
+
+				Iterator<Map.Entry<String, E>> entries = _pending.entrySet().iterator();
+				while (entries.hasNext() && batch.size() < _maxBatchSize) {
+					Map.Entry<String, E> entry = entries.next();
+					if (entry.getKey().startsWith(prefix)) {
+						batch.add(entry.getValue());
+						entries.remove();
+					}
+				}
+
+				if (batch.isEmpty()) {
+					return;
+				}
+				_flushing = batch;
+			}
+
+			try {
+				_writer.write(batch);
+			}
+			catch (Exception e) {
+				LiferayLogger.e("Could not store the pending writes", e);
+			}
+			finally {
+				_flushing = null;
+			}
+		}
+	}
+
+	private synchronized ScheduledExecutorService getExecutor() {
+		if (_executor == null) {
+			_executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					_writerThread = new Thread(runnable, "screens-cache-writer");
+					_writerThread.setDaemon(true);
+					return _writerThread;
+				}
+			});
+		}
+		return _executor;
+	}
+
+	private static final String SEPARATOR = "|";
+
+	private final Runnable _flushTask = new Runnable() {
+		@Override
+		public void run() {
+			writePending("");
+		}
+	};
+
+	private final Map<String, E> _pending = new LinkedHashMap<>();
+	private final Writer<E> _writer;
+	private final int _maxBatchSize;
+	private final long _flushDelay;
+	private ScheduledExecutorService _executor;
+	private volatile Thread _writerThread;
+	private volatile List<E> _flushing;
+	private Future<?> _scheduledFlush;
+
+}
@@ -0,0 +1,55 @@
+package com.liferay.mobile.screens.cache.sql.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCache;
+import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+
+/**
+ * Indexes for the queries that don't filter by the primary keys,
+ * the scoped lookups of the cache table and the scans of the dirty rows to sync
+ *
+ * @author Javier Gamarra
+ */
+public class AddIndexesMigration implements Migration {
+
+	@Override
+	public int getVersion() {
+		return 2;
+	}
+
+	@Override
+	public void migrate(SQLiteDatabase db) {
+		db.execSQL(CREATE_INDEX_CACHED_RESULT_SCOPE);
+		db.execSQL(CREATE_INDEX_CACHED_RESULT_DIRTY);
+		db.execSQL(CREATE_INDEX_DDL_RECORD_DIRTY);
+		db.execSQL(CREATE_INDEX_DOCUMENT_UPLOAD_DIRTY);
+	}
+
+	private static final String CREATE_INDEX_CACHED_RESULT_SCOPE = "CREATE INDEX IF NOT EXISTS "
+		+ TableCache.TABLE_NAME + "_scope ON " + TableCache.TABLE_NAME + "("
+		+ TableCache.TYPE + ", "
+		+ TableCache.USER_ID + ", "
+		+ TableCache.GROUP_ID + ", "
+		+ TableCache.LOCALE + ", "
+		+ TableCache.ID + ");";
+
+	private static final String CREATE_INDEX_CACHED_RESULT_DIRTY = "CREATE INDEX IF NOT EXISTS "
+		+ TableCache.TABLE_NAME + "_dirty ON " + TableCache.TABLE_NAME + "("
+		+ TableCache.TYPE + ", "
+		+ TableCache.DIRTY + ", "
+		+ TableCache.USER_ID + ");";
+
+	private static final String CREATE_INDEX_DDL_RECORD_DIRTY = "CREATE INDEX IF NOT EXISTS "
+		+ DDLRecordCache.TABLE_NAME + "_dirty ON " + DDLRecordCache.TABLE_NAME + "("
+		+ DDLRecordCache.DIRTY + ", "
+		+ DDLRecordCache.GROUP_ID + ");";
+
+	private static final String CREATE_INDEX_DOCUMENT_UPLOAD_DIRTY = "CREATE INDEX IF NOT EXISTS "
+		+ DocumentUploadCache.TABLE_NAME + "_dirty ON " + DocumentUploadCache.TABLE_NAME + "("
+		+ DocumentUploadCache.DIRTY + ", "
+		+ DocumentUploadCache.USER_ID + ", "
+		+ DocumentUploadCache.GROUP_ID + ");";
+
+}
@@ -0,0 +1,25 @@
+package com.liferay.mobile.screens.cache.sql.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
+
+/**
+ * Adds the names of the fields changed in the records pending to sync,
+ * the stored records don't have them so all their fields are sent
+ *
+ * @author Javier Gamarra
+ */
+public class ChangedFieldsMigration implements Migration {
+
+	@Override
+	public int getVersion() {
+		return 6;
+	}
+
+	@Override
+	public void migrate(SQLiteDatabase db) {
+		db.execSQL("ALTER TABLE " + DDLRecordCache.TABLE_NAME + " ADD COLUMN " + DDLRecordCache.CHANGED_FIELDS + " TEXT");
+	}
+
+}
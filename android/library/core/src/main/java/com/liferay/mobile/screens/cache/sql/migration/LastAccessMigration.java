@@ -0,0 +1,32 @@
+package com.liferay.mobile.screens.cache.sql.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+
+/**
+ * Adds the last access date used to evict the least recently used rows.
+ *
+ * @author Javier Gamarra
+ */
+public class LastAccessMigration implements Migration {
+
+	@Override
+	public int getVersion() {
+		return 3;
+	}
+
+	@Override
+	public void migrate(SQLiteDatabase db) {
+		db.execSQL("ALTER TABLE " + TableCache.TABLE_NAME + " ADD COLUMN " + TableCache.LAST_ACCESS + " LONG");
+		db.execSQL("UPDATE " + TableCache.TABLE_NAME + " SET " + TableCache.LAST_ACCESS + " = " + TableCache.DATE);
+
+		db.execSQL(CREATE_INDEX_CACHED_RESULT_LAST_ACCESS);
+	}
+
+	private static final String CREATE_INDEX_CACHED_RESULT_LAST_ACCESS = "CREATE INDEX IF NOT EXISTS "
+		+ TableCache.TABLE_NAME + "_lastAccess ON " + TableCache.TABLE_NAME + "("
+		+ TableCache.DIRTY + ", "
+		+ TableCache.LAST_ACCESS + ");";
+
+}
@@ -0,0 +1,102 @@
+package com.liferay.mobile.screens.cache.sql.migration;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.liferay.mobile.screens.cache.DefaultCachedType;
+import com.liferay.mobile.screens.cache.tablecache.ListRowCache;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+
+/**
+ * Moves the rows of the cached lists from the cache table, where they were keyed
+ * by a "listKey_00000" string, to the list row table keyed by list key and row index
+ *
+ * @author Javier Gamarra
+ */
+public class ListRowMigration implements Migration {
+
+	@Override
+	public int getVersion() {
+		return 4;
+	}
+
+	@Override
+	public void migrate(SQLiteDatabase db) {
+		db.execSQL(CREATE_TABLE_LIST_ROW);
+		db.execSQL(CREATE_INDEX_LIST_ROW_LAST_ACCESS);
+
+		String[] listTypes = {DefaultCachedType.DDL_LIST.name(), DefaultCachedType.ASSET_LIST.name()};
+
+		Cursor cursor = db.query(TableCache.TABLE_NAME, null, WHERE_LIST_TYPES, listTypes, null, null, null);
+		try {
+			int contentIndex = cursor.getColumnIndex(TableCache.CONTENT);
+
+			while (cursor.moveToNext()) {
+				String id = cursor.getString(cursor.getColumnIndex(TableCache.ID));
+				int separator = id.lastIndexOf('_');
+
+				Integer rowIndex = parseRowIndex(id, separator);
+				if (rowIndex == null) {
+					continue;
+				}
+
+				ContentValues values = new ContentValues(9);
+				values.put(TableCache.TYPE, cursor.getString(cursor.getColumnIndex(TableCache.TYPE)));
+				values.put(ListRowCache.LIST_KEY, id.substring(0, separator));
+				values.put(ListRowCache.ROW_INDEX, rowIndex);
+				values.put(TableCache.USER_ID, cursor.getLong(cursor.getColumnIndex(TableCache.USER_ID)));
+				values.put(TableCache.GROUP_ID, cursor.getLong(cursor.getColumnIndex(TableCache.GROUP_ID)));
+				values.put(TableCache.LOCALE, cursor.getString(cursor.getColumnIndex(TableCache.LOCALE)));
+				if (cursor.getType(contentIndex) == Cursor.FIELD_TYPE_BLOB) {
+					values.put(TableCache.CONTENT, cursor.getBlob(contentIndex));
+				}
+				else {
+					values.put(TableCache.CONTENT, cursor.getString(contentIndex));
+				}
+				values.put(TableCache.DATE, cursor.getLong(cursor.getColumnIndex(TableCache.DATE)));
+				values.put(TableCache.LAST_ACCESS, cursor.getLong(cursor.getColumnIndex(TableCache.LAST_ACCESS)));
+
+				db.insertWithOnConflict(ListRowCache.TABLE_NAME, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+			}
+		}
+		finally {
+			cursor.close();
+		}
+
+		db.delete(TableCache.TABLE_NAME, WHERE_LIST_TYPES, listTypes);
+	}
+
+	private Integer parseRowIndex(String id, int separator) {
+		if (separator <= 0 || separator == id.length() - 1) {
+			return null;
+		}
+		try {
+			return Integer.valueOf(id.substring(separator + 1));
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private static final String WHERE_LIST_TYPES = TableCache.TYPE + " IN (?, ?)";
+
+	private static final String CREATE_TABLE_LIST_ROW = "CREATE TABLE IF NOT EXISTS "
+		+ ListRowCache.TABLE_NAME + "("
+		+ TableCache.TYPE + " TEXT NOT NULL, "
+		+ ListRowCache.LIST_KEY + " TEXT NOT NULL, "
+		+ ListRowCache.ROW_INDEX + " INTEGER NOT NULL, "
+		+ TableCache.USER_ID + " LONG NOT NULL, "
+		+ TableCache.GROUP_ID + " LONG NOT NULL, "
+		+ TableCache.LOCALE + " TEXT NOT NULL, "
+		+ TableCache.CONTENT + " TEXT, "
+		+ TableCache.DATE + " LONG NOT NULL, "
+		+ TableCache.LAST_ACCESS + " LONG, "
+		+ "PRIMARY KEY (" + TableCache.TYPE + ", " + ListRowCache.LIST_KEY + ", " + TableCache.USER_ID + ", "
+		+ TableCache.GROUP_ID + ", " + TableCache.LOCALE + ", " + ListRowCache.ROW_INDEX + "));";
+
+	private static final String CREATE_INDEX_LIST_ROW_LAST_ACCESS = "CREATE INDEX IF NOT EXISTS "
+		+ ListRowCache.TABLE_NAME + "_lastAccess ON " + ListRowCache.TABLE_NAME + "("
+		+ TableCache.LAST_ACCESS + ");";
+
+}
@@ -0,0 +1,20 @@
+package com.liferay.mobile.screens.cache.sql.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * A step of the schema of the cache database, it has to keep the existing rows
+ * (specially the dirty ones that are not synced yet)
+ *
+ * @author Javier Gamarra
+ */
+public interface Migration {
+
+	/**
+	 * Version of the database after applying this step
+	 */
+	int getVersion();
+
+	void migrate(SQLiteDatabase db);
+
+}
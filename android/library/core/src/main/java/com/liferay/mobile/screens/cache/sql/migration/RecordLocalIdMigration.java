@@ -0,0 +1,45 @@
+package com.liferay.mobile.screens.cache.sql.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
+
+/**
+ * Adds the local id of the records added offline and leaves only one version of
+ * every record: the latest dirty one or, if none is dirty, the latest one.
+ *
+ * The stored records added offline can't be told apart, so each one gets its own local id.
+ *
+ * @author Javier Gamarra
+ */
+public class RecordLocalIdMigration implements Migration {
+
+	@Override
+	public int getVersion() {
+		return 5;
+	}
+
+	@Override
+	public void migrate(SQLiteDatabase db) {
+		db.execSQL("ALTER TABLE " + DDLRecordCache.TABLE_NAME + " ADD COLUMN " + DDLRecordCache.LOCAL_ID + " TEXT");
+		db.execSQL("UPDATE " + DDLRecordCache.TABLE_NAME
+			+ " SET " + DDLRecordCache.LOCAL_ID + " = 'migrated-' || rowid"
+			+ " WHERE " + DDLRecordCache.RECORD_ID + " = 0");
+
+		db.execSQL(DELETE_OLDER_VERSIONS);
+		db.execSQL(CREATE_INDEX_DDL_RECORD_LOCAL_ID);
+	}
+
+	private static final String DELETE_OLDER_VERSIONS = "DELETE FROM " + DDLRecordCache.TABLE_NAME
+		+ " WHERE " + DDLRecordCache.RECORD_ID + " != 0 AND EXISTS (SELECT 1 FROM " + DDLRecordCache.TABLE_NAME + " newer"
+		+ " WHERE newer." + DDLRecordCache.RECORD_ID + " = " + DDLRecordCache.TABLE_NAME + "." + DDLRecordCache.RECORD_ID
+		+ " AND (newer." + DDLRecordCache.DIRTY + " > " + DDLRecordCache.TABLE_NAME + "." + DDLRecordCache.DIRTY
+		+ " OR (newer." + DDLRecordCache.DIRTY + " = " + DDLRecordCache.TABLE_NAME + "." + DDLRecordCache.DIRTY
+		+ " AND newer." + DDLRecordCache.DATE_ADDED + " > " + DDLRecordCache.TABLE_NAME + "." + DDLRecordCache.DATE_ADDED
+		+ ")))";
+
+	private static final String CREATE_INDEX_DDL_RECORD_LOCAL_ID = "CREATE INDEX IF NOT EXISTS "
+		+ DDLRecordCache.TABLE_NAME + "_localId ON " + DDLRecordCache.TABLE_NAME + "("
+		+ DDLRecordCache.LOCAL_ID + ");";
+
+}
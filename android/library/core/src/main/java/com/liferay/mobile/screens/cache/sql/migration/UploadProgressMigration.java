@@ -0,0 +1,26 @@
+package com.liferay.mobile.screens.cache.sql.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCache;
+
+/**
+ * Adds the id and the acknowledged bytes of the resumable upload of the documents
+ *
+ * @author Javier Gamarra
+ */
+public class UploadProgressMigration implements Migration {
+
+	@Override
+	public int getVersion() {
+		return 7;
+	}
+
+	@Override
+	public void migrate(SQLiteDatabase db) {
+		db.execSQL("ALTER TABLE " + DocumentUploadCache.TABLE_NAME + " ADD COLUMN " + DocumentUploadCache.UPLOAD_ID + " TEXT");
+		db.execSQL("ALTER TABLE " + DocumentUploadCache.TABLE_NAME + " ADD COLUMN " + DocumentUploadCache.UPLOADED_BYTES
+			+ " INTEGER NOT NULL DEFAULT 0");
+	}
+
+}
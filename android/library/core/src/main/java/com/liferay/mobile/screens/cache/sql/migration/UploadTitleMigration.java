@@ -0,0 +1,24 @@
+package com.liferay.mobile.screens.cache.sql.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCache;
+
+/**
+ * Adds the title of the file entry of the resumable upload of the documents
+ *
+ * @author Javier Gamarra
+ */
+public class UploadTitleMigration implements Migration {
+
+	@Override
+	public int getVersion() {
+		return 9;
+	}
+
+	@Override
+	public void migrate(SQLiteDatabase db) {
+		db.execSQL("ALTER TABLE " + DocumentUploadCache.TABLE_NAME + " ADD COLUMN " + DocumentUploadCache.TITLE + " TEXT");
+	}
+
+}
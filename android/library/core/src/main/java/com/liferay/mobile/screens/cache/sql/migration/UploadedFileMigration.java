@@ -0,0 +1,32 @@
+package com.liferay.mobile.screens.cache.sql.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.liferay.mobile.screens.cache.sql.UploadedFiles;
+
+/**
+ * Adds the table of the files already uploaded, keyed by content hash and scope
+ *
+ * @author Javier Gamarra
+ */
+public class UploadedFileMigration implements Migration {
+
+	@Override
+	public int getVersion() {
+		return 8;
+	}
+
+	@Override
+	public void migrate(SQLiteDatabase db) {
+		db.execSQL(CREATE_TABLE_UPLOADED_FILE);
+	}
+
+	private static final String CREATE_TABLE_UPLOADED_FILE = "CREATE TABLE IF NOT EXISTS "
+		+ UploadedFiles.TABLE_NAME + "("
+		+ UploadedFiles.HASH + " TEXT NOT NULL, "
+		+ UploadedFiles.SCOPE + " TEXT NOT NULL, "
+		+ UploadedFiles.RESULT + " TEXT NOT NULL, "
+		+ UploadedFiles.DATE + " LONG NOT NULL, "
+		+ "PRIMARY KEY (" + UploadedFiles.HASH + ", " + UploadedFiles.SCOPE + "));";
+
+}
@@ -0,0 +1,37 @@
+package com.liferay.mobile.screens.cache.sync;
+
+import java.util.Random;
+
+/**
+ * Exponential backoff with full jitter: the delay of a retry is random between 0
+ * and the base delay doubled on every attempt, up to the max delay
+ *
+ * @author Javier Gamarra
+ */
+public class Backoff {
+
+	public Backoff(long baseDelayInMillis, long maxDelayInMillis) {
+		_baseDelay = baseDelayInMillis;
+		_maxDelay = maxDelayInMillis;
+	}
+
+	/**
+	 * @param attempt the failed attempt, starting at 1
+	 */
+	public long getDelay(int attempt) {
+		long ceiling = getCeiling(attempt);
+		return ceiling == 0 ? 0 : (long) (_random.nextDouble() * ceiling);
+	}
+
+	public long getCeiling(int attempt) {
+		int exponent = Math.min(Math.max(attempt - 1, 0), MAX_EXPONENT);
+		return Math.min(_maxDelay, _baseDelay << exponent);
+	}
+
+	private static final int MAX_EXPONENT = 30;
+
+	private final long _baseDelay;
+	private final long _maxDelay;
+	private final Random _random = new Random();
+
+}
@@ -0,0 +1,240 @@
+package com.liferay.mobile.screens.cache.sync;
+
+import com.liferay.mobile.android.service.BatchSessionImpl;
+import com.liferay.mobile.android.service.JSONObjectWrapper;
+import com.liferay.mobile.android.service.Session;
+import com.liferay.mobile.android.v62.ddlrecord.DDLRecordService;
+import com.liferay.mobile.screens.cache.Cache;
+import com.liferay.mobile.screens.cache.CachedType;
+import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
+import com.liferay.mobile.screens.context.SessionContext;
+import com.liferay.mobile.screens.ddl.model.Record;
+import com.liferay.mobile.screens.util.LiferayLogger;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_RECORD;
+
+/**
+ * Sends several records in one JSON-WS invocation and marks every record
+ * sent without errors as synced.
+ *
+ * The records that fail inside the batch are sent again one by one. If the batch fails
+ * as a whole the portal could have stored it before failing, so only the updates are sent
+ * one by one, and the added records are left for the next attempt. As with single
+ * invocations, a record stored by the portal before a failure can be sent again.
+ *
+ * @author Javier Gamarra
+ */
+public class DDLRecordBatchTask implements SyncTask {
+
+	/**
+	 * Size in bytes of the content sent to sync the record, encoded in UTF-8
+	 */
+	public static long getPayloadSizeInBytes(DDLRecordCache cachedRecord) {
+		try {
+			return cachedRecord.getJSONContentToSync().toString().getBytes(UTF_8).length;
+		}
+		catch (Exception e) {
+			String content = cachedRecord.getContent();
+			return content == null ? 0 : content.length();
+		}
+	}
+
+	public DDLRecordBatchTask(Cache cache, long groupId) {
+		_cache = cache;
+		_groupId = groupId;
+	}
+
+	public void add(DDLRecordCache cachedRecord) {
+		_pending.add(cachedRecord);
+	}
+
+	@Override
+	public CachedType getCachedType() {
+		return DDL_RECORD;
+	}
+
+	@Override
+	public String getKey() {
+		return null;
+	}
+
+	@Override
+	public int getSize() {
+		return _pending.size();
+	}
+
+	@Override
+	public long getSizeInBytes() {
+		long sizeInBytes = 0;
+		for (DDLRecordCache cachedRecord : _pending) {
+			sizeInBytes += getPayloadSizeInBytes(cachedRecord);
+		}
+		return sizeInBytes;
+	}
+
+	@Override
+	public void sync() throws Exception {
+		if (_pending.size() > 1) {
+			JSONArray results;
+			try {
+				results = invokeBatch(_pending);
+
+				if (results == null || results.length() != _pending.size()) {
+					throw new IllegalStateException("Unexpected results of the batch of records");
+				}
+			}
+			catch (Exception e) {
+				LiferayLogger.e("Error sending a batch of " + _pending.size() + " records, "
+					+ "sending the updates one by one", e);
+				sendUpdatesOneByOne(e);
+				return;
+			}
+
+			_pending = getFailed(results);
+
+			if (_pending.isEmpty()) {
+				return;
+			}
+			LiferayLogger.i(_pending.size() + " records of the batch could not be synced, sending them one by one");
+		}
+
+		List<DDLRecordCache> failed = new ArrayList<>();
+		Exception lastException = sendOneByOne(_pending, failed);
+
+		_pending = failed;
+
+		if (lastException != null) {
+			throw lastException;
+		}
+	}
+
+	/**
+	 * Sends the records in one invocation, returns one result for each record
+	 */
+	protected JSONArray invokeBatch(List<DDLRecordCache> cachedRecords) throws Exception {
+		BatchSessionImpl batchSession = new BatchSessionImpl(SessionContext.createSessionFromCurrentSession());
+		DDLRecordService recordService = new DDLRecordService(batchSession);
+
+		for (DDLRecordCache cachedRecord : cachedRecords) {
+			saveOrUpdate(recordService, cachedRecord);
+		}
+
+		return batchSession.invoke();
+	}
+
+	protected JSONObject invoke(DDLRecordCache cachedRecord) throws Exception {
+		Session session = SessionContext.createSessionFromCurrentSession();
+		return saveOrUpdate(new DDLRecordService(session), cachedRecord);
+	}
+
+	private List<DDLRecordCache> getFailed(JSONArray results) {
+		List<DDLRecordCache> failed = new ArrayList<>();
+
+		for (int i = 0; i < results.length(); i++) {
+			JSONObject result = results.optJSONObject(i);
+			DDLRecordCache cachedRecord = _pending.get(i);
+
+			if (result == null || result.has(EXCEPTION)) {
+				LiferayLogger.e("Error syncing a record: " + (result == null ? null : result.opt(EXCEPTION)));
+				failed.add(cachedRecord);
+			}
+			else {
+				synced(cachedRecord, result);
+			}
+		}
+
+		return failed;
+	}
+
+	/**
+	 * The records added are not sent again, the portal may have stored them
+	 */
+	private void sendUpdatesOneByOne(Exception batchException) throws Exception {
+		List<DDLRecordCache> failed = new ArrayList<>();
+		List<DDLRecordCache> updates = new ArrayList<>();
+
+		for (DDLRecordCache cachedRecord : _pending) {
+			if (cachedRecord.getRecordId() == 0) {
+				failed.add(cachedRecord);
+			}
+			else {
+				updates.add(cachedRecord);
+			}
+		}
+
+		Exception lastException = sendOneByOne(updates, failed);
+
+		_pending = failed;
+
+		if (!failed.isEmpty()) {
+			throw lastException == null ? batchException : lastException;
+		}
+	}
+
+	/**
+	 * Adds the records that fail to the failed ones, returns the last exception
+	 */
+	private Exception sendOneByOne(List<DDLRecordCache> cachedRecords, List<DDLRecordCache> failed) {
+		Exception lastException = null;
+
+		for (DDLRecordCache cachedRecord : cachedRecords) {
+			try {
+				synced(cachedRecord, invoke(cachedRecord));
+			}
+			catch (Exception e) {
+				LiferayLogger.e("Error syncing a record", e);
+				failed.add(cachedRecord);
+				lastException = e;
+			}
+		}
+
+		return lastException;
+	}
+
+	private JSONObject saveOrUpdate(DDLRecordService recordService, DDLRecordCache cachedRecord) throws Exception {
+		Record record = cachedRecord.getRecord();
+		record.setCreatorUserId(SessionContext.getLoggedUser().getId());
+		final JSONObject serviceContextAttributes = new JSONObject();
+		serviceContextAttributes.put("userId", record.getCreatorUserId());
+		serviceContextAttributes.put("scopeGroupId", _groupId);
+		JSONObjectWrapper serviceContextWrapper = new JSONObjectWrapper(serviceContextAttributes);
+		JSONObject jsonContent = cachedRecord.getJSONContentToSync();
+
+		if (record.getRecordId() == 0) {
+			return recordService.addRecord(_groupId, record.getRecordSetId(), 0, jsonContent, serviceContextWrapper);
+		}
+		else {
+			return recordService.updateRecord(record.getRecordId(), 0, jsonContent, true, serviceContextWrapper);
+		}
+	}
+
+	/**
+	 * The record added offline gets the id assigned by the portal, and keeps its
+	 * local id so the versions stored meanwhile are sent as updates
+	 */
+	private void synced(DDLRecordCache cachedRecord, JSONObject result) {
+		if (cachedRecord.getRecordId() == 0 && result != null && result.has(RECORD_ID)) {
+			cachedRecord.setRecordId(result.optLong(RECORD_ID));
+		}
+
+		cachedRecord.setDirty(false);
+		cachedRecord.setSyncDate(new Date());
+		_cache.set(cachedRecord);
+	}
+
+	private static final String EXCEPTION = "exception";
+	private static final String UTF_8 = "UTF-8";
+	private static final String RECORD_ID = "recordId";
+
+	private final Cache _cache;
+	private final long _groupId;
+	private List<DDLRecordCache> _pending = new ArrayList<>();
+
+}
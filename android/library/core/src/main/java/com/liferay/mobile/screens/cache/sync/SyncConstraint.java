@@ -0,0 +1,17 @@
+package com.liferay.mobile.screens.cache.sync;
+
+/**
+ * Conditions of the device to sync the large objects of a cached type
+ *
+ * @author Javier Gamarra
+ */
+public enum SyncConstraint {
+
+	ANY_NETWORK,
+	UNMETERED_OR_CHARGING;
+
+	public boolean isSatisfied(boolean metered, boolean charging) {
+		return this == ANY_NETWORK || !metered || charging;
+	}
+
+}
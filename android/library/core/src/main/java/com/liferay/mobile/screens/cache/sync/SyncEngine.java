@@ -0,0 +1,362 @@
+package com.liferay.mobile.screens.cache.sync;
+
+import com.liferay.mobile.screens.cache.CachedType;
+import com.liferay.mobile.screens.util.EventBusUtil;
+import com.liferay.mobile.screens.util.LiferayLogger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the sync tasks in a pool of workers.
+ *
+ * Every cached type has a limit of tasks running at the same time, and the failed tasks are
+ * retried with exponential backoff and jitter. Neither the tasks waiting for a slot of their type
+ * nor the ones waiting to be retried hold a worker.
+ * Tasks with the same key run one after the other, in the order they were submitted.
+ *
+ * Only a few tasks per worker are accepted before {@link #submit(SyncTask)} blocks, so the
+ * caller can read the tasks lazily, and {@link #await()} is the barrier between phases of a sync.
+ *
+ * After every attempt it posts a {@link SyncItemEvent} and a {@link SyncStatusEvent} to the event bus,
+ * with the queue depth, in flight objects and bytes sent of every cached type.
+ *
+ * The configuration is static and read when the engine is created.
+ *
+ * @author Javier Gamarra
+ */
+public class SyncEngine {
+
+	public static final int DEFAULT_WORKERS = 3;
+	public static final int DEFAULT_CONCURRENCY = 2;
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+	public static final long DEFAULT_BASE_DELAY = 1000;
+	public static final long DEFAULT_MAX_DELAY = 30 * 1000;
+
+	public static void setWorkers(int workers) {
+		_workers = Math.max(1, workers);
+	}
+
+	public static int getWorkers() {
+		return _workers;
+	}
+
+	/**
+	 * Max tasks of a type running at the same time
+	 */
+	public static synchronized void setConcurrency(CachedType cachedType, int concurrency) {
+		_concurrencies.put(cachedType.name(), Math.max(1, concurrency));
+	}
+
+	public static synchronized int getConcurrency(CachedType cachedType) {
+		Integer concurrency = _concurrencies.get(cachedType.name());
+		return concurrency == null ? DEFAULT_CONCURRENCY : concurrency;
+	}
+
+	/**
+	 * Attempts of a task in a sync before leaving it for the next one
+	 */
+	public static void setMaxAttempts(int maxAttempts) {
+		_maxAttempts = Math.max(1, maxAttempts);
+	}
+
+	public static void setBackoff(long baseDelayInMillis, long maxDelayInMillis) {
+		_backoff = new Backoff(baseDelayInMillis, maxDelayInMillis);
+	}
+
+	public SyncEngine() {
+		_maxAttemptsPerTask = _maxAttempts;
+		_backoffPerTask = _backoff;
+
+		int workers = _workers;
+		_window = new Semaphore(workers * TASKS_PER_WORKER);
+		_executor = new ScheduledThreadPoolExecutor(workers, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "screens-sync-" + _threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Blocks while there are too many tasks waiting
+	 */
+	public void submit(SyncTask task) throws InterruptedException {
+		_window.acquire();
+
+		synchronized (_lock) {
+			_pending++;
+		}
+
+		Item item = new Item(task, getGate(task.getCachedType()), getStats(task.getCachedType()));
+
+		String key = task.getKey();
+		if (key != null) {
+			synchronized (_chains) {
+				Queue<Item> chain = _chains.get(key);
+				if (chain != null) {
+					chain.add(item);
+					return;
+				}
+				_chains.put(key, new ArrayDeque<Item>());
+			}
+		}
+
+		execute(item, 0);
+	}
+
+	/**
+	 * Blocks until every submitted task has finished
+	 */
+	public void await() throws InterruptedException {
+		synchronized (_lock) {
+			while (_pending > 0) {
+				_lock.wait();
+			}
+		}
+	}
+
+	/**
+	 * Adds objects of a type to the queue depth, before submitting them
+	 */
+	public void expect(CachedType cachedType, int items) {
+		getStats(cachedType).expected(items);
+	}
+
+	/**
+	 * Objects of a type left for a later sync, they are not submitted
+	 */
+	public void defer(CachedType cachedType, int items) {
+		getStats(cachedType).deferred(items);
+	}
+
+	public void shutdown() {
+		_executor.shutdownNow();
+	}
+
+	public synchronized Collection<SyncStats> getStats() {
+		return new ArrayList<>(_stats.values());
+	}
+
+	/**
+	 * Posts a {@link SyncStatusEvent} with a copy of the stats
+	 */
+	public void postStatus(boolean finished) {
+		List<SyncStats> snapshot = new ArrayList<>();
+		for (SyncStats stats : getStats()) {
+			snapshot.add(stats.copy());
+		}
+		EventBusUtil.post(new SyncStatusEvent(snapshot, finished));
+	}
+
+	public void logStats() {
+		for (SyncStats stats : getStats()) {
+			LiferayLogger.i("Sync of " + stats);
+		}
+	}
+
+	/**
+	 * The item runs if its type has a free slot, otherwise it waits in the gate of its type
+	 * without holding a worker, so the tasks of the other types keep running
+	 */
+	private void execute(final Item item, long delayInMillis) {
+		_executor.schedule(new Runnable() {
+			@Override
+			public void run() {
+				if (item.gate.enter(item)) {
+					attempt(item);
+				}
+			}
+		}, delayInMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * The item already holds the slot of its type
+	 */
+	private void executeInSlot(final Item item) {
+		_executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				attempt(item);
+			}
+		});
+	}
+
+	private void attempt(Item item) {
+		item.attempts++;
+
+		int size = item.task.getSize();
+		long sizeInBytes = item.task.getSizeInBytes();
+		long start = System.currentTimeMillis();
+
+		item.stats.started(size);
+
+		Exception exception = null;
+		try {
+			item.task.sync();
+		}
+		catch (Exception e) {
+			exception = e;
+		}
+
+		Item next = item.gate.leave();
+		if (next != null && !_executor.isShutdown()) {
+			executeInSlot(next);
+		}
+
+		// a task can fail after sending part of its objects
+		int synced = exception == null ? size : size - item.task.getSize();
+		long bytesSent = exception == null ? sizeInBytes : sizeInBytes - item.task.getSizeInBytes();
+		long latency = System.currentTimeMillis() - start;
+
+		item.stats.attempted(size, synced, bytesSent, latency);
+
+		boolean retrying = false;
+		if (exception != null) {
+			item.stats.failed(exception);
+
+			retrying = item.attempts < _maxAttemptsPerTask && !_executor.isShutdown();
+			if (!retrying) {
+				LiferayLogger.e("Error syncing " + item.stats.getCachedType() + " after "
+					+ item.attempts + " attempts", exception);
+				item.stats.gaveUp(item.task.getSize());
+			}
+		}
+
+		EventBusUtil.post(new SyncItemEvent(item.stats.getCachedType(), size, synced, bytesSent, latency,
+			item.attempts, exception, retrying));
+		postStatus(false);
+
+		if (retrying) {
+			item.stats.retried();
+			execute(item, _backoffPerTask.getDelay(item.attempts));
+		}
+		else {
+			finish(item);
+		}
+	}
+
+	private void finish(Item item) {
+		String key = item.task.getKey();
+		if (key != null) {
+			Item next;
+			synchronized (_chains) {
+				next = _chains.get(key).poll();
+				if (next == null) {
+					_chains.remove(key);
+				}
+			}
+			if (next != null) {
+				execute(next, 0);
+			}
+		}
+
+		_window.release();
+
+		synchronized (_lock) {
+			_pending--;
+			_lock.notifyAll();
+		}
+	}
+
+	private synchronized Gate getGate(CachedType cachedType) {
+		Gate gate = _gates.get(cachedType.name());
+		if (gate == null) {
+			gate = new Gate(getConcurrency(cachedType));
+			_gates.put(cachedType.name(), gate);
+		}
+		return gate;
+	}
+
+	private synchronized SyncStats getStats(CachedType cachedType) {
+		SyncStats stats = _stats.get(cachedType.name());
+		if (stats == null) {
+			stats = new SyncStats(cachedType.name());
+			_stats.put(cachedType.name(), stats);
+		}
+		return stats;
+	}
+
+	private static final int TASKS_PER_WORKER = 4;
+
+	private static final Map<String, Integer> _concurrencies = new HashMap<>();
+	private static volatile int _workers = DEFAULT_WORKERS;
+	private static volatile int _maxAttempts = DEFAULT_MAX_ATTEMPTS;
+	private static volatile Backoff _backoff = new Backoff(DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY);
+
+	private final ScheduledThreadPoolExecutor _executor;
+	private final Semaphore _window;
+	private final int _maxAttemptsPerTask;
+	private final Backoff _backoffPerTask;
+	private final AtomicInteger _threadCount = new AtomicInteger();
+	private final Map<String, Gate> _gates = new HashMap<>();
+	private final Map<String, SyncStats> _stats = new LinkedHashMap<>();
+	private final Map<String, Queue<Item>> _chains = new HashMap<>();
+	private final Object _lock = new Object();
+	private int _pending;
+
+	private static class Item {
+
+		Item(SyncTask task, Gate gate, SyncStats stats) {
+			this.task = task;
+			this.gate = gate;
+			this.stats = stats;
+		}
+
+		final SyncTask task;
+		final Gate gate;
+		final SyncStats stats;
+		int attempts;
+	}
+
+	/**
+	 * Slots of the tasks of a type running at the same time, with the items waiting for one
+	 */
+	private static class Gate {
+
+		Gate(int concurrency) {
+			_concurrency = concurrency;
+		}
+
+		/**
+		 * Takes a slot, or leaves the item waiting if there is none
+		 */
+		synchronized boolean enter(Item item) {
+			if (_running < _concurrency) {
+				_running++;
+				return true;
+			}
+			_waiting.add(item);
+			return false;
+		}
+
+		/**
+		 * Frees the slot, or hands it to the next waiting item, that has to be run
+		 */
+		synchronized Item leave() {
+			Item next = _waiting.poll();
+			if (next == null) {
+				_running--;
+			}
+			return next;
+		}
+
+		private final int _concurrency;
+		private final Queue<Item> _waiting = new ArrayDeque<>();
+		private int _running;
+	}
+
+}
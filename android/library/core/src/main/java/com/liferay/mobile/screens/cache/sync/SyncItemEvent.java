@@ -0,0 +1,74 @@
+package com.liferay.mobile.screens.cache.sync;
+
+/**
+ * Posted after every attempt of a sync task
+ *
+ * @author Javier Gamarra
+ */
+public class SyncItemEvent {
+
+	public SyncItemEvent(String cachedType, int items, int synced, long bytesSent, long latencyMillis, int attempt,
+		Exception exception, boolean retrying) {
+
+		_cachedType = cachedType;
+		_items = items;
+		_synced = synced;
+		_bytesSent = bytesSent;
+		_latencyMillis = latencyMillis;
+		_attempt = attempt;
+		_exception = exception;
+		_retrying = retrying;
+	}
+
+	public String getCachedType() {
+		return _cachedType;
+	}
+
+	/**
+	 * Objects sent in the attempt
+	 */
+	public int getItems() {
+		return _items;
+	}
+
+	public int getSynced() {
+		return _synced;
+	}
+
+	public long getBytesSent() {
+		return _bytesSent;
+	}
+
+	public long getLatencyMillis() {
+		return _latencyMillis;
+	}
+
+	public int getAttempt() {
+		return _attempt;
+	}
+
+	public boolean isFailed() {
+		return _exception != null;
+	}
+
+	public Exception getException() {
+		return _exception;
+	}
+
+	/**
+	 * If the failed objects will be sent again in this sync
+	 */
+	public boolean isRetrying() {
+		return _retrying;
+	}
+
+	private final String _cachedType;
+	private final int _items;
+	private final int _synced;
+	private final long _bytesSent;
+	private final long _latencyMillis;
+	private final int _attempt;
+	private final Exception _exception;
+	private final boolean _retrying;
+
+}
@@ -0,0 +1,172 @@
+package com.liferay.mobile.screens.cache.sync;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.os.BatteryManager;
+import android.support.v4.net.ConnectivityManagerCompat;
+
+import com.liferay.mobile.screens.cache.CacheReceiver;
+import com.liferay.mobile.screens.cache.CachedType;
+import com.liferay.mobile.screens.cache.DefaultCachedType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coalesces the resync requests: the first request schedules a sync at the end of the
+ * window and the requests until then join it. The time of the next sync is persisted,
+ * so it's scheduled again if the alarm is lost.
+ *
+ * The objects of a type bigger than a threshold are only synced when the device meets the
+ * constraint of the type, by default the documents are only uploaded on unmetered networks or
+ * while charging. When something is left for later a sync is scheduled after a longer delay.
+ *
+ * @author Javier Gamarra
+ */
+public class SyncScheduler {
+
+	public static final String ACTION_SYNC = "com.liferay.mobile.screens.cache.sync";
+	public static final long DEFAULT_WINDOW = 30 * 1000;
+	public static final long DEFAULT_DEFERRED_DELAY = 15 * 60 * 1000;
+	public static final long DEFAULT_LARGE_SIZE = 256 * 1024;
+
+	/**
+	 * Time that a resync request waits for other ones
+	 */
+	public static void setWindow(long windowInMillis) {
+		_window = windowInMillis;
+	}
+
+	/**
+	 * Time until the next sync when something is left for later
+	 */
+	public static void setDeferredDelay(long delayInMillis) {
+		_deferredDelay = delayInMillis;
+	}
+
+	/**
+	 * Size in bytes from which the constraint of the type applies
+	 */
+	public static void setLargeSize(long sizeInBytes) {
+		_largeSize = sizeInBytes;
+	}
+
+	public static synchronized void setConstraint(CachedType cachedType, SyncConstraint constraint) {
+		_constraints.put(cachedType.name(), constraint);
+	}
+
+	public static synchronized SyncConstraint getConstraint(CachedType cachedType) {
+		SyncConstraint constraint = _constraints.get(cachedType.name());
+		return constraint == null ? SyncConstraint.ANY_NETWORK : constraint;
+	}
+
+	public static boolean canSync(CachedType cachedType, long sizeInBytes, boolean metered, boolean charging) {
+		return sizeInBytes < _largeSize || getConstraint(cachedType).isSatisfied(metered, charging);
+	}
+
+	/**
+	 * Joins the scheduled sync if it runs within the window, otherwise brings it forward
+	 * to the end of the window (like a deferred sync when the network comes back)
+	 */
+	public static synchronized void requestSync(Context context) {
+		long now = System.currentTimeMillis();
+		long nextRun = getNextRun(context);
+		long deadline = now + _window;
+
+		if (nextRun > now && nextRun <= deadline && _scheduled) {
+			return;
+		}
+
+		schedule(context, nextRun > now ? Math.min(nextRun, deadline) : deadline);
+	}
+
+	/**
+	 * Schedules the next sync after the deferred delay, unless there is an earlier one
+	 */
+	public static synchronized void requestDeferredSync(Context context) {
+		long now = System.currentTimeMillis();
+		long nextRun = getNextRun(context);
+
+		if (nextRun > now && _scheduled) {
+			return;
+		}
+
+		schedule(context, now + _deferredDelay);
+	}
+
+	/**
+	 * Schedules again the persisted sync, the alarms are lost when the device reboots
+	 */
+	public static synchronized void restore(Context context) {
+		long nextRun = getNextRun(context);
+
+		if (nextRun != 0 && !_scheduled) {
+			schedule(context, Math.max(nextRun, System.currentTimeMillis()));
+		}
+	}
+
+	/**
+	 * The requests after this one schedule a new sync
+	 */
+	public static synchronized void onSyncStarted(Context context) {
+		getPreferences(context).edit().remove(NEXT_RUN).apply();
+		_scheduled = false;
+	}
+
+	public static long getNextRun(Context context) {
+		return getPreferences(context).getLong(NEXT_RUN, 0);
+	}
+
+	public static boolean isMetered(Context context) {
+		ConnectivityManager connectivityManager =
+			(ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+		return ConnectivityManagerCompat.isActiveNetworkMetered(connectivityManager);
+	}
+
+	public static boolean isCharging(Context context) {
+		Intent batteryStatus = context.getApplicationContext().registerReceiver(null,
+			new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+		return batteryStatus != null && batteryStatus.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+	}
+
+	private static void schedule(Context context, long time) {
+		getPreferences(context).edit().putLong(NEXT_RUN, time).apply();
+
+		Intent intent = new Intent(context, CacheReceiver.class);
+		intent.setAction(ACTION_SYNC);
+		PendingIntent pendingIntent =
+			PendingIntent.getBroadcast(context, 0, intent, PendingIntent.FLAG_UPDATE_CURRENT);
+
+		AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+		alarmManager.set(AlarmManager.RTC_WAKEUP, time, pendingIntent);
+
+		_scheduled = true;
+	}
+
+	private static SharedPreferences getPreferences(Context context) {
+		return context.getSharedPreferences(PREFERENCES, Context.MODE_PRIVATE);
+	}
+
+	private SyncScheduler() {
+		super();
+	}
+
+	private static final String PREFERENCES = "liferay-screens-sync";
+	private static final String NEXT_RUN = "nextRun";
+
+	private static final Map<String, SyncConstraint> _constraints = new HashMap<>();
+	private static volatile long _window = DEFAULT_WINDOW;
+	private static volatile long _deferredDelay = DEFAULT_DEFERRED_DELAY;
+	private static volatile long _largeSize = DEFAULT_LARGE_SIZE;
+	private static boolean _scheduled;
+
+	static {
+		setConstraint(DefaultCachedType.DOCUMENT_UPLOAD, SyncConstraint.UNMETERED_OR_CHARGING);
+	}
+
+}
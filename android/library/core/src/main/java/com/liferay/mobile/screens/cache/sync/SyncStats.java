@@ -0,0 +1,180 @@
+package com.liferay.mobile.screens.cache.sync;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Progress and throughput of the sync of a cached type, counted in cached objects.
+ *
+ * The engine updates it from the workers, the events carry copies.
+ *
+ * @author Javier Gamarra
+ */
+public class SyncStats {
+
+	public SyncStats(String cachedType) {
+		_cachedType = cachedType;
+	}
+
+	public String getCachedType() {
+		return _cachedType;
+	}
+
+	/**
+	 * Objects to sync that haven't been sent yet
+	 */
+	public synchronized int getPending() {
+		return Math.max(0, _expected - _synced - _failed - _deferred - _inFlight);
+	}
+
+	public synchronized int getInFlight() {
+		return _inFlight;
+	}
+
+	public synchronized int getSynced() {
+		return _synced;
+	}
+
+	public synchronized int getFailed() {
+		return _failed;
+	}
+
+	/**
+	 * Objects left for a later sync because the device doesn't meet their constraint
+	 */
+	public synchronized int getDeferred() {
+		return _deferred;
+	}
+
+	public synchronized int getRetries() {
+		return _retries;
+	}
+
+	public synchronized long getBytesSent() {
+		return _bytesSent;
+	}
+
+	public synchronized int getAttempts() {
+		return _attempts;
+	}
+
+	public synchronized long getAverageLatencyMillis() {
+		return _attempts == 0 ? 0 : _latency / _attempts;
+	}
+
+	public synchronized long getMaxLatencyMillis() {
+		return _maxLatency;
+	}
+
+	/**
+	 * Failed attempts by the class of the exception
+	 */
+	public synchronized Map<String, Integer> getFailureReasons() {
+		return new HashMap<>(_failureReasons);
+	}
+
+	public synchronized String getLastFailure() {
+		return _lastFailure;
+	}
+
+	/**
+	 * Time from the start of the first object to the end of the last one
+	 */
+	public synchronized long getElapsedMillis() {
+		return _start == 0 ? 0 : _end - _start;
+	}
+
+	public synchronized double getItemsPerSecond() {
+		long elapsed = getElapsedMillis();
+		return elapsed == 0 ? 0 : _synced * 1000.0 / elapsed;
+	}
+
+	public synchronized SyncStats copy() {
+		SyncStats copy = new SyncStats(_cachedType);
+		copy._expected = _expected;
+		copy._inFlight = _inFlight;
+		copy._synced = _synced;
+		copy._failed = _failed;
+		copy._deferred = _deferred;
+		copy._retries = _retries;
+		copy._bytesSent = _bytesSent;
+		copy._attempts = _attempts;
+		copy._latency = _latency;
+		copy._maxLatency = _maxLatency;
+		copy._failureReasons.putAll(_failureReasons);
+		copy._lastFailure = _lastFailure;
+		copy._start = _start;
+		copy._end = _end;
+		return copy;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format(Locale.US,
+			"%s: %d synced, %d failed, %d deferred, %d retries, %d bytes in %.1f s "
+				+ "(%.2f items/s, %d ms per attempt, %d ms max)",
+			_cachedType, _synced, _failed, _deferred, _retries, _bytesSent, getElapsedMillis() / 1000.0,
+			getItemsPerSecond(), getAverageLatencyMillis(), _maxLatency);
+	}
+
+	synchronized void expected(int items) {
+		_expected += items;
+	}
+
+	synchronized void deferred(int items) {
+		_deferred += items;
+	}
+
+	synchronized void started(int items) {
+		if (_start == 0) {
+			_start = System.currentTimeMillis();
+		}
+		_inFlight += items;
+	}
+
+	/**
+	 * End of an attempt, part of the objects can be sent before a failure
+	 */
+	synchronized void attempted(int items, int synced, long bytesSent, long latency) {
+		_inFlight -= items;
+		_synced += synced;
+		_bytesSent += bytesSent;
+		_attempts++;
+		_latency += latency;
+		_maxLatency = Math.max(_maxLatency, latency);
+		_end = System.currentTimeMillis();
+	}
+
+	synchronized void failed(Exception e) {
+		String reason = e.getClass().getSimpleName();
+		Integer count = _failureReasons.get(reason);
+		_failureReasons.put(reason, count == null ? 1 : count + 1);
+		_lastFailure = reason + ": " + e.getMessage();
+	}
+
+	synchronized void retried() {
+		_retries++;
+	}
+
+	synchronized void gaveUp(int items) {
+		_failed += items;
+	}
+
+	private final String _cachedType;
+	private final Map<String, Integer> _failureReasons = new HashMap<>();
+	private int _expected;
+	private int _inFlight;
+	private int _synced;
+	private int _failed;
+	private int _deferred;
+	private int _retries;
+	private int _attempts;
+	private long _bytesSent;
+	private long _latency;
+	private long _maxLatency;
+	private long _start;
+	private long _end;
+	private String _lastFailure;
+
+}
@@ -0,0 +1,53 @@
+package com.liferay.mobile.screens.cache.sync;
+
+import java.util.List;
+
+/**
+ * Progress of the sync of every cached type, posted when an attempt ends and when the sync finishes
+ *
+ * @author Javier Gamarra
+ */
+public class SyncStatusEvent {
+
+	public SyncStatusEvent(List<SyncStats> stats, boolean finished) {
+		_stats = stats;
+		_finished = finished;
+	}
+
+	public List<SyncStats> getStats() {
+		return _stats;
+	}
+
+	public SyncStats getStats(String cachedType) {
+		for (SyncStats stats : _stats) {
+			if (stats.getCachedType().equals(cachedType)) {
+				return stats;
+			}
+		}
+		return null;
+	}
+
+	public int getPending() {
+		int pending = 0;
+		for (SyncStats stats : _stats) {
+			pending += stats.getPending();
+		}
+		return pending;
+	}
+
+	public int getInFlight() {
+		int inFlight = 0;
+		for (SyncStats stats : _stats) {
+			inFlight += stats.getInFlight();
+		}
+		return inFlight;
+	}
+
+	public boolean isFinished() {
+		return _finished;
+	}
+
+	private final List<SyncStats> _stats;
+	private final boolean _finished;
+
+}
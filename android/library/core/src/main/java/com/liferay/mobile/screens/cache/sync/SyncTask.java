@@ -0,0 +1,32 @@
+package com.liferay.mobile.screens.cache.sync;
+
+import com.liferay.mobile.screens.cache.CachedType;
+
+/**
+ * Sync of cached objects with the portal, it's retried if it throws an exception,
+ * so a task that sends several objects should only send the failed ones again
+ *
+ * @author Javier Gamarra
+ */
+public interface SyncTask {
+
+	CachedType getCachedType();
+
+	/**
+	 * Tasks with the same key run in order, null if the task can run at any time
+	 */
+	String getKey();
+
+	/**
+	 * Number of cached objects still to send by the task
+	 */
+	int getSize();
+
+	/**
+	 * Approximate size in bytes of the cached objects still to send by the task
+	 */
+	long getSizeInBytes();
+
+	void sync() throws Exception;
+
+}
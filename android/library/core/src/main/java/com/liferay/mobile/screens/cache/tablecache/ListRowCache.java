@@ -0,0 +1,53 @@
+package com.liferay.mobile.screens.cache.tablecache;
+
+import com.liferay.mobile.screens.cache.CachedType;
+
+import java.util.Locale;
+
+/**
+ * A row of a cached list, stored in its own table by list key and integer row index,
+ * so the pages are read with range scans of the primary key
+ *
+ * @author Javier Gamarra
+ */
+public class ListRowCache extends TableCache {
+
+	public static final String TABLE_NAME = "list_row";
+	public static final String LIST_KEY = "listKey";
+	public static final String ROW_INDEX = "rowIndex";
+
+	public ListRowCache() {
+		super();
+	}
+
+	public ListRowCache(String listKey, int rowIndex, CachedType cachedType, String content,
+						Long groupId, Long userId, Locale locale) {
+		super(null, cachedType, content, groupId, userId, locale);
+		_listKey = listKey;
+		_rowIndex = rowIndex;
+	}
+
+	@Override
+	public String getId() {
+		return _listKey + "_" + _rowIndex;
+	}
+
+	public String getListKey() {
+		return _listKey;
+	}
+
+	public void setListKey(String listKey) {
+		_listKey = listKey;
+	}
+
+	public int getRowIndex() {
+		return _rowIndex;
+	}
+
+	public void setRowIndex(int rowIndex) {
+		_rowIndex = rowIndex;
+	}
+
+	String _listKey;
+	int _rowIndex;
+}
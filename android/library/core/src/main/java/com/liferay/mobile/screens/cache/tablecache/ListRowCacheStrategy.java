@@ -0,0 +1,153 @@
+package com.liferay.mobile.screens.cache.tablecache;
+
+import com.liferay.mobile.screens.cache.CachedType;
+import com.liferay.mobile.screens.cache.sql.BaseCacheStrategy;
+import com.liferay.mobile.screens.cache.sql.CacheCompactor;
+import com.liferay.mobile.screens.cache.sql.CacheStrategy;
+import com.liferay.mobile.screens.cache.sql.CursorList;
+import com.liferay.mobile.screens.cache.sql.StorIOSQLite;
+import com.liferay.mobile.screens.context.LiferayServerContext;
+import com.liferay.mobile.screens.context.SessionContext;
+import com.liferay.mobile.screens.util.LiferayLocale;
+import com.pushtorefresh.storio.sqlite.operations.get.GetResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static com.liferay.mobile.screens.cache.sql.CacheSQL.queryGet;
+import static com.liferay.mobile.screens.cache.sql.StorIOSQLite.queryDelete;
+
+/**
+ * The rows of a list are read by ranges of row index, ordered by row index by default,
+ * and cleared by list key
+ *
+ * @author Javier Gamarra
+ */
+public class ListRowCacheStrategy extends BaseCacheStrategy<ListRowCache> implements CacheStrategy<ListRowCache> {
+
+	public static final String WHERE_BY_SCOPE_AND_ROW = " AND "
+		+ TableCache.GROUP_ID + " = ? AND "
+		+ TableCache.USER_ID + " = ? AND "
+		+ TableCache.LOCALE + " = ? AND "
+		+ ListRowCache.LIST_KEY + " = ? AND "
+		+ ListRowCache.ROW_INDEX + " = ? ";
+
+	public ListRowCacheStrategy(CachedType cachedType) {
+		_cachedType = cachedType;
+	}
+
+	/**
+	 * Reads a single row by the id of {@link ListRowCache#getId()}, the list key and the row index,
+	 * in the group, user and locale given or the default ones
+	 */
+	@Override
+	public ListRowCache getById(String id, Long groupId, Long userId, Locale locale) {
+		int separator = id == null ? -1 : id.lastIndexOf(ID_SEPARATOR);
+		if (separator == -1) {
+			return null;
+		}
+
+		int rowIndex;
+		try {
+			rowIndex = Integer.parseInt(id.substring(separator + 1));
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+
+		Long defaultGroupId = groupId == null ? LiferayServerContext.getGroupId() : groupId;
+		Long defaultUserId = userId == null ? (long) SessionContext.getDefaultUserId() : userId;
+		String defaultLocale = locale == null ? LiferayLocale.getDefaultSupportedLocale() :
+			LiferayLocale.getSupportedLocale(locale.getDisplayLanguage());
+
+		List<ListRowCache> rows = get(null, WHERE_BY_SCOPE_AND_ROW, defaultGroupId, defaultUserId, defaultLocale,
+			id.substring(0, separator), rowIndex);
+
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	@Override
+	public ListRowCache getById(String id) {
+		return getById(id, null, null, null);
+	}
+
+	@Override
+	public List get(String orderBy, String query, Object... args) {
+		Object[] arguments = addType(args);
+		String where = TableCacheStrategy.getWhere(query);
+
+		List<ListRowCache> elements = queryGet(ListRowCache.class, ListRowCache.TABLE_NAME, getOrderBy(orderBy),
+			where, arguments);
+		for (ListRowCache element : elements) {
+			element.setType(_cachedType);
+		}
+
+		CacheCompactor.touch(ListRowCache.TABLE_NAME, where, arguments);
+
+		return elements;
+	}
+
+	@Override
+	public CursorList<ListRowCache> getLazy(String orderBy, String query, Object... args) {
+		Object[] arguments = addType(args);
+		String where = TableCacheStrategy.getWhere(query);
+
+		CacheCompactor.touch(ListRowCache.TABLE_NAME, where, arguments);
+
+		return new CursorList<ListRowCache>(StorIOSQLite.queryCursor(ListRowCache.TABLE_NAME, getOrderBy(orderBy),
+			where, arguments), getResolver()) {
+			@Override
+			protected ListRowCache map(ListRowCache object) {
+				object.setType(_cachedType);
+				return object;
+			}
+		};
+	}
+
+	@Override
+	public int clear() {
+		return queryDelete(ListRowCache.TABLE_NAME, TableCache.TYPE + " = ?", _cachedType.name());
+	}
+
+	@Override
+	public int clear(String listKey) {
+		return queryDelete(ListRowCache.TABLE_NAME, TableCache.TYPE + " = ? AND " + WHERE_BY_LIST_KEY,
+			_cachedType.name(), listKey);
+	}
+
+	@Override
+	protected String getQueryById() {
+		return WHERE_BY_LIST_KEY;
+	}
+
+	@Override
+	protected String getTableName() {
+		return ListRowCache.TABLE_NAME;
+	}
+
+	@Override
+	protected Class getDomainClass() {
+		return ListRowCache.class;
+	}
+
+	private Object[] addType(Object[] args) {
+		List<Object> arguments = new ArrayList<>(Arrays.asList(args));
+		arguments.add(0, _cachedType.name());
+		return arguments.toArray();
+	}
+
+	private String getOrderBy(String orderBy) {
+		return orderBy == null || orderBy.isEmpty() ? ListRowCache.ROW_INDEX : orderBy;
+	}
+
+	private static GetResolver<ListRowCache> getResolver() {
+		return StorIOSQLite.getInstance().internal().typeMapping(ListRowCache.class).getResolver();
+	}
+
+	private static final char ID_SEPARATOR = '_';
+	private static final String WHERE_BY_LIST_KEY = ListRowCache.LIST_KEY + " = ?";
+
+	private final CachedType _cachedType;
+}
@@ -0,0 +1,22 @@
+package com.liferay.mobile.screens.cache.tablecache;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlite.operations.delete.DefaultDeleteResolver;
+import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
+
+/**
+ * @author Javier Gamarra
+ */
+public class ListRowDeleteResolver extends DefaultDeleteResolver<ListRowCache> {
+	@NonNull
+	@Override
+	protected DeleteQuery mapToDeleteQuery(ListRowCache object) {
+		return DeleteQuery.builder()
+			.table(ListRowCache.TABLE_NAME)
+			.where(ListRowPutResolver.WHERE_BY_PRIMARY_KEY)
+			.whereArgs(object._cachedTypeString, object._listKey, object._userId, object._groupId, object._locale,
+				object._rowIndex)
+			.build();
+	}
+}
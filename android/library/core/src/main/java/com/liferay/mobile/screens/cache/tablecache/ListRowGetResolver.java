@@ -0,0 +1,31 @@
+package com.liferay.mobile.screens.cache.tablecache;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import com.liferay.mobile.screens.cache.sql.ContentCodec;
+import com.pushtorefresh.storio.sqlite.operations.get.DefaultGetResolver;
+
+/**
+ * @author Javier Gamarra
+ */
+public class ListRowGetResolver extends DefaultGetResolver<ListRowCache> {
+	@NonNull
+	@Override
+	public ListRowCache mapFromCursor(Cursor cursor) {
+
+		ListRowCache object = new ListRowCache();
+
+		object._cachedTypeString = cursor.getString(cursor.getColumnIndex(TableCache.TYPE));
+		object._listKey = cursor.getString(cursor.getColumnIndex(ListRowCache.LIST_KEY));
+		object._rowIndex = cursor.getInt(cursor.getColumnIndex(ListRowCache.ROW_INDEX));
+		object._userId = cursor.getLong(cursor.getColumnIndex(TableCache.USER_ID));
+		object._groupId = cursor.getLong(cursor.getColumnIndex(TableCache.GROUP_ID));
+		object._locale = cursor.getString(cursor.getColumnIndex(TableCache.LOCALE));
+		object._content = ContentCodec.getContent(cursor, TableCache.CONTENT);
+		object._date = cursor.getLong(cursor.getColumnIndex(TableCache.DATE));
+		object._lastAccess = cursor.getLong(cursor.getColumnIndex(TableCache.LAST_ACCESS));
+
+		return object;
+	}
+}
@@ -0,0 +1,59 @@
+package com.liferay.mobile.screens.cache.tablecache;
+
+import android.content.ContentValues;
+import android.support.annotation.NonNull;
+
+import com.liferay.mobile.screens.cache.sql.ContentCodec;
+import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;
+import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
+
+/**
+ * @author Javier Gamarra
+ */
+public class ListRowPutResolver extends DefaultPutResolver<ListRowCache> {
+
+	@NonNull
+	@Override
+	protected InsertQuery mapToInsertQuery(@NonNull ListRowCache object) {
+		return InsertQuery.builder()
+			.table(ListRowCache.TABLE_NAME)
+			.build();
+	}
+
+	@NonNull
+	@Override
+	protected UpdateQuery mapToUpdateQuery(@NonNull ListRowCache object) {
+		return UpdateQuery.builder()
+			.table(ListRowCache.TABLE_NAME)
+			.where(WHERE_BY_PRIMARY_KEY)
+			.whereArgs(object._cachedTypeString, object._listKey, object._userId, object._groupId, object._locale,
+				object._rowIndex)
+			.build();
+	}
+
+	@NonNull
+	@Override
+	protected ContentValues mapToContentValues(@NonNull ListRowCache object) {
+		ContentValues contentValues = new ContentValues(9);
+
+		contentValues.put(TableCache.TYPE, object._cachedTypeString);
+		contentValues.put(ListRowCache.LIST_KEY, object._listKey);
+		contentValues.put(ListRowCache.ROW_INDEX, object._rowIndex);
+		contentValues.put(TableCache.USER_ID, object._userId);
+		contentValues.put(TableCache.GROUP_ID, object._groupId);
+		contentValues.put(TableCache.LOCALE, object._locale);
+		ContentCodec.putContent(contentValues, TableCache.CONTENT, object.getCachedType(), object._content);
+		contentValues.put(TableCache.DATE, object._date);
+		contentValues.put(TableCache.LAST_ACCESS, object._lastAccess);
+
+		return contentValues;
+	}
+
+	static final String WHERE_BY_PRIMARY_KEY = TableCache.TYPE + " = ? AND "
+		+ ListRowCache.LIST_KEY + " = ? AND "
+		+ TableCache.USER_ID + " = ? AND "
+		+ TableCache.GROUP_ID + " = ? AND "
+		+ TableCache.LOCALE + " = ? AND "
+		+ ListRowCache.ROW_INDEX + " = ?";
+}
@@ -5,8 +5,6 @@ import com.liferay.mobile.screens.cache.CachedType;
 import com.liferay.mobile.screens.context.LiferayServerContext;
 import com.liferay.mobile.screens.context.SessionContext;
 import com.liferay.mobile.screens.util.LiferayLocale;
-import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteColumn;
-import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteType;
 
 import java.util.Date;
 import java.util.Locale;
@@ -14,7 +12,6 @@ import java.util.Locale;
 /**
  * @author Javier Gamarra
  */
-@StorIOSQLiteType(table = TableCache.TABLE_NAME)
 public class TableCache implements CachedContent {
 
 	public static final String TABLE_NAME = "cache";
@@ -27,6 +24,7 @@ public class TableCache implements CachedContent {
 	public static final String DIRTY = "dirty";
 	public static final String SYNC_DATE = "sync_date";
 	public static final String LOCALE = "locale";
+	public static final String LAST_ACCESS = "lastAccess";
 
 	public TableCache() {
 		super();
@@ -43,11 +41,12 @@ public class TableCache implements CachedContent {
 		_cachedTypeString = cachedType.name();
 		_content = content;
 		_date = new Date().getTime();
+		_lastAccess = _date;
 		_userId = userId == null ? SessionContext.getDefaultUserId() : userId;
 		_groupId = groupId == null ? LiferayServerContext.getGroupId() : groupId;
 		_locale = locale == null ? LiferayLocale.getDefaultSupportedLocale() :
 			LiferayLocale.getSupportedLocale(locale.getDisplayLanguage());
-		_dirty = 1;
+		_dirty = 0;
 	}
 
 	public void setDate(Date date) {
@@ -101,7 +100,11 @@ public class TableCache implements CachedContent {
 	}
 
 	public void setDirty(boolean dirty) {
-		_dirty = dirty ? 0 : 1;
+		_dirty = dirty ? 1 : 0;
+	}
+
+	public boolean isDirty() {
+		return _dirty == 1;
 	}
 
 	public Long getGroupId() {
@@ -136,24 +139,24 @@ public class TableCache implements CachedContent {
 		_locale = locale;
 	}
 
-	@StorIOSQLiteColumn(name = ID, key = true)
+	public Long getLastAccess() {
+		return _lastAccess;
+	}
+
+	public void setLastAccess(Long lastAccess) {
+		_lastAccess = lastAccess;
+	}
+
 	String _id;
-	@StorIOSQLiteColumn(name = TYPE, key = true)
 	String _cachedTypeString;
-	@StorIOSQLiteColumn(name = GROUP_ID)
 	Long _groupId;
-	@StorIOSQLiteColumn(name = DATE)
 	Long _date;
-	@StorIOSQLiteColumn(name = CONTENT)
 	String _content;
-	@StorIOSQLiteColumn(name = USER_ID)
 	Long _userId;
-	@StorIOSQLiteColumn(name = DIRTY)
 	int _dirty;
-	@StorIOSQLiteColumn(name = SYNC_DATE)
 	Long _syncDate;
-	@StorIOSQLiteColumn(name = LOCALE)
 	String _locale;
+	Long _lastAccess;
 
 	private CachedType _cachedType;
 }
\ No newline at end of file
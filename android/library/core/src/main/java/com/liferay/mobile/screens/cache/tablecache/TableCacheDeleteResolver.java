@@ -0,0 +1,21 @@
+package com.liferay.mobile.screens.cache.tablecache;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlite.operations.delete.DefaultDeleteResolver;
+import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
+
+/**
+ * @author Javier Gamarra
+ */
+public class TableCacheDeleteResolver extends DefaultDeleteResolver<TableCache> {
+	@NonNull
+	@Override
+	protected DeleteQuery mapToDeleteQuery(TableCache object) {
+		return DeleteQuery.builder()
+			.table(TableCache.TABLE_NAME)
+			.where(TableCache.ID + " = ? AND " + TableCache.TYPE + " = ?")
+			.whereArgs(object._id, object._cachedTypeString)
+			.build();
+	}
+}
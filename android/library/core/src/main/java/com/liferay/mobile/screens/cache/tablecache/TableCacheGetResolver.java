@@ -0,0 +1,37 @@
+package com.liferay.mobile.screens.cache.tablecache;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import com.liferay.mobile.screens.cache.sql.ContentCodec;
+import com.pushtorefresh.storio.sqlite.operations.get.DefaultGetResolver;
+
+/**
+ * @author Javier Gamarra
+ */
+public class TableCacheGetResolver extends DefaultGetResolver<TableCache> {
+	@NonNull
+	@Override
+	public TableCache mapFromCursor(Cursor cursor) {
+
+		TableCache object = new TableCache();
+
+		object._id = cursor.getString(cursor.getColumnIndex(TableCache.ID));
+		object._cachedTypeString = cursor.getString(cursor.getColumnIndex(TableCache.TYPE));
+		object._groupId = getLong(cursor, TableCache.GROUP_ID);
+		object._date = getLong(cursor, TableCache.DATE);
+		object._content = ContentCodec.getContent(cursor, TableCache.CONTENT);
+		object._userId = getLong(cursor, TableCache.USER_ID);
+		object._dirty = cursor.getInt(cursor.getColumnIndex(TableCache.DIRTY));
+		object._syncDate = getLong(cursor, TableCache.SYNC_DATE);
+		object._locale = cursor.getString(cursor.getColumnIndex(TableCache.LOCALE));
+		object._lastAccess = getLong(cursor, TableCache.LAST_ACCESS);
+
+		return object;
+	}
+
+	private Long getLong(Cursor cursor, String column) {
+		int columnIndex = cursor.getColumnIndex(column);
+		return cursor.isNull(columnIndex) ? null : cursor.getLong(columnIndex);
+	}
+}
@@ -0,0 +1,52 @@
+package com.liferay.mobile.screens.cache.tablecache;
+
+import android.content.ContentValues;
+import android.support.annotation.NonNull;
+
+import com.liferay.mobile.screens.cache.sql.ContentCodec;
+import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;
+import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
+
+/**
+ * @author Javier Gamarra
+ */
+public class TableCachePutResolver extends DefaultPutResolver<TableCache> {
+
+	@NonNull
+	@Override
+	protected InsertQuery mapToInsertQuery(@NonNull TableCache object) {
+		return InsertQuery.builder()
+			.table(TableCache.TABLE_NAME)
+			.build();
+	}
+
+	@NonNull
+	@Override
+	protected UpdateQuery mapToUpdateQuery(@NonNull TableCache object) {
+		return UpdateQuery.builder()
+			.table(TableCache.TABLE_NAME)
+			.where(TableCache.ID + " = ? AND " + TableCache.TYPE + " = ?")
+			.whereArgs(object._id, object._cachedTypeString)
+			.build();
+	}
+
+	@NonNull
+	@Override
+	protected ContentValues mapToContentValues(@NonNull TableCache object) {
+		ContentValues contentValues = new ContentValues(10);
+
+		contentValues.put(TableCache.ID, object._id);
+		contentValues.put(TableCache.TYPE, object._cachedTypeString);
+		contentValues.put(TableCache.GROUP_ID, object._groupId);
+		contentValues.put(TableCache.DATE, object._date);
+		ContentCodec.putContent(contentValues, TableCache.CONTENT, object.getCachedType(), object._content);
+		contentValues.put(TableCache.USER_ID, object._userId);
+		contentValues.put(TableCache.DIRTY, object._dirty);
+		contentValues.put(TableCache.SYNC_DATE, object._syncDate);
+		contentValues.put(TableCache.LOCALE, object._locale);
+		contentValues.put(TableCache.LAST_ACCESS, object._lastAccess);
+
+		return contentValues;
+	}
+}
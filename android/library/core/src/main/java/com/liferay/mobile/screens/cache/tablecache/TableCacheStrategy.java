@@ -2,11 +2,15 @@ package com.liferay.mobile.screens.cache.tablecache;
 
 import com.liferay.mobile.screens.cache.CachedType;
 import com.liferay.mobile.screens.cache.sql.BaseCacheStrategy;
+import com.liferay.mobile.screens.cache.sql.CacheCompactor;
 import com.liferay.mobile.screens.cache.sql.CacheStrategy;
+import com.liferay.mobile.screens.cache.sql.CursorList;
 import com.liferay.mobile.screens.cache.sql.DatabaseResult;
+import com.liferay.mobile.screens.cache.sql.StorIOSQLite;
 import com.liferay.mobile.screens.context.LiferayServerContext;
 import com.liferay.mobile.screens.context.SessionContext;
 import com.liferay.mobile.screens.util.LiferayLocale;
+import com.pushtorefresh.storio.sqlite.operations.get.GetResolver;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -21,6 +25,20 @@ import static com.liferay.mobile.screens.cache.sql.CacheSQL.querySet;
  */
 public class TableCacheStrategy extends BaseCacheStrategy<TableCache> implements CacheStrategy<TableCache> {
 
+	public static final String WHERE_BY_SCOPE_AND_ID
+		= TableCache.TYPE + " = ? AND "
+		+ TableCache.GROUP_ID + " = ? AND "
+		+ TableCache.USER_ID + " = ? AND "
+		+ TableCache.LOCALE + " = ? "
+		+ " AND " + TableCache.ID + " = ? ";
+
+	/**
+	 * Selection of the rows of a type, the query is appended and starts with " AND "
+	 */
+	public static String getWhere(String query) {
+		return TableCache.TYPE + " = ?" + query;
+	}
+
 	public TableCacheStrategy(CachedType cachedType) {
 		_cachedType = cachedType;
 	}
@@ -33,13 +51,10 @@ public class TableCacheStrategy extends BaseCacheStrategy<TableCache> implements
 		String defaultLocale = locale == null ? LiferayLocale.getDefaultSupportedLocale() :
 			LiferayLocale.getSupportedLocale(locale.getDisplayLanguage());
 
-		List elements = queryGet(TableCache.class,
-			TableCache.TABLE_NAME, "",
-			TYPE_USER_LOCALE_AND_GROUP_CRITERIA
-				+ " AND " + TableCache.ID + " = ? ",
+		List elements = queryGet(TableCache.class, TableCache.TABLE_NAME, "", WHERE_BY_SCOPE_AND_ID,
 			_cachedType, defaultGroupId, defaultUserId, defaultLocale, id);
 
-		return elements.isEmpty() ? null : (TableCache) elements.get(0);
+		return elements.isEmpty() ? null : (TableCache) accessed(elements).get(0);
 	}
 
 	@Override
@@ -52,8 +67,28 @@ public class TableCacheStrategy extends BaseCacheStrategy<TableCache> implements
 		List<Object> arguments = new ArrayList<>(Arrays.asList(args));
 		arguments.add(0, _cachedType.name());
 
-		return queryGet(TableCache.class, TableCache.TABLE_NAME, "",
-			TableCache.TYPE + " = ?" + query, arguments.toArray());
+		List elements = queryGet(TableCache.class, TableCache.TABLE_NAME, "", getWhere(query),
+			arguments.toArray());
+
+		return accessed(elements);
+	}
+
+	@Override
+	public CursorList<TableCache> getLazy(String orderBy, String query, Object... args) {
+		List<Object> arguments = new ArrayList<>(Arrays.asList(args));
+		arguments.add(0, _cachedType.name());
+
+		String where = getWhere(query);
+		CacheCompactor.touch(TableCache.TABLE_NAME, where, arguments.toArray());
+
+		return new CursorList<TableCache>(StorIOSQLite.queryCursor(TableCache.TABLE_NAME, orderBy, where,
+			arguments.toArray()), getResolver()) {
+			@Override
+			protected TableCache map(TableCache object) {
+				object.setType(_cachedType);
+				return object;
+			}
+		};
 	}
 
 	@Override
@@ -76,11 +111,21 @@ public class TableCacheStrategy extends BaseCacheStrategy<TableCache> implements
 		return TableCache.class;
 	}
 
-	private static final String TYPE_USER_LOCALE_AND_GROUP_CRITERIA
-		= TableCache.TYPE + " = ? AND "
-		+ TableCache.GROUP_ID + " = ? AND "
-		+ TableCache.USER_ID + " = ? AND "
-		+ TableCache.LOCALE + " = ? ";
+	/**
+	 * The stored rows only have the name of the type, and their last access is updated
+	 * to keep them out of the size-based eviction
+	 */
+	private List<TableCache> accessed(List<TableCache> elements) {
+		for (TableCache element : elements) {
+			element.setType(_cachedType);
+		}
+		CacheCompactor.touch(elements);
+		return elements;
+	}
+
+	private static GetResolver<TableCache> getResolver() {
+		return StorIOSQLite.getInstance().internal().typeMapping(TableCache.class).getResolver();
+	}
 
 	private static final String WHERE_BY_ID = TableCache.ID + " = ?";
 
@@ -49,7 +49,7 @@ public class UserPortraitCache implements CachedContent {
 
 	@Override
 	public String getId() {
-		return String.valueOf(_portraitId);
+		return String.valueOf(_userId);
 	}
 
 	@Override
@@ -24,6 +24,8 @@ import android.view.View;
 
 import com.liferay.mobile.screens.R;
 import com.liferay.mobile.screens.base.BaseScreenlet;
+import com.liferay.mobile.screens.base.upload.UploadProgressListener;
+import com.liferay.mobile.screens.base.upload.UploadQueue;
 import com.liferay.mobile.screens.cache.OfflinePolicy;
 import com.liferay.mobile.screens.context.LiferayServerContext;
 import com.liferay.mobile.screens.context.SessionContext;
@@ -53,7 +55,7 @@ import java.util.Map;
  */
 public class DDLFormScreenlet
 	extends BaseScreenlet<DDLFormViewModel, DDLFormBaseInteractor>
-	implements DDLFormListener {
+	implements DDLFormListener, UploadProgressListener {
 
 	public static final String LOAD_FORM_ACTION = "loadForm";
 	public static final String LOAD_RECORD_ACTION = "loadRecord";
@@ -259,6 +261,20 @@ public class DDLFormScreenlet
 		}
 	}
 
+	@Override
+	public void onUploadProgress(String path, long uploadedBytes, long totalBytes) {
+		if (_listener instanceof UploadProgressListener) {
+			((UploadProgressListener) _listener).onUploadProgress(path, uploadedBytes, totalBytes);
+		}
+	}
+
+	/**
+	 * Cancels the document uploads of the form that haven't finished
+	 */
+	public void cancelUploads() {
+		UploadQueue.cancel(getScreenletId());
+	}
+
 	public boolean isAutoLoad() {
 		return _autoLoad;
 	}
@@ -645,6 +661,17 @@ public class DDLFormScreenlet
 		}
 	}
 
+	/**
+	 * The uploads survive the configuration changes, the recreated screenlet keeps the same id
+	 * and receives their results. They are only cancelled when the activity is closing.
+	 */
+	@Override
+	protected void onScreenletDetached() {
+		if (isActivityFinishing()) {
+			cancelUploads();
+		}
+	}
+
 	private void setFieldLayoutId(
 		DDLFormViewModel viewModel, TypedArray typedArray, Field.EditorType editorType,
 		Integer id) {
@@ -101,6 +101,10 @@ public class DDLFormAddRecordInteractorImpl
 		recordCache.setDirty(!synced);
 		CacheSQL.getInstance().set(recordCache);
 
+		if (synced) {
+			record.markAsSynced();
+		}
+
 		onEvent(new DDLFormAddRecordEvent(getTargetScreenletId(), record, groupId, fieldsValues));
 	}
 
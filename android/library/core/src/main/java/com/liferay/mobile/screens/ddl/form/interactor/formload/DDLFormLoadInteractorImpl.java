@@ -26,6 +26,7 @@ import com.liferay.mobile.screens.cache.sql.CacheSQL;
 import com.liferay.mobile.screens.context.SessionContext;
 import com.liferay.mobile.screens.ddl.form.DDLFormListener;
 import com.liferay.mobile.screens.ddl.model.Record;
+import com.liferay.mobile.screens.util.EventBusUtil;
 
 import org.json.JSONException;
 
@@ -48,7 +49,7 @@ public class DDLFormLoadInteractorImpl
 		processWithCache(record);
 	}
 
-	public void onEvent(DDLFormLoadEvent event) {
+	public void onEventMainThread(DDLFormLoadEvent event) {
 		if (!isValidEvent(event)) {
 			return;
 		}
@@ -90,6 +91,11 @@ public class DDLFormLoadInteractorImpl
 		getListener().onDDLFormLoadFailed(event.getException());
 	}
 
+	@Override
+	protected void notifyCacheError(Exception e, Object... args) {
+		getListener().onDDLFormLoadFailed(e);
+	}
+
 	@Override
 	protected boolean cached(Object[] args) throws Exception {
 
@@ -100,7 +106,9 @@ public class DDLFormLoadInteractorImpl
 			DefaultCachedType.DDL_FORM, String.valueOf(record.getRecordSetId()));
 
 		if (recordCache != null) {
-			onEvent(new DDLFormLoadEvent(getTargetScreenletId(), record, recordCache.getJSONContent()));
+			DDLFormLoadEvent event = new DDLFormLoadEvent(getTargetScreenletId(), record, recordCache.getJSONContent());
+			event.setCached(true);
+			EventBusUtil.post(event);
 			return true;
 		}
 		return false;
@@ -25,6 +25,7 @@ import com.liferay.mobile.screens.context.SessionContext;
 import com.liferay.mobile.screens.ddl.form.DDLFormListener;
 import com.liferay.mobile.screens.ddl.model.Record;
 import com.liferay.mobile.screens.service.v62.ScreensddlrecordService;
+import com.liferay.mobile.screens.util.EventBusUtil;
 import com.liferay.mobile.screens.util.JSONUtil;
 
 import org.json.JSONException;
@@ -49,7 +50,7 @@ public class DDLFormLoadRecordInteractorImpl
 		processWithCache(record);
 	}
 
-	public void onEvent(DDLFormLoadRecordEvent event) {
+	public void onEventMainThread(DDLFormLoadRecordEvent event) {
 		if (!isValidEvent(event)) {
 			return;
 		}
@@ -84,6 +85,11 @@ public class DDLFormLoadRecordInteractorImpl
 		getListener().onDDLFormRecordLoadFailed(event.getException());
 	}
 
+	@Override
+	protected void notifyCacheError(Exception e, Object... args) {
+		getListener().onDDLFormRecordLoadFailed(e);
+	}
+
 	@Override
 	protected boolean cached(Object[] args) throws Exception {
 
@@ -94,7 +100,10 @@ public class DDLFormLoadRecordInteractorImpl
 			DefaultCachedType.DDL_RECORD, String.valueOf(record.getRecordId()));
 
 		if (recordCache != null) {
-			onEvent(new DDLFormLoadRecordEvent(getTargetScreenletId(), record, recordCache.getJSONContent()));
+			DDLFormLoadRecordEvent event = new DDLFormLoadRecordEvent(getTargetScreenletId(), record,
+				recordCache.getJSONContent());
+			event.setCached(true);
+			EventBusUtil.post(event);
 			return true;
 		}
 		return false;
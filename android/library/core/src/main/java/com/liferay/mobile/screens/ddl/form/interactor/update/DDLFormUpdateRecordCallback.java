@@ -20,15 +20,19 @@ import com.liferay.mobile.screens.ddl.model.Record;
 
 import org.json.JSONObject;
 
+import java.util.Map;
+
 /**
  * @author Jose Manuel Navarro
  */
 public class DDLFormUpdateRecordCallback extends DDLFormBaseCallback {
 
-	public DDLFormUpdateRecordCallback(int targetScreenletId, Record record, long groupId) {
+	public DDLFormUpdateRecordCallback(int targetScreenletId, Record record, long groupId,
+									   Map<String, String> sentData) {
 		super(targetScreenletId, record);
 
 		_groupId = groupId;
+		_sentData = sentData;
 	}
 
 	@Override
@@ -40,8 +44,10 @@ public class DDLFormUpdateRecordCallback extends DDLFormBaseCallback {
 	protected BasicEvent createEvent(int targetScreenletId, JSONObject result) {
 		DDLFormUpdateRecordEvent ddlFormUpdateRecordEvent = new DDLFormUpdateRecordEvent(targetScreenletId, getRecord(), _groupId, result);
 		ddlFormUpdateRecordEvent.setRemote(true);
+		ddlFormUpdateRecordEvent.setSentData(_sentData);
 		return ddlFormUpdateRecordEvent;
 	}
 
 	private final long _groupId;
+	private final Map<String, String> _sentData;
 }
\ No newline at end of file
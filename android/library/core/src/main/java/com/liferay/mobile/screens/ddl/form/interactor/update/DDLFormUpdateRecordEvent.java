@@ -20,6 +20,8 @@ import com.liferay.mobile.screens.userportrait.interactor.upload.RemoteWrite;
 
 import org.json.JSONObject;
 
+import java.util.Map;
+
 /**
  * @author Jose Manuel Navarro
  */
@@ -41,6 +43,17 @@ public class DDLFormUpdateRecordEvent extends DDLFormBaseEvent implements Remote
 		return _groupId;
 	}
 
+	/**
+	 * Values of the fields sent to the portal
+	 */
+	public Map<String, String> getSentData() {
+		return _sentData;
+	}
+
+	public void setSentData(Map<String, String> sentData) {
+		_sentData = sentData;
+	}
+
 	@Override
 	public boolean isRemote() {
 		return _remote;
@@ -51,5 +64,6 @@ public class DDLFormUpdateRecordEvent extends DDLFormBaseEvent implements Remote
 	}
 
 	private boolean _remote;
+	private Map<String, String> _sentData;
 	private final long _groupId;
 }
\ No newline at end of file
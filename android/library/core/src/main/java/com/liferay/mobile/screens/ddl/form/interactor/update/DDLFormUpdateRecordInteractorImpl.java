@@ -27,6 +27,8 @@ import com.liferay.mobile.screens.ddl.model.Record;
 
 import org.json.JSONObject;
 
+import java.util.Map;
+
 
 /**
  * @author Jose Manuel Navarro
@@ -51,7 +53,7 @@ public class DDLFormUpdateRecordInteractorImpl
 			return;
 		}
 
-		onEventWithCache(event, event.getGroupId(), event.getRecord(), event.getJSONObject());
+		onEventWithCache(event, event.getGroupId(), event.getRecord(), event.getSentData());
 	}
 
 	@Override
@@ -59,7 +61,10 @@ public class DDLFormUpdateRecordInteractorImpl
 
 		long groupId = (long) args[0];
 		Record record = (Record) args[1];
-		JSONObject fieldsValues = new JSONObject(record.getData());
+		// the portal merges them with the values of the other fields,
+		// the values sent are kept to know which ones are synced when it answers
+		Map<String, String> changedData = record.getChangedData();
+		JSONObject fieldsValues = new JSONObject(changedData);
 
 		final JSONObject serviceContextAttributes = new JSONObject();
 		serviceContextAttributes.put("userId", record.getCreatorUserId());
@@ -67,7 +72,7 @@ public class DDLFormUpdateRecordInteractorImpl
 
 		JSONObjectWrapper serviceContextWrapper = new JSONObjectWrapper(serviceContextAttributes);
 
-		getDDLRecordService(record, groupId).updateRecord(record.getRecordId(),
+		getDDLRecordService(record, groupId, changedData).updateRecord(record.getRecordId(),
 			0, fieldsValues, true, serviceContextWrapper);
 	}
 
@@ -85,18 +90,25 @@ public class DDLFormUpdateRecordInteractorImpl
 	protected void storeToCache(boolean synced, Object[] args) {
 		long groupId = (long) args[0];
 		Record record = (Record) args[1];
+
+		if (synced) {
+			// the fields edited while the update was sent are still pending to sync
+			Map<String, String> sentData = (Map<String, String>) args[2];
+			record.markAsSynced(sentData);
+		}
+
 		JSONObject fieldsValues = new JSONObject(record.getData());
 
 		DDLRecordCache recordCache = new DDLRecordCache(groupId, record, fieldsValues);
-		recordCache.setDirty(!synced);
+		recordCache.setDirty(!synced || !record.getChangedFieldNames().isEmpty());
 		CacheSQL.getInstance().set(recordCache);
 
 		onEvent(new DDLFormUpdateRecordEvent(getTargetScreenletId(), record, groupId, fieldsValues));
 	}
 
-	protected DDLRecordService getDDLRecordService(Record record, long groupId) {
+	protected DDLRecordService getDDLRecordService(Record record, long groupId, Map<String, String> sentData) {
 		Session session = SessionContext.createSessionFromCurrentSession();
-		session.setCallback(new DDLFormUpdateRecordCallback(getTargetScreenletId(), record, groupId));
+		session.setCallback(new DDLFormUpdateRecordCallback(getTargetScreenletId(), record, groupId, sentData));
 		return new DDLRecordService(session);
 	}
 
@@ -1,15 +1,16 @@
 package com.liferay.mobile.screens.ddl.form.interactor.upload;
 
-import android.content.Intent;
-
 import com.liferay.mobile.screens.base.interactor.BaseCachedRemoteInteractor;
 import com.liferay.mobile.screens.base.interactor.BaseCachedWriteRemoteInteractor;
+import com.liferay.mobile.screens.base.upload.UploadProgressEvent;
+import com.liferay.mobile.screens.base.upload.UploadProgressListener;
+import com.liferay.mobile.screens.base.upload.UploadQueue;
+import com.liferay.mobile.screens.cache.DefaultCachedType;
 import com.liferay.mobile.screens.cache.OfflinePolicy;
 import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCache;
 import com.liferay.mobile.screens.cache.sql.CacheSQL;
-import com.liferay.mobile.screens.context.LiferayScreensContext;
 import com.liferay.mobile.screens.ddl.form.DDLFormListener;
-import com.liferay.mobile.screens.ddl.form.service.UploadService;
+import com.liferay.mobile.screens.ddl.form.service.DocumentUploadTask;
 import com.liferay.mobile.screens.ddl.model.DocumentField;
 
 import org.json.JSONObject;
@@ -45,16 +46,19 @@ public class DDLFormDocumentUploadInteractorImpl
 
 	@Override
 	public void online(Object[] args) throws Exception {
-		Intent service = new Intent(LiferayScreensContext.getContext(), UploadService.class);
-		service.putExtra("file", (DocumentField) args[0]);
-		service.putExtra("userId", (long) args[1]);
-		service.putExtra("groupId", (long) args[2]);
-		service.putExtra("repositoryId", (long) args[3]);
-		service.putExtra("folderId", (long) args[4]);
-		service.putExtra("screenletId", getTargetScreenletId());
-		service.putExtra("filePrefix", (String) args[5]);
-
-		LiferayScreensContext.getContext().startService(service);
+		UploadQueue.submit(new DocumentUploadTask(getTargetScreenletId(), (DocumentField) args[0], (long) args[1],
+			(long) args[2], (long) args[3], (long) args[4], (String) args[5]));
+	}
+
+	public void onEventMainThread(UploadProgressEvent event) {
+		if (!isValidEvent(event)) {
+			return;
+		}
+
+		if (getListener() instanceof UploadProgressListener) {
+			((UploadProgressListener) getListener()).onUploadProgress(event.getPath(), event.getUploadedBytes(),
+				event.getTotalBytes());
+		}
 	}
 
 	@Override
@@ -80,10 +84,30 @@ public class DDLFormDocumentUploadInteractorImpl
 		String path = file.getCurrentValue().toString();
 		DocumentUploadCache documentUploadCache = new DocumentUploadCache(path, userId, groupId, repositoryId, folderId, filePrefix);
 		documentUploadCache.setDirty(!synced);
+
+		if (!synced) {
+			keepUploadProgress(documentUploadCache);
+		}
+
 		CacheSQL.getInstance().set(documentUploadCache);
 
 		onEventMainThread(new DDLFormDocumentUploadEvent(getTargetScreenletId(), file, userId,
 			groupId, repositoryId, folderId, filePrefix, new JSONObject()));
 	}
 
+	/**
+	 * A failed resumable upload continues from the bytes already stored by the portal
+	 */
+	private void keepUploadProgress(DocumentUploadCache documentUploadCache) {
+		DocumentUploadCache cachedDocument = (DocumentUploadCache) CacheSQL.getInstance().getById(
+			DefaultCachedType.DOCUMENT_UPLOAD, documentUploadCache.getPath(), documentUploadCache.getGroupId(),
+			documentUploadCache.getUserId(), null);
+
+		if (cachedDocument != null) {
+			documentUploadCache.setUploadId(cachedDocument.getUploadId());
+			documentUploadCache.setUploadedBytes(cachedDocument.getUploadedBytes());
+			documentUploadCache.setTitle(cachedDocument.getTitle());
+		}
+	}
+
 }
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.mobile.screens.ddl.form.service;
+
+import com.liferay.mobile.screens.base.upload.UploadQueue;
+import com.liferay.mobile.screens.base.upload.UploadTask;
+import com.liferay.mobile.screens.ddl.form.interactor.upload.DDLFormDocumentUploadEvent;
+import com.liferay.mobile.screens.ddl.model.DocumentField;
+
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Upload of a document of a DDL form, before the uploads of the bulk attachments
+ *
+ * @author Javier Gamarra
+ */
+public class DocumentUploadTask extends UploadTask {
+
+	public DocumentUploadTask(int targetScreenletId, DocumentField file, long userId, long groupId,
+							  long repositoryId, long folderId, String filePrefix) {
+
+		super(targetScreenletId, UploadQueue.PRIORITY_DEFAULT, new File(getPath(file)).length());
+
+		_file = file;
+		_userId = userId;
+		_groupId = groupId;
+		_repositoryId = repositoryId;
+		_folderId = folderId;
+		_filePrefix = filePrefix;
+	}
+
+	@Override
+	protected void upload() {
+		final String path = getPath(_file);
+
+		try {
+			postProgress(path, 0, getSizeInBytes());
+
+			JSONObject jsonObject = new UploadService().uploadFile(path, _userId, _groupId, _repositoryId,
+				_folderId, _filePrefix, new ResumableUpload.Listener() {
+					@Override
+					public void onProgress(long uploadedBytes, long totalBytes) {
+						postProgress(path, uploadedBytes, totalBytes);
+					}
+				});
+
+			DDLFormDocumentUploadEvent event = new DDLFormDocumentUploadEvent(getTargetScreenletId(), _file, _userId,
+				_groupId, _repositoryId, _folderId, _filePrefix, jsonObject);
+			event.setRemote(true);
+			postResult(event);
+		}
+		catch (CancellationException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			postResult(new DDLFormDocumentUploadEvent(getTargetScreenletId(), _file, _userId, _groupId,
+				_repositoryId, _folderId, _filePrefix, e));
+		}
+	}
+
+	private static String getPath(DocumentField file) {
+		return file.getCurrentValue().toString();
+	}
+
+	private final DocumentField _file;
+	private final long _userId;
+	private final long _groupId;
+	private final long _repositoryId;
+	private final long _folderId;
+	private final String _filePrefix;
+
+}
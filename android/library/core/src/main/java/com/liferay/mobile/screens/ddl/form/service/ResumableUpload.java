@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.mobile.screens.ddl.form.service;
+
+import com.liferay.mobile.screens.util.LiferayLogger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Upload of a file in chunks that resumes from the last byte acknowledged by the portal.
+ *
+ * Every chunk is a PUT to the upload url with a Content-Range header. The portal answers
+ * 308 with a Range header with the bytes it has stored, or 200 or 201 with the file entry
+ * when it has the whole file. A PUT without body and "Content-Range: bytes *&#47;total"
+ * asks for the stored bytes, before resuming an upload.
+ *
+ * The portal needs an endpoint that implements this protocol, set with {@link #setEndpoint(String)}.
+ * If it answers 405 or 501, or the file is empty and has no chunks to send, the upload returns null
+ * and the file has to be uploaded in one request.
+ *
+ * @author Javier Gamarra
+ */
+public class ResumableUpload {
+
+	public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+	public interface Listener {
+
+		/**
+		 * Called after every chunk with the bytes stored by the portal
+		 */
+		void onProgress(long uploadedBytes, long totalBytes);
+
+	}
+
+	/**
+	 * Path of the resumable upload endpoint in the portal, null to upload the files in one request
+	 */
+	public static void setEndpoint(String endpoint) {
+		_endpoint = endpoint;
+	}
+
+	public static String getEndpoint() {
+		return _endpoint;
+	}
+
+	public static void setChunkSize(int chunkSizeInBytes) {
+		_chunkSize = Math.max(BUFFER_SIZE, chunkSizeInBytes);
+	}
+
+	public ResumableUpload(String url, String authorization, File file, Listener listener) {
+		_url = url;
+		_authorization = authorization;
+		_file = file;
+		_listener = listener;
+		_chunkSizePerUpload = _chunkSize;
+	}
+
+	/**
+	 * Sends the file, from the bytes already stored by the portal if it's resuming an upload
+	 *
+	 * @return the file entry returned by the portal, null if the file can't be uploaded in chunks
+	 */
+	public JSONObject upload(boolean resume) throws IOException, JSONException {
+		long total = _file.length();
+		if (total == 0) {
+			return null;
+		}
+
+		long offset = resume ? queryUploadedBytes(total) : 0;
+		if (offset == UNSUPPORTED) {
+			return null;
+		}
+
+		RandomAccessFile file = new RandomAccessFile(_file, "r");
+		try {
+			while (true) {
+				int length = (int) Math.min(_chunkSizePerUpload, total - offset);
+
+				HttpURLConnection connection = send(file, offset, length, total);
+				try {
+					int status = connection.getResponseCode();
+
+					if (isComplete(status)) {
+						_listener.onProgress(total, total);
+						return new JSONObject(read(connection.getInputStream()));
+					}
+					if (isUnsupported(status)) {
+						LiferayLogger.i("The portal doesn't support resumable uploads");
+						return null;
+					}
+
+					long uploadedBytes = getUploadedBytes(status, connection);
+					if (uploadedBytes <= offset) {
+						throw new IOException("The portal didn't store the chunk at " + offset + " of " + _file.getName());
+					}
+
+					offset = uploadedBytes;
+					_listener.onProgress(offset, total);
+				}
+				finally {
+					connection.disconnect();
+				}
+			}
+		}
+		finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * The bytes stored by the portal, or {@link #UNSUPPORTED}
+	 */
+	private long queryUploadedBytes(long total) throws IOException {
+		HttpURLConnection connection = send(null, 0, 0, total);
+		try {
+			int status = connection.getResponseCode();
+
+			if (isComplete(status)) {
+				return total;
+			}
+			if (isUnsupported(status)) {
+				LiferayLogger.i("The portal doesn't support resumable uploads");
+				return UNSUPPORTED;
+			}
+			// the portal discarded the upload
+			if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+				return 0;
+			}
+
+			long uploadedBytes = getUploadedBytes(status, connection);
+			LiferayLogger.i("Resuming the upload of " + _file.getName() + " from " + uploadedBytes + " bytes");
+			return uploadedBytes;
+		}
+		finally {
+			connection.disconnect();
+		}
+	}
+
+	private HttpURLConnection send(RandomAccessFile file, long offset, int length, long total) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(_url).openConnection();
+		connection.setRequestMethod("PUT");
+		connection.setInstanceFollowRedirects(false);
+		connection.setDoOutput(true);
+		connection.setFixedLengthStreamingMode(length);
+		connection.setRequestProperty("Content-Type", "application/octet-stream");
+
+		if (length == 0) {
+			connection.setRequestProperty("Content-Range", "bytes */" + total);
+		}
+		else {
+			connection.setRequestProperty("Content-Range",
+				"bytes " + offset + "-" + (offset + length - 1) + "/" + total);
+		}
+
+		if (_authorization != null) {
+			connection.setRequestProperty("Authorization", _authorization);
+		}
+
+		OutputStream outputStream = connection.getOutputStream();
+		try {
+			if (length > 0) {
+				file.seek(offset);
+
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int remaining = length;
+				while (remaining > 0) {
+					int read = file.read(buffer, 0, Math.min(buffer.length, remaining));
+					if (read == -1) {
+						throw new IOException("The file " + _file.getName() + " changed during the upload");
+					}
+					outputStream.write(buffer, 0, read);
+					remaining -= read;
+				}
+			}
+		}
+		finally {
+			outputStream.close();
+		}
+
+		return connection;
+	}
+
+	private boolean isComplete(int status) {
+		return status == HttpURLConnection.HTTP_OK || status == HttpURLConnection.HTTP_CREATED;
+	}
+
+	private boolean isUnsupported(int status) {
+		return status == HttpURLConnection.HTTP_BAD_METHOD || status == HttpURLConnection.HTTP_NOT_IMPLEMENTED;
+	}
+
+	/**
+	 * Reads the "Range: bytes=0-N" header of a 308 answer, without it the portal has no bytes
+	 */
+	private long getUploadedBytes(int status, HttpURLConnection connection) throws IOException {
+		if (status != RESUME_INCOMPLETE) {
+			throw new IOException("Unexpected answer " + status + " uploading " + _file.getName());
+		}
+
+		String range = connection.getHeaderField("Range");
+		if (range == null) {
+			return 0;
+		}
+
+		try {
+			return Long.parseLong(range.substring(range.indexOf('-') + 1).trim()) + 1;
+		}
+		catch (NumberFormatException e) {
+			throw new IOException("Invalid range " + range + " uploading " + _file.getName());
+		}
+	}
+
+	private String read(InputStream inputStream) throws IOException {
+		try {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, read);
+			}
+			return outputStream.toString("UTF-8");
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+	private static final int RESUME_INCOMPLETE = 308;
+	private static final long UNSUPPORTED = -1;
+
+	private static volatile String _endpoint;
+	private static volatile int _chunkSize = DEFAULT_CHUNK_SIZE;
+
+	private final String _url;
+	private final String _authorization;
+	private final File _file;
+	private final Listener _listener;
+	private final int _chunkSizePerUpload;
+
+}
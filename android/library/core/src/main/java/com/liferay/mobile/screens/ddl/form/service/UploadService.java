@@ -16,28 +16,47 @@ package com.liferay.mobile.screens.ddl.form.service;
 
 import android.app.IntentService;
 import android.content.Intent;
+import android.net.Uri;
+import android.util.Base64;
 import android.webkit.MimeTypeMap;
 
+import com.liferay.mobile.android.auth.Authentication;
+import com.liferay.mobile.android.auth.basic.BasicAuthentication;
+import com.liferay.mobile.android.http.file.UploadData;
 import com.liferay.mobile.android.service.JSONObjectWrapper;
 import com.liferay.mobile.android.service.Session;
 import com.liferay.mobile.android.v62.dlapp.DLAppService;
+import com.liferay.mobile.screens.cache.Cache;
+import com.liferay.mobile.screens.cache.DefaultCachedType;
+import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCache;
+import com.liferay.mobile.screens.cache.sql.CacheSQL;
+import com.liferay.mobile.screens.cache.sql.UploadedFiles;
+import com.liferay.mobile.screens.context.LiferayServerContext;
 import com.liferay.mobile.screens.context.SessionContext;
-import com.liferay.mobile.screens.ddl.form.interactor.upload.DDLFormDocumentUploadEvent;
 import com.liferay.mobile.screens.ddl.model.DocumentField;
-import com.liferay.mobile.screens.util.EventBusUtil;
 import com.liferay.mobile.screens.util.LiferayLogger;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.UUID;
 
 /**
+ * Uploads the documents of the DDL forms streaming them from disk in fixed size buffers,
+ * so the memory used doesn't depend on the size of the file.
+ *
+ * With a {@link ResumableUpload} endpoint the files are sent in chunks and a failed upload
+ * resumes from the last chunk stored by the portal. The screenlets run the uploads
+ * in the {@link com.liferay.mobile.screens.base.upload.UploadQueue}.
+ *
  * @author Javier Gamarra
  */
 public class UploadService extends IntentService {
@@ -53,79 +72,295 @@ public class UploadService extends IntentService {
 
 	public void uploadFromIntent(Intent intent) {
 		DocumentField file = intent.getParcelableExtra("file");
-		Long userId = intent.getLongExtra("userId", 0);
-		Long groupId = intent.getLongExtra("groupId", 0);
-		Long repositoryId = intent.getLongExtra("repositoryId", 0);
-		Long folderId = intent.getLongExtra("folderId", 0);
+		long userId = intent.getLongExtra("userId", 0);
+		long groupId = intent.getLongExtra("groupId", 0);
+		long repositoryId = intent.getLongExtra("repositoryId", 0);
+		long folderId = intent.getLongExtra("folderId", 0);
 		String filePrefix = intent.getStringExtra("filePrefix");
 		int targetScreenletId = intent.getIntExtra("screenletId", 0);
 
+		new DocumentUploadTask(targetScreenletId, file, userId, groupId, repositoryId, folderId, filePrefix).run();
+	}
+
+	public JSONObject uploadFile(DocumentField file, Long userId, Long groupId, Long repositoryId,
+								 Long folderId, String filePrefix) throws Exception {
+		return uploadFile(file.getCurrentValue().toString(), userId, groupId, repositoryId, folderId, filePrefix);
+	}
+
+	public JSONObject uploadFile(String path, Long userId, Long groupId, Long repositoryId,
+								 Long folderId, String filePrefix) throws Exception {
+		return uploadFile(path, userId, groupId, repositoryId, folderId, filePrefix, null);
+	}
+
+	/**
+	 * Uploads a file, resuming the upload of the document in the cache if there is a resumable
+	 * upload endpoint. The listener, if any, receives the bytes stored by the portal.
+	 */
+	public JSONObject uploadFile(String path, Long userId, Long groupId, Long repositoryId,
+								 Long folderId, String filePrefix, ResumableUpload.Listener listener)
+		throws Exception {
+
+		DocumentUploadCache document = new DocumentUploadCache(path, userId, groupId, repositoryId, folderId,
+			filePrefix);
+		// an upload from the screenlet is only pending to sync if it fails
+		document.setDirty(false);
+
+		if (ResumableUpload.getEndpoint() != null) {
+			// the cached document can be shared by the memory cache, only its progress is copied
+			DocumentUploadCache cachedDocument = (DocumentUploadCache) CacheSQL.getInstance().getById(
+				DefaultCachedType.DOCUMENT_UPLOAD, path, groupId, userId, null);
+
+			if (cachedDocument != null) {
+				document.setUploadId(cachedDocument.getUploadId());
+				document.setUploadedBytes(cachedDocument.getUploadedBytes());
+				document.setTitle(cachedDocument.getTitle());
+			}
+		}
+
+		return uploadFile(document, listener);
+	}
+
+	public JSONObject uploadFile(DocumentUploadCache document) throws Exception {
+		return uploadFile(document, null);
+	}
+
+	/**
+	 * Uploads a document of the cache in chunks if the portal supports resumable uploads,
+	 * storing the acknowledged bytes in the cache so a failed upload resumes from them.
+	 *
+	 * A file already uploaded to the same repository and folder isn't sent again,
+	 * its file entry is reused if it still exists in the portal.
+	 */
+	public JSONObject uploadFile(DocumentUploadCache document, ResumableUpload.Listener listener) throws Exception {
+		File file = new File(document.getPath());
+		String scope = UploadedFiles.getDocumentScope(document.getRepositoryId(), document.getFolderId());
+		String hash = getHash(file);
+
+		JSONObject fileEntry = hash == null ? null : findUploadedFileEntry(hash, scope);
+
+		if (fileEntry != null) {
+			LiferayLogger.i("The file " + file.getName() + " is already uploaded, reusing its file entry");
+			notifyUploaded(file, listener);
+			return fileEntry;
+		}
+
+		fileEntry = send(document, listener);
+
+		if (hash != null) {
+			UploadedFiles.put(hash, scope, fileEntry);
+		}
+
+		return fileEntry;
+	}
+
+	/**
+	 * The file entry of a previous upload of the file, fetched by id to check that it hasn't been
+	 * deleted or moved. If it can't be fetched the upload is forgotten and the file is sent again.
+	 */
+	private JSONObject findUploadedFileEntry(String hash, String scope) {
+		JSONObject uploadedFileEntry = UploadedFiles.find(hash, scope);
+		if (uploadedFileEntry == null) {
+			return null;
+		}
+
 		try {
-			JSONObject jsonObject = uploadFile(file, userId, groupId, repositoryId, folderId, filePrefix);
+			Session session = SessionContext.createSessionFromCurrentSession();
+			JSONObject fileEntry = new DLAppService(session).getFileEntry(uploadedFileEntry.getLong("fileEntryId"));
 
-			DDLFormDocumentUploadEvent event = new DDLFormDocumentUploadEvent(targetScreenletId, file, userId, groupId, repositoryId,
-				folderId, filePrefix, jsonObject);
-			event.setRemote(true);
-			EventBusUtil.post(event);
+			if (fileEntry.getLong("folderId") == uploadedFileEntry.getLong("folderId")) {
+				return fileEntry;
+			}
 		}
 		catch (Exception e) {
-			EventBusUtil.post(new DDLFormDocumentUploadEvent(targetScreenletId, file, userId, groupId, repositoryId,
-				folderId, filePrefix, e));
+			LiferayLogger.e("Could not fetch the uploaded file entry", e);
 		}
+
+		UploadedFiles.remove(hash, scope);
+		return null;
 	}
 
-	public JSONObject uploadFile(DocumentField file, Long userId, Long groupId, Long repositoryId,
-								 Long folderId, String filePrefix) throws Exception {
-		String path = file.getCurrentValue().toString();
-		String name = path.substring(path.lastIndexOf("/") + 1);
-		String date = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+	private JSONObject send(DocumentUploadCache document, ResumableUpload.Listener listener) throws Exception {
+		if (ResumableUpload.getEndpoint() != null) {
+			JSONObject fileEntry = uploadResumable(document, listener);
+			if (fileEntry != null) {
+				return fileEntry;
+			}
+			LiferayLogger.i("Uploading the whole file " + document.getPath());
+		}
 
-		Session session = SessionContext.createSessionFromCurrentSession();
-		DLAppService service = new DLAppService(session);
+		JSONObject fileEntry = uploadInOneRequest(document);
 
-		JSONObjectWrapper serviceContextWrapper = getJsonObjectWrapper(userId, groupId);
+		notifyUploaded(new File(document.getPath()), listener);
 
-		String fileName = (filePrefix == null ? "" : filePrefix) + date + "_" + name;
+		return fileEntry;
+	}
 
-		return service.addFileEntry(repositoryId, folderId, name,
-			getMimeType(path), fileName, "", "", getBytes(new File(path)), serviceContextWrapper);
+	private void notifyUploaded(File file, ResumableUpload.Listener listener) {
+		if (listener != null) {
+			listener.onProgress(file.length(), file.length());
+		}
 	}
 
-	private byte[] getBytes(File file) throws IOException {
-		byte[] buffer = new byte[(int) file.length()];
-		InputStream ios = null;
+	private String getHash(File file) {
+		if (!UploadedFiles.isEnabled()) {
+			return null;
+		}
+
 		try {
-			ios = new FileInputStream(file);
-			if (ios.read(buffer) == -1) {
-				throw new IOException("EOF reached while trying to read the whole file");
-			}
+			return UploadedFiles.hash(file);
+		}
+		catch (IOException e) {
+			LiferayLogger.e("Could not hash " + file.getName() + ", uploading it anyway", e);
+			return null;
+		}
+	}
+
+	private JSONObject uploadInOneRequest(DocumentUploadCache document) throws Exception {
+		String path = document.getPath();
+		String name = getName(path);
+
+		Session session = SessionContext.createSessionFromCurrentSession();
+		DLAppService service = new DLAppService(session);
+
+		JSONObjectWrapper serviceContextWrapper = new JSONObjectWrapper(
+			getServiceContext(document.getUserId(), document.getGroupId()));
+
+		String mimeType = getMimeType(path);
+
+		InputStream inputStream = new BufferedInputStream(new FileInputStream(path), BUFFER_SIZE);
+		try {
+			UploadData uploadData = new UploadData(inputStream, mimeType, name);
+
+			return service.addFileEntry(document.getRepositoryId(), document.getFolderId(), name, mimeType,
+				getTitle(document), "", "", uploadData, serviceContextWrapper);
 		}
 		finally {
-			try {
-				if (ios != null) {
-					ios.close();
+			close(inputStream);
+		}
+	}
+
+	/**
+	 * Returns null if the file has to be uploaded in one request
+	 */
+	private JSONObject uploadResumable(final DocumentUploadCache document, final ResumableUpload.Listener listener)
+		throws Exception {
+
+		String authorization = getAuthorization();
+		if (authorization == null) {
+			LiferayLogger.i("Resumable uploads need basic authentication");
+			return null;
+		}
+
+		final Cache cache = CacheSQL.getInstance();
+
+		boolean resume = document.getUploadId() != null;
+		if (!resume) {
+			document.setUploadId(UUID.randomUUID().toString());
+			document.setUploadedBytes(0);
+			// the file entry keeps the title of the first attempt
+			document.setTitle(getTitle(document));
+			cache.set(document);
+		}
+
+		String path = document.getPath();
+		String name = getName(path);
+
+		String url = Uri.parse(LiferayServerContext.getServer() + ResumableUpload.getEndpoint()).buildUpon()
+			.appendQueryParameter("uploadId", document.getUploadId())
+			.appendQueryParameter("repositoryId", String.valueOf(document.getRepositoryId()))
+			.appendQueryParameter("folderId", String.valueOf(document.getFolderId()))
+			.appendQueryParameter("sourceFileName", name)
+			.appendQueryParameter("mimeType", getMimeType(path))
+			.appendQueryParameter("title", getTitle(document))
+			.appendQueryParameter("serviceContext",
+				getServiceContext(document.getUserId(), document.getGroupId()).toString())
+			.build()
+			.toString();
+
+		ResumableUpload upload = new ResumableUpload(url, authorization, new File(path),
+			new ResumableUpload.Listener() {
+				@Override
+				public void onProgress(long uploadedBytes, long totalBytes) {
+					document.setUploadedBytes(uploadedBytes);
+					cache.set(document);
+
+					if (listener != null) {
+						listener.onProgress(uploadedBytes, totalBytes);
+					}
 				}
-			}
-			catch (IOException e) {
-				LiferayLogger.e("Error closing stream", e);
-			}
+			});
+
+		JSONObject fileEntry = upload.upload(resume);
+
+		// uploaded, or left to an upload in one request
+		document.setUploadId(null);
+		document.setUploadedBytes(0);
+		document.setTitle(null);
+		cache.set(document);
+
+		return fileEntry;
+	}
+
+	/**
+	 * Null if the authentication can't be sent in the header of the chunks
+	 */
+	private String getAuthorization() {
+		Authentication authentication = SessionContext.getAuthentication();
+
+		if (!(authentication instanceof BasicAuthentication)) {
+			return null;
 		}
 
-		return buffer;
+		BasicAuthentication basicAuthentication = (BasicAuthentication) authentication;
+		String credentials = basicAuthentication.getUsername() + ":" + basicAuthentication.getPassword();
+
+		return "Basic " + Base64.encodeToString(credentials.getBytes(Charset.forName("UTF-8")), Base64.NO_WRAP);
+	}
+
+	private String getName(String path) {
+		return path.substring(path.lastIndexOf("/") + 1);
 	}
 
-	private JSONObjectWrapper getJsonObjectWrapper(Long userId, Long groupId) throws JSONException {
+	/**
+	 * The title of the upload in progress, or a new one with the date
+	 */
+	private String getTitle(DocumentUploadCache document) {
+		if (document.getTitle() != null) {
+			return document.getTitle();
+		}
+
+		String filePrefix = document.getFilePrefix();
+		String date = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+		return (filePrefix == null ? "" : filePrefix) + date + "_" + getName(document.getPath());
+	}
+
+	private void close(InputStream inputStream) {
+		try {
+			inputStream.close();
+		}
+		catch (IOException e) {
+			LiferayLogger.e("Error closing stream", e);
+		}
+	}
+
+	private JSONObject getServiceContext(Long userId, Long groupId) throws JSONException {
 		JSONObject serviceContextAttributes = new JSONObject();
 		serviceContextAttributes.put("userId", userId);
 		serviceContextAttributes.put("scopeGroupId", groupId);
-		return new JSONObjectWrapper(serviceContextAttributes);
+		return serviceContextAttributes;
 	}
 
 	private static String getMimeType(String path) {
 		String extension = MimeTypeMap.getFileExtensionFromUrl(path);
 		if (extension != null) {
-			return MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension);
+			String mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension);
+			if (mimeType != null) {
+				return mimeType;
+			}
 		}
-		return null;
+		return DEFAULT_MIME_TYPE;
 	}
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+	private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
 }
\ No newline at end of file
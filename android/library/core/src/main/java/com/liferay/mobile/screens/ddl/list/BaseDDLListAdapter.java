@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.ddl.list;
+
+import com.liferay.mobile.screens.base.list.BaseListAdapter;
+import com.liferay.mobile.screens.base.list.BaseListAdapterListener;
+import com.liferay.mobile.screens.ddl.model.Record;
+
+import java.util.Map;
+
+/**
+ * Adapter of the DDL records, a record is identified by its record id
+ * and compared by its values and attributes
+ *
+ * @author Javier Gamarra
+ */
+public abstract class BaseDDLListAdapter<H extends BaseListAdapter.ViewHolder> extends BaseListAdapter<Record, H> {
+
+	public BaseDDLListAdapter(int layoutId, int progressLayoutId, BaseListAdapterListener listener) {
+		super(layoutId, progressLayoutId, listener);
+	}
+
+	@Override
+	protected Object getEntryId(Record entry) {
+		return entry.getRecordId();
+	}
+
+	@Override
+	protected boolean hasSameContent(Record previousEntry, Record entry) {
+		Map<String, Object> previousValues = previousEntry.getValuesAndAttributes();
+		return previousValues != null && previousValues.equals(entry.getValuesAndAttributes());
+	}
+
+}
@@ -103,6 +103,11 @@ public class DDLListInteractorImpl
 		}
 	}
 
+	@Override
+	protected String getListKey() {
+		return DDL_LIST_COUNT.name() + "_" + _recordSetId + "_" + _userId;
+	}
+
 	@Override
 	protected void getPageRowCountRequest(Session session) throws Exception {
 		ScreensddlrecordService ddlRecordService = new ScreensddlrecordService(session);
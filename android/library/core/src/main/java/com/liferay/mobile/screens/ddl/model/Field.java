@@ -201,6 +201,9 @@ public abstract class Field<T extends Serializable> implements Parcelable {
 		_currentLocale = (Locale) in.readSerializable();
 
 		_lastValidationResult = (in.readInt() == 1);
+
+		_synced = (in.readInt() == 1);
+		_syncedData = in.readString();
 	}
 
 	@Override
@@ -308,6 +311,34 @@ public abstract class Field<T extends Serializable> implements Parcelable {
 		return convertToData(_currentValue);
 	}
 
+	/**
+	 * Takes the current value as the value stored in the portal
+	 */
+	public void markAsSynced() {
+		markAsSynced(toData());
+	}
+
+	/**
+	 * Takes the given data as the value stored in the portal, the field is still changed
+	 * if its current value is not that one
+	 */
+	public void markAsSynced(String data) {
+		_syncedData = data;
+		_synced = true;
+	}
+
+	/**
+	 * True if the current value is not the one stored in the portal, or if that one is unknown
+	 */
+	public boolean isChanged() {
+		if (!_synced) {
+			return true;
+		}
+
+		String data = toData();
+		return (_syncedData == null) ? (data != null) : !_syncedData.equals(data);
+	}
+
 	public String toFormattedString() {
 		return convertToFormattedString(_currentValue);
 	}
@@ -337,6 +368,9 @@ public abstract class Field<T extends Serializable> implements Parcelable {
 		destination.writeSerializable(_currentLocale);
 
 		destination.writeInt(_lastValidationResult ? 1 : 0);
+
+		destination.writeInt(_synced ? 1 : 0);
+		destination.writeString(_syncedData);
 	}
 
 
@@ -372,6 +406,9 @@ public abstract class Field<T extends Serializable> implements Parcelable {
 
 	private boolean _lastValidationResult = true;
 
+	private boolean _synced;
+	private String _syncedData;
+
 	private Locale _currentLocale;
 
 }
\ No newline at end of file
@@ -68,6 +68,29 @@ public class Record implements Parcelable {
 				f.setCurrentValue(f.convertFromString(fieldValue.toString()));
 			}
 		}
+
+		markAsSynced();
+	}
+
+	/**
+	 * Takes the current values of the fields as the values stored in the portal
+	 */
+	public void markAsSynced() {
+		for (Field f : _fields) {
+			f.markAsSynced();
+		}
+	}
+
+	/**
+	 * Takes the data sent to the portal as the values stored in it, the fields changed
+	 * again while it was sent are still changed
+	 */
+	public void markAsSynced(Map<String, String> sentData) {
+		for (Field f : _fields) {
+			if (sentData.containsKey(f.getName())) {
+				f.markAsSynced(sentData.get(f.getName()));
+			}
+		}
 	}
 
 	public void parseXsd(String xsd) {
@@ -117,6 +140,7 @@ public class Record implements Parcelable {
 		writeLong(destination, _structureId);
 		writeLong(destination, _recordSetId);
 		writeLong(destination, _recordId);
+		destination.writeString(_localId);
 	}
 
 	public long getRecordSetId() {
@@ -135,6 +159,17 @@ public class Record implements Parcelable {
 		_recordId = recordId;
 	}
 
+	/**
+	 * Id of a record added offline, it identifies its versions until it's synced
+	 */
+	public String getLocalId() {
+		return _localId;
+	}
+
+	public void setLocalId(String localId) {
+		_localId = localId;
+	}
+
 	public long getStructureId() {
 		return _structureId;
 	}
@@ -152,21 +187,26 @@ public class Record implements Parcelable {
 	}
 
 	public Map<String, String> getData() {
-		Map<String, String> values = new HashMap<>(_fields.size());
+		return getData(false);
+	}
 
-		for (Field f : _fields) {
-			String fieldValue = f.toData();
+	/**
+	 * Values of the fields changed since they were loaded from or stored in the portal
+	 */
+	public Map<String, String> getChangedData() {
+		return getData(true);
+	}
 
-			//FIXME - LPS-49460
-			// Server rejects the request if the value is empty string.
-			// This way we workaround the problem but a field can't be
-			// emptied when you're editing an existing row.
-			if (fieldValue != null && !fieldValue.isEmpty()) {
-				values.put(f.getName(), fieldValue);
+	public List<String> getChangedFieldNames() {
+		List<String> names = new ArrayList<>();
+
+		for (Field f : _fields) {
+			if (f.isChanged()) {
+				names.add(f.getName());
 			}
 		}
 
-		return values;
+		return names;
 	}
 
 	public Locale getLocale() {
@@ -230,11 +270,34 @@ public class Record implements Parcelable {
 		_structureId = in.readLong();
 		_recordSetId = in.readLong();
 		_recordId = in.readLong();
+		_localId = in.readString();
 		_locale = (Locale) in.readSerializable();
 		_valuesAndAttributes = new HashMap<>();
 		in.readMap(_valuesAndAttributes, loader);
 	}
 
+	private Map<String, String> getData(boolean onlyChanged) {
+		Map<String, String> values = new HashMap<>(_fields.size());
+
+		for (Field f : _fields) {
+			if (onlyChanged && !f.isChanged()) {
+				continue;
+			}
+
+			String fieldValue = f.toData();
+
+			//FIXME - LPS-49460
+			// Server rejects the request if the value is empty string.
+			// This way we workaround the problem but a field can't be
+			// emptied when you're editing an existing row.
+			if (fieldValue != null && !fieldValue.isEmpty()) {
+				values.put(f.getName(), fieldValue);
+			}
+		}
+
+		return values;
+	}
+
 	private void parseServerValues() {
 		_recordId = JSONUtil.castToLong(getServerAttribute("recordId"));
 		_recordSetId = JSONUtil.castToLong(getServerAttribute("recordSetId"));
@@ -253,6 +316,7 @@ public class Record implements Parcelable {
 	private Long _structureId;
 	private Long _recordSetId;
 	private Long _recordId;
+	private String _localId;
 	private Locale _locale;
 	private Map<String, Object> _valuesAndAttributes;
 }
\ No newline at end of file
@@ -29,6 +29,8 @@ import android.view.View;
 
 import com.liferay.mobile.screens.R;
 import com.liferay.mobile.screens.base.BaseScreenlet;
+import com.liferay.mobile.screens.base.upload.UploadProgressListener;
+import com.liferay.mobile.screens.base.upload.UploadQueue;
 import com.liferay.mobile.screens.cache.OfflinePolicy;
 import com.liferay.mobile.screens.context.SessionContext;
 import com.liferay.mobile.screens.userportrait.interactor.BaseUserPortraitInteractor;
@@ -49,7 +51,7 @@ import java.io.File;
  */
 public class UserPortraitScreenlet
 	extends BaseScreenlet<UserPortraitViewModel, BaseUserPortraitInteractor>
-	implements UserPortraitInteractorListener {
+	implements UserPortraitInteractorListener, UploadProgressListener {
 
 	public static final String UPLOAD_PORTRAIT = "UPLOAD_PORTRAIT";
 	public static final String LOAD_PORTRAIT = "LOAD_PORTRAIT";
@@ -159,6 +161,20 @@ public class UserPortraitScreenlet
 		getViewModel().showFailedOperation(UPLOAD_PORTRAIT, e);
 	}
 
+	@Override
+	public void onUploadProgress(String path, long uploadedBytes, long totalBytes) {
+		if (_listener instanceof UploadProgressListener) {
+			((UploadProgressListener) _listener).onUploadProgress(path, uploadedBytes, totalBytes);
+		}
+	}
+
+	/**
+	 * Cancels the portrait uploads of the screenlet that haven't finished
+	 */
+	public void cancelUploads() {
+		UploadQueue.cancel(getScreenletId());
+	}
+
 	@Override
 	public void loadingFromCache(boolean success) {
 		if (_listener != null) {
@@ -336,6 +352,17 @@ public class UserPortraitScreenlet
 		}
 	}
 
+	/**
+	 * The uploads survive the configuration changes, the recreated screenlet keeps the same id
+	 * and receives their results. They are only cancelled when the activity is closing.
+	 */
+	@Override
+	protected void onScreenletDetached() {
+		if (isActivityFinishing()) {
+			cancelUploads();
+		}
+	}
+
 	@Override
 	protected void onRestoreInstanceState(Parcelable inState) {
 		Bundle bundle = (Bundle) inState;
@@ -88,7 +88,7 @@ public class UserPortraitLoadInteractorImpl
 		processWithCache(userId);
 	}
 
-	public void onEvent(UserPortraitLoadEvent event) {
+	public void onEventMainThread(UserPortraitLoadEvent event) {
 		if (!isValidEvent(event)) {
 			return;
 		}
@@ -103,7 +103,7 @@ public class UserPortraitLoadInteractorImpl
 				Long userId = userAttributes.getLong("userId");
 				String uuid = userAttributes.getString("uuid");
 
-				if (hasToStoreToCache()) {
+				if (!event.isCached()) {
 					storeToCache(event, userId, portraitId, uuid);
 				}
 				load(true, portraitId, uuid);
@@ -158,17 +158,29 @@ public class UserPortraitLoadInteractorImpl
 		getListener().onUserPortraitLoadFailure(event.getException());
 	}
 
+	@Override
+	protected void notifyCacheError(Exception e, Object... args) {
+		getListener().onUserPortraitLoadFailure(e);
+	}
+
 	@Override
 	protected boolean cached(Object[] args) {
 
 		long userId = (long) args[0];
 
 		Cache cache = CacheSQL.getInstance();
-		UserPortraitCache userPortraitCache = (UserPortraitCache) cache.getById(
+		final UserPortraitCache userPortraitCache = (UserPortraitCache) cache.getById(
 			DefaultCachedType.USER_PORTRAIT, String.valueOf(userId));
 
 		if (userPortraitCache != null) {
-			load(userPortraitCache.isMale(), userPortraitCache.getPortraitId(), userPortraitCache.getUuid());
+			runOnMainThread(new Runnable() {
+				@Override
+				public void run() {
+					if (getListener() != null) {
+						load(userPortraitCache.isMale(), userPortraitCache.getPortraitId(), userPortraitCache.getUuid());
+					}
+				}
+			});
 			return true;
 		}
 		return false;
@@ -23,12 +23,14 @@ import android.media.ExifInterface;
 
 import com.liferay.mobile.android.service.Session;
 import com.liferay.mobile.android.v62.user.UserService;
+import com.liferay.mobile.screens.cache.sql.UploadedFiles;
 import com.liferay.mobile.screens.context.SessionContext;
-import com.liferay.mobile.screens.util.EventBusUtil;
+import com.liferay.mobile.screens.util.LiferayLogger;
 
 import org.json.JSONObject;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -52,23 +54,33 @@ public class UserPortraitService extends IntentService {
 		long userId = intent.getLongExtra("userId", 0L);
 		String picturePath = intent.getStringExtra("picturePath");
 
-		try {
-			JSONObject jsonObject = uploadUserPortrait(userId, picturePath);
-
-			UserPortraitUploadEvent event = new UserPortraitUploadEvent(targetScreenletId, picturePath, userId, jsonObject);
-			event.setRemote(true);
-			EventBusUtil.post(event);
-		}
-		catch (Exception e) {
-			EventBusUtil.post(new UserPortraitUploadEvent(targetScreenletId, picturePath, userId, e));
-		}
+		new UserPortraitUploadTask(targetScreenletId, userId, picturePath).run();
 	}
 
+	/**
+	 * Doesn't send the picture again if it's the last one uploaded and it's still the current portrait of the user
+	 */
 	public JSONObject uploadUserPortrait(long userId, String picturePath) throws Exception {
+		String scope = UploadedFiles.getPortraitScope(userId);
+		String hash = getHash(picturePath);
+
 		Session sessionFromCurrentSession = SessionContext.createSessionFromCurrentSession();
 		UserService userService = new UserService(sessionFromCurrentSession);
-		return userService.updatePortrait(userId,
+
+		JSONObject user = hash == null ? null : findCurrentPortrait(userService, userId, hash, scope);
+		if (user != null) {
+			LiferayLogger.i("The portrait of the user " + userId + " is already uploaded");
+			return user;
+		}
+
+		user = userService.updatePortrait(userId,
 			decodeSampledBitmapFromResource(picturePath, PORTRAIT_SIZE, PORTRAIT_SIZE));
+
+		if (hash != null) {
+			UploadedFiles.replace(hash, scope, user);
+		}
+
+		return user;
 	}
 
 	public static int calculateInSampleSize(
@@ -131,4 +143,43 @@ public class UserPortraitService extends IntentService {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * The user, if the picture was the last uploaded and the portal still has it as the portrait.
+	 * The portrait can be changed from other clients, so the upload is forgotten if it's not current.
+	 */
+	private static JSONObject findCurrentPortrait(UserService userService, long userId, String hash, String scope) {
+		JSONObject uploadedUser = UploadedFiles.find(hash, scope);
+		if (uploadedUser == null) {
+			return null;
+		}
+
+		try {
+			JSONObject user = userService.getUserById(userId);
+
+			if (user.getLong("portraitId") == uploadedUser.getLong("portraitId")) {
+				return user;
+			}
+		}
+		catch (Exception e) {
+			LiferayLogger.e("Could not fetch the current portrait", e);
+		}
+
+		UploadedFiles.remove(hash, scope);
+		return null;
+	}
+
+	private static String getHash(String picturePath) {
+		if (!UploadedFiles.isEnabled() || picturePath == null) {
+			return null;
+		}
+
+		try {
+			return UploadedFiles.hash(new File(picturePath));
+		}
+		catch (IOException e) {
+			LiferayLogger.e("Could not hash the portrait, uploading it anyway", e);
+			return null;
+		}
+	}
+
+}
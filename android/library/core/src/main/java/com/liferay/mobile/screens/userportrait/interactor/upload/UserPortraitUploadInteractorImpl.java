@@ -1,13 +1,13 @@
 package com.liferay.mobile.screens.userportrait.interactor.upload;
 
-import android.content.Intent;
-
 import com.liferay.mobile.screens.base.interactor.BaseCachedWriteRemoteInteractor;
+import com.liferay.mobile.screens.base.upload.UploadProgressEvent;
+import com.liferay.mobile.screens.base.upload.UploadProgressListener;
+import com.liferay.mobile.screens.base.upload.UploadQueue;
 import com.liferay.mobile.screens.cache.DefaultCachedType;
 import com.liferay.mobile.screens.cache.OfflinePolicy;
 import com.liferay.mobile.screens.cache.sql.CacheSQL;
 import com.liferay.mobile.screens.cache.tablecache.TableCache;
-import com.liferay.mobile.screens.context.LiferayScreensContext;
 import com.liferay.mobile.screens.context.SessionContext;
 import com.liferay.mobile.screens.context.User;
 import com.liferay.mobile.screens.userportrait.interactor.UserPortraitInteractorListener;
@@ -47,12 +47,18 @@ public class UserPortraitUploadInteractorImpl
 			getListener().onStartUserPortraitLoadRequest();
 		}
 
-		Intent service = new Intent(LiferayScreensContext.getContext(), UserPortraitService.class);
-		service.putExtra("picturePath", picturePath);
-		service.putExtra("screenletId", getTargetScreenletId());
-		service.putExtra("userId", userId);
+		UploadQueue.submit(new UserPortraitUploadTask(getTargetScreenletId(), userId, picturePath));
+	}
 
-		LiferayScreensContext.getContext().startService(service);
+	public void onEventMainThread(UploadProgressEvent event) {
+		if (!isValidEvent(event)) {
+			return;
+		}
+
+		if (getListener() instanceof UploadProgressListener) {
+			((UploadProgressListener) getListener()).onUploadProgress(event.getPath(), event.getUploadedBytes(),
+				event.getTotalBytes());
+		}
 	}
 
 	@Override
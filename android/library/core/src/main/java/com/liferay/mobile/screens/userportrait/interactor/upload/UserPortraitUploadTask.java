@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.mobile.screens.userportrait.interactor.upload;
+
+import com.liferay.mobile.screens.base.upload.UploadQueue;
+import com.liferay.mobile.screens.base.upload.UploadTask;
+
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Upload of a user portrait, it's small and visible so it goes before the other uploads
+ *
+ * @author Javier Gamarra
+ */
+public class UserPortraitUploadTask extends UploadTask {
+
+	public UserPortraitUploadTask(int targetScreenletId, long userId, String picturePath) {
+		super(targetScreenletId, UploadQueue.PRIORITY_USER_VISIBLE, picturePath == null ? 0 : new File(picturePath).length());
+
+		_userId = userId;
+		_picturePath = picturePath;
+	}
+
+	@Override
+	protected void upload() {
+		try {
+			postProgress(_picturePath, 0, getSizeInBytes());
+
+			JSONObject jsonObject = new UserPortraitService().uploadUserPortrait(_userId, _picturePath);
+
+			postProgress(_picturePath, getSizeInBytes(), getSizeInBytes());
+
+			UserPortraitUploadEvent event =
+				new UserPortraitUploadEvent(getTargetScreenletId(), _picturePath, _userId, jsonObject);
+			event.setRemote(true);
+			postResult(event);
+		}
+		catch (CancellationException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			postResult(new UserPortraitUploadEvent(getTargetScreenletId(), _picturePath, _userId, e));
+		}
+	}
+
+	private final long _userId;
+	private final String _picturePath;
+
+}
@@ -27,6 +27,16 @@ public class AssetListAdapter extends BaseListAdapter<AssetEntry, BaseListAdapte
         super(layoutId, progressLayoutId, listener);
     }
 
+    @Override
+    protected Object getEntryId(AssetEntry entry) {
+        return entry.getValues().get("entryId");
+    }
+
+    @Override
+    protected boolean hasSameContent(AssetEntry previousEntry, AssetEntry entry) {
+        return previousEntry.getValues().equals(entry.getValues());
+    }
+
     @Override
     protected void fillHolder(AssetEntry entry, ViewHolder holder) {
         holder.textView.setText(entry.getTitle());
@@ -16,6 +16,7 @@ package com.liferay.mobile.screens.viewsets.defaultviews.ddl.list;
 
 import com.liferay.mobile.screens.base.list.BaseListAdapter;
 import com.liferay.mobile.screens.base.list.BaseListAdapterListener;
+import com.liferay.mobile.screens.ddl.list.BaseDDLListAdapter;
 import com.liferay.mobile.screens.ddl.model.Record;
 
 import java.util.List;
@@ -24,7 +25,7 @@ import java.util.List;
  * @author Javier Gamarra
  * @author Silvio Santos
  */
-public class DDLListAdapter extends BaseListAdapter<Record, BaseListAdapter.ViewHolder> {
+public class DDLListAdapter extends BaseDDLListAdapter<BaseListAdapter.ViewHolder> {
 
 	public DDLListAdapter(int layoutId, int progressLayoutId, BaseListAdapterListener listener) {
 		super(layoutId, progressLayoutId, listener);
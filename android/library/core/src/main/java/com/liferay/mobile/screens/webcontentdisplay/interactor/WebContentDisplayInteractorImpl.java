@@ -23,6 +23,7 @@ import com.liferay.mobile.screens.cache.sql.CacheSQL;
 import com.liferay.mobile.screens.cache.tablecache.TableCache;
 import com.liferay.mobile.screens.context.SessionContext;
 import com.liferay.mobile.screens.service.v62.ScreensjournalarticleService;
+import com.liferay.mobile.screens.util.EventBusUtil;
 import com.liferay.mobile.screens.webcontentdisplay.WebContentDisplayListener;
 
 import java.util.Locale;
@@ -46,7 +47,7 @@ public class WebContentDisplayInteractorImpl
 		processWithCache(groupId, articleId, locale, templateId);
 	}
 
-	public void onEvent(WebContentDisplayEvent event) {
+	public void onEventMainThread(WebContentDisplayEvent event) {
 		if (!isValidEvent(event)) {
 			return;
 		}
@@ -81,6 +82,11 @@ public class WebContentDisplayInteractorImpl
 		getListener().onWebContentFailure(null, event.getException());
 	}
 
+	@Override
+	protected void notifyCacheError(Exception e, Object... args) {
+		getListener().onWebContentFailure(null, e);
+	}
+
 	@Override
 	protected boolean cached(Object[] args) {
 
@@ -92,8 +98,11 @@ public class WebContentDisplayInteractorImpl
 		String id = articleId + (templateId == null || templateId == 0 ? "" : templateId);
 		Long userId = null;
 		TableCache webContent = (TableCache) CacheSQL.getInstance().getById(DefaultCachedType.WEB_CONTENT, id, groupId, userId, locale);
-		if (webContent != null) {
-			onEvent(new WebContentDisplayEvent(getTargetScreenletId(), groupId, articleId, locale, templateId, webContent.getContent()));
+		if (webContent != null && !isExpired(webContent)) {
+			WebContentDisplayEvent event = new WebContentDisplayEvent(getTargetScreenletId(), groupId, articleId,
+				locale, templateId, webContent.getContent());
+			event.setCached(true);
+			EventBusUtil.post(event);
 			return true;
 		}
 		return false;
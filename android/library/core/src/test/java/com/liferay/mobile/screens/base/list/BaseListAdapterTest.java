@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.base.list;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class BaseListAdapterTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenRefreshingAPage {
+
+		@Test
+		public void shouldNotChangeTheSameEntries() throws Exception {
+			List<int[]> changedRanges = _adapter.getChangedRanges(
+				Arrays.asList("1:a", "2:b", "3:c"), Arrays.asList("1:a", "2:b", "3:c"));
+
+			assertTrue(changedRanges.isEmpty());
+		}
+
+		@Test
+		public void shouldChangeTheEntriesWithNewContent() throws Exception {
+			List<int[]> changedRanges = _adapter.getChangedRanges(
+				Arrays.asList("1:a", "2:b", "3:c", "4:d"), Arrays.asList("1:a", "2:B", "3:C", "4:d"));
+
+			assertEquals(1, changedRanges.size());
+			assertEquals(1, changedRanges.get(0)[0]);
+			assertEquals(2, changedRanges.get(0)[1]);
+		}
+
+		@Test
+		public void shouldChangeTheMovedAndNewEntries() throws Exception {
+			List<int[]> changedRanges = _adapter.getChangedRanges(
+				Arrays.asList("1:a", "2:b", "3:c", "4:d"), Arrays.asList("1:a", "3:c", "2:b", "4:d", "5:e"));
+
+			assertEquals(2, changedRanges.size());
+			assertEquals(1, changedRanges.get(0)[0]);
+			assertEquals(2, changedRanges.get(0)[1]);
+			assertEquals(4, changedRanges.get(1)[0]);
+			assertEquals(1, changedRanges.get(1)[1]);
+		}
+
+		private final BaseListAdapter<String, BaseListAdapter.ViewHolder> _adapter =
+			new BaseListAdapter<String, BaseListAdapter.ViewHolder>(0, 0, null) {
+
+				@Override
+				protected Object getEntryId(String entry) {
+					return entry.split(":")[0];
+				}
+
+				@Override
+				protected void fillHolder(String entry, ViewHolder holder) {
+				}
+			};
+
+	}
+
+}
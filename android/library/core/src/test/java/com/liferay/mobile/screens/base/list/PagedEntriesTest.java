@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.base.list;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class PagedEntriesTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenLoadingPages {
+
+		@Before
+		public void setUp() {
+			_entries = new PagedEntries<>(50, 25);
+			_entries.setRowCount(200000);
+		}
+
+		@Test
+		public void shouldHaveAPositionPerRowWithoutLoadingThem() throws Exception {
+			assertEquals(200000, _entries.size());
+			assertEquals(0, _entries.getLoadedRows());
+			assertNull(_entries.get(199999));
+		}
+
+		@Test
+		public void shouldStoreThePageInItsRows() throws Exception {
+			_entries.setPage(2, createPage(75, 25));
+
+			assertTrue(_entries.isPageLoaded(2));
+			assertFalse(_entries.isPageLoaded(1));
+			assertEquals("75", _entries.get(75));
+			assertEquals("99", _entries.get(99));
+			assertNull(_entries.get(74));
+			assertEquals(25, _entries.getLoadedRows());
+			assertEquals(80, _entries.indexOf("80"));
+		}
+
+		@Test
+		public void shouldEvictThePagesFarthestFromTheVisibleRow() throws Exception {
+			_entries.setMaxLoadedRows(100);
+
+			_entries.setPage(0, createPage(0, 50));
+			_entries.setVisibleRow(80);
+			_entries.setPage(1, createPage(50, 25));
+			_entries.setPage(2, createPage(75, 25));
+			_entries.setPage(3, createPage(100, 25));
+
+			assertFalse(_entries.isPageLoaded(0));
+			assertTrue(_entries.isPageLoaded(1));
+			assertTrue(_entries.isPageLoaded(2));
+			assertTrue(_entries.isPageLoaded(3));
+			assertNull(_entries.get(0));
+			assertEquals(75, _entries.getLoadedRows());
+		}
+
+		@Test
+		public void shouldKeepTheLoadedRowsWhenThePageSizesChange() throws Exception {
+			_entries.setPage(1, createPage(50, 25));
+
+			_entries.setPageSizes(10, 10);
+
+			assertEquals("50", _entries.get(50));
+			assertEquals("74", _entries.get(74));
+			assertEquals(25, _entries.getLoadedRows());
+		}
+
+		@Test
+		public void shouldDiscardTheRowsBeyondTheRowCount() throws Exception {
+			_entries.setPage(2, createPage(75, 25));
+
+			_entries.setRowCount(80);
+
+			assertEquals(80, _entries.size());
+			assertEquals(5, _entries.getLoadedRows());
+			assertEquals("79", _entries.get(79));
+		}
+
+		private List<String> createPage(int firstRow, int size) {
+			List<String> page = new ArrayList<>();
+			for (int i = firstRow; i < firstRow + size; i++) {
+				page.add(String.valueOf(i));
+			}
+			return page;
+		}
+
+		private PagedEntries<String> _entries;
+
+	}
+
+}
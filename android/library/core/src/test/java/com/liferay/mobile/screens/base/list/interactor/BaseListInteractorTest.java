@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.base.list.interactor;
+
+import android.util.Pair;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class BaseListInteractorTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenBatchingTheRequestedPages {
+
+		@Test
+		public void shouldMergeTheAdjacentPages() throws Exception {
+			List<Pair<Integer, Integer>> ranges = BaseListInteractor.mergeRanges(Arrays.asList(
+				new Pair<>(75, 100), new Pair<>(50, 75), new Pair<>(100, 125)));
+
+			assertEquals(1, ranges.size());
+			assertEquals(50, (int) ranges.get(0).first);
+			assertEquals(125, (int) ranges.get(0).second);
+		}
+
+		@Test
+		public void shouldKeepTheGapsBetweenPages() throws Exception {
+			List<Pair<Integer, Integer>> ranges = BaseListInteractor.mergeRanges(Arrays.asList(
+				new Pair<>(150, 175), new Pair<>(0, 50), new Pair<>(50, 75)));
+
+			assertEquals(2, ranges.size());
+			assertEquals(0, (int) ranges.get(0).first);
+			assertEquals(75, (int) ranges.get(0).second);
+			assertEquals(150, (int) ranges.get(1).first);
+			assertEquals(175, (int) ranges.get(1).second);
+		}
+
+	}
+
+}
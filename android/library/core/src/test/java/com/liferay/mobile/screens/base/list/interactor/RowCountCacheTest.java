@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.base.list.interactor;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class RowCountCacheTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenCachingTheRowCount {
+
+		@Before
+		public void setUp() {
+			RowCountCache.clear();
+		}
+
+		@After
+		public void tearDown() {
+			RowCountCache.setMaxAge(RowCountCache.DEFAULT_MAX_AGE);
+		}
+
+		@Test
+		public void shouldReturnTheCountOfTheSameList() throws Exception {
+			RowCountCache.put("list", 200);
+
+			assertEquals(200, (int) RowCountCache.get("list"));
+			assertNull(RowCountCache.get("otherList"));
+		}
+
+		@Test
+		public void shouldNotReturnTheStaleCounts() throws Exception {
+			RowCountCache.put("list", 200);
+
+			RowCountCache.setMaxAge(-1);
+
+			assertNull(RowCountCache.get("list"));
+		}
+
+		@Test
+		public void shouldNotReturnTheInvalidatedCounts() throws Exception {
+			RowCountCache.put("list", 200);
+
+			RowCountCache.invalidate("list");
+
+			assertNull(RowCountCache.get("list"));
+		}
+
+	}
+
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.base.upload;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class UploadQueueTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenQueueingUploads {
+
+		@Before
+		public void setUp() {
+			UploadQueue.setParallelism(1);
+		}
+
+		@After
+		public void tearDown() {
+			_blocker.countDown();
+			UploadQueue.setParallelism(UploadQueue.DEFAULT_PARALLELISM);
+		}
+
+		@Test
+		public void shouldStartTheVisibleAndSmallUploadsFirst() throws Exception {
+			UploadQueue.submit(new BlockingTask(1));
+
+			CountDownLatch finished = new CountDownLatch(4);
+			UploadQueue.submit(new TestTask(1, "attachment", UploadQueue.PRIORITY_BULK, 10, finished));
+			UploadQueue.submit(new TestTask(1, "large", UploadQueue.PRIORITY_DEFAULT, 50 * 1024 * 1024, finished));
+			UploadQueue.submit(new TestTask(1, "small", UploadQueue.PRIORITY_DEFAULT, 1024, finished));
+			UploadQueue.submit(new TestTask(1, "portrait", UploadQueue.PRIORITY_USER_VISIBLE, 100 * 1024, finished));
+
+			_blocker.countDown();
+			assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+			assertEquals(Arrays.asList("portrait", "small", "large", "attachment"), _uploaded);
+		}
+
+		@Test
+		public void shouldCancelTheUploadsOfAScreenlet() throws Exception {
+			UploadQueue.submit(new BlockingTask(2));
+
+			CountDownLatch finished = new CountDownLatch(1);
+			UploadQueue.submit(new TestTask(2, "cancelled", UploadQueue.PRIORITY_DEFAULT, 10, finished));
+			UploadQueue.submit(new TestTask(3, "other screenlet", UploadQueue.PRIORITY_DEFAULT, 10, finished));
+
+			assertEquals(2, UploadQueue.cancel(2));
+
+			_blocker.countDown();
+			assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+			assertEquals(Collections.singletonList("other screenlet"), _uploaded);
+		}
+
+		@Test
+		public void shouldRunSeveralUploadsAtTheSameTime() throws Exception {
+			UploadQueue.setParallelism(3);
+
+			final AtomicInteger running = new AtomicInteger();
+			final AtomicInteger maxRunning = new AtomicInteger();
+			final CountDownLatch finished = new CountDownLatch(6);
+
+			for (int i = 0; i < 6; i++) {
+				UploadQueue.submit(new UploadTask(4, UploadQueue.PRIORITY_DEFAULT, 10) {
+					@Override
+					protected void upload() {
+						int current = running.incrementAndGet();
+						synchronized (maxRunning) {
+							maxRunning.set(Math.max(maxRunning.get(), current));
+						}
+						sleep(50);
+						running.decrementAndGet();
+						finished.countDown();
+					}
+				});
+			}
+
+			assertTrue(finished.await(5, TimeUnit.SECONDS));
+			assertEquals(3, maxRunning.get());
+		}
+
+		private class BlockingTask extends UploadTask {
+
+			BlockingTask(int targetScreenletId) {
+				super(targetScreenletId, UploadQueue.PRIORITY_BULK, Long.MAX_VALUE);
+			}
+
+			@Override
+			protected void upload() {
+				try {
+					_blocker.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		private class TestTask extends UploadTask {
+
+			TestTask(int targetScreenletId, String name, int priority, long sizeInBytes, CountDownLatch finished) {
+				super(targetScreenletId, priority, sizeInBytes);
+
+				_name = name;
+				_finished = finished;
+			}
+
+			@Override
+			protected void upload() {
+				_uploaded.add(_name);
+				_finished.countDown();
+			}
+
+			private final String _name;
+			private final CountDownLatch _finished;
+		}
+
+		private final CountDownLatch _blocker = new CountDownLatch(1);
+		private final List<String> _uploaded = Collections.synchronizedList(new ArrayList<String>());
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.liferay.mobile.screens.cache.sql;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+import com.liferay.mobile.screens.cache.CachedType;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+import com.liferay.mobile.screens.cache.tablecache.TableCacheStrategy;
+import com.liferay.mobile.screens.context.LiferayScreensContext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static com.liferay.mobile.screens.cache.DefaultCachedType.USER_PORTRAIT_UPLOAD;
+import static com.liferay.mobile.screens.cache.DefaultCachedType.WEB_CONTENT;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class CacheCompactorTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenCompactingTheCache {
+
+		@Before
+		public void setUp() {
+			LiferayScreensContext.init(RuntimeEnvironment.application);
+
+			_strategy = new TableCacheStrategy(WEB_CONTENT);
+			_strategy.clear();
+		}
+
+		@After
+		public void tearDown() {
+			CacheCompactor.setMaxAge(WEB_CONTENT, CacheCompactor.NO_LIMIT);
+			CacheCompactor.setMaxAge(USER_PORTRAIT_UPLOAD, CacheCompactor.NO_LIMIT);
+			CacheCompactor.setMaxSize(CacheCompactor.NO_LIMIT);
+		}
+
+		@Test
+		public void shouldDeleteTheExpiredRows() throws Exception {
+			store("old", WEB_CONTENT, "content", DAY * 2, false);
+			store("new", WEB_CONTENT, "content", 0, false);
+
+			CacheCompactor.setMaxAge(WEB_CONTENT, DAY);
+
+			assertEquals(1, CacheCompactor.compact());
+			assertNull(_strategy.getById("old"));
+			assertNotNull(_strategy.getById("new"));
+		}
+
+		@Test
+		public void shouldNeverDeleteTheDirtyRows() throws Exception {
+			store("pending", USER_PORTRAIT_UPLOAD, "content", DAY * 2, true);
+
+			CacheCompactor.setMaxAge(USER_PORTRAIT_UPLOAD, DAY);
+			CacheCompactor.setMaxSize(1);
+
+			assertEquals(0, CacheCompactor.compact());
+			assertNotNull(new TableCacheStrategy(USER_PORTRAIT_UPLOAD).getById("pending"));
+		}
+
+		@Test
+		public void shouldEvictTheLeastRecentlyUsedRowsOverTheBudget() throws Exception {
+			for (int i = 0; i < ROWS; i++) {
+				store(String.valueOf(i), WEB_CONTENT, CONTENT, ROWS - i, false);
+			}
+
+			CacheCompactor.setMaxSize(CONTENT.length() * ROWS / 2);
+
+			int deleted = CacheCompactor.compact();
+
+			assertTrue(StorIOSQLite.queryLong(CacheCompactor.SELECT_SIZE) <= CacheCompactor.getMaxSize());
+			assertTrue(deleted >= ROWS / 2);
+			assertNull(_strategy.getById("0"));
+			assertNotNull(_strategy.getById(String.valueOf(ROWS - 1)));
+		}
+
+		@Test
+		public void shouldExpireTheRowsOlderThanTheMaxAge() throws Exception {
+			TableCache tableCache = new TableCache("id", WEB_CONTENT, "content");
+			tableCache.setDate(System.currentTimeMillis() - DAY * 2);
+
+			assertFalse(CacheCompactor.isExpired(tableCache));
+
+			CacheCompactor.setMaxAge(WEB_CONTENT, DAY);
+
+			assertTrue(CacheCompactor.isExpired(tableCache));
+		}
+
+		private void store(String id, CachedType cachedType, String content,
+						   long age, boolean dirty) {
+			TableCache tableCache = new TableCache(id, cachedType, content);
+			long date = System.currentTimeMillis() - age;
+			tableCache.setDate(date);
+			tableCache.setLastAccess(date);
+			tableCache.setDirty(dirty);
+			CacheSQL.querySet(tableCache);
+		}
+
+		private static final long DAY = 24 * 60 * 60 * 1000;
+		private static final int ROWS = 500;
+		private static final String CONTENT = "<p>Lorem ipsum dolor sit amet, consectetur adipiscing elit</p>";
+
+		private TableCacheStrategy _strategy;
+	}
+
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.cache.sql;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+import com.liferay.mobile.screens.base.list.interactor.BaseListInteractor;
+import com.liferay.mobile.screens.cache.CacheSyncService;
+import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCache;
+import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCacheStrategy;
+import com.liferay.mobile.screens.cache.ddl.form.DDLFormCacheStrategy;
+import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
+import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCacheStrategy;
+import com.liferay.mobile.screens.cache.ddl.form.resolvers.DDLRecordPutResolver;
+import com.liferay.mobile.screens.cache.tablecache.ListRowCache;
+import com.liferay.mobile.screens.cache.tablecache.ListRowCacheStrategy;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+import com.liferay.mobile.screens.cache.tablecache.TableCacheStrategy;
+import com.liferay.mobile.screens.cache.userportrait.UserPortraitCacheStrategy;
+import com.liferay.mobile.screens.context.LiferayScreensContext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_LIST;
+import static com.liferay.mobile.screens.cache.DefaultCachedType.WEB_CONTENT;
+import static junit.framework.Assert.assertFalse;
+
+/**
+ * Checks the query plan of the selections used by the cache, read from the strategies,
+ * resolvers and services that build them, none of them should need a full table scan.
+ *
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class CacheQueryPlanTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenQueryingTheCache {
+
+		@Before
+		public void setUp() {
+			LiferayScreensContext.init(RuntimeEnvironment.application);
+
+			_db = new ScreensSQLiteOpenHelper().getWritableDatabase();
+		}
+
+		@After
+		public void tearDown() {
+			_db.close();
+		}
+
+		@Test
+		public void shouldUseAnIndexWhenGettingATableCacheById() throws Exception {
+			assertNoFullScan(TableCache.TABLE_NAME, TableCacheStrategy.WHERE_BY_SCOPE_AND_ID);
+		}
+
+		@Test
+		public void shouldUseAnIndexWhenRecoveringListRows() throws Exception {
+			assertNoFullScan(ListRowCache.TABLE_NAME, TableCacheStrategy.getWhere(BaseListInteractor.PAGE_QUERY)
+				+ " ORDER BY " + ListRowCache.ROW_INDEX);
+			assertNoFullScan(ListRowCache.TABLE_NAME,
+				TableCacheStrategy.getWhere(ListRowCacheStrategy.WHERE_BY_SCOPE_AND_ROW));
+		}
+
+		@Test
+		public void shouldUseAnIndexWhenLookingForDirtyPortraits() throws Exception {
+			assertNoFullScan(TableCache.TABLE_NAME, TableCacheStrategy.getWhere(CacheSyncService.WHERE_DIRTY_PORTRAITS));
+		}
+
+		@Test
+		public void shouldUseAnIndexWhenGettingByPrimaryKey() throws Exception {
+			assertNoFullScanById(new TableCacheStrategy(WEB_CONTENT));
+			assertNoFullScanById(new ListRowCacheStrategy(DDL_LIST));
+			assertNoFullScanById(new DDLFormCacheStrategy());
+			assertNoFullScanById(new DDLRecordCacheStrategy());
+			assertNoFullScanById(new DocumentUploadCacheStrategy());
+			assertNoFullScanById(new UserPortraitCacheStrategy());
+		}
+
+		@Test
+		public void shouldUseAnIndexWhenGettingScopedRecordsAndDocuments() throws Exception {
+			assertNoFullScan(DDLRecordCache.TABLE_NAME, DDLRecordCacheStrategy.WHERE_BY_ID_AND_GROUP_ID);
+			assertNoFullScan(DocumentUploadCache.TABLE_NAME, DocumentUploadCacheStrategy.WHERE_BY_ID_AND_SCOPE);
+		}
+
+		@Test
+		public void shouldUseAnIndexWhenReplacingTheVersionOfARecord() throws Exception {
+			assertNoFullScan(DDLRecordCache.TABLE_NAME, DDLRecordPutResolver.WHERE_BY_LOCAL_ID);
+			assertNoFullScan(DDLRecordCache.TABLE_NAME, DDLRecordPutResolver.WHERE_BY_RECORD_ID_OR_LOCAL_ID);
+		}
+
+		@Test
+		public void shouldUseAnIndexWhenLookingForDirtyRowsToSync() throws Exception {
+			assertNoFullScan(DocumentUploadCache.TABLE_NAME, CacheSyncService.WHERE_DOCUMENTS_TO_UPLOAD);
+			assertNoFullScan(DDLRecordCache.TABLE_NAME, CacheSyncService.WHERE_RECORDS_TO_SYNC);
+		}
+
+		@Test
+		public void shouldUseAnIndexWhenCompacting() throws Exception {
+			for (String table : new String[]{TableCache.TABLE_NAME, ListRowCache.TABLE_NAME}) {
+				assertNoFullScan(table, CacheCompactor.getWhereExpired(table));
+				assertNoFullScan(table, CacheCompactor.getWhereLeastRecentlyUsed(table));
+			}
+		}
+
+		private void assertNoFullScanById(BaseCacheStrategy strategy) {
+			assertNoFullScan(strategy.getTableName(), strategy.getQueryById());
+		}
+
+		private void assertNoFullScan(String table, String where) {
+			String sql = "EXPLAIN QUERY PLAN SELECT * FROM " + table + " WHERE " + where;
+			int parameters = where.length() - where.replace("?", "").length();
+			String[] args = new String[parameters];
+			Arrays.fill(args, "0");
+
+			Cursor cursor = _db.rawQuery(sql, args);
+			try {
+				while (cursor.moveToNext()) {
+					String detail = cursor.getString(cursor.getColumnIndex("detail"));
+					assertFalse(sql + " -> " + detail, detail.startsWith("SCAN"));
+					assertFalse(sql + " -> " + detail, detail.contains("TEMP B-TREE"));
+				}
+			}
+			finally {
+				cursor.close();
+			}
+		}
+
+		private SQLiteDatabase _db;
+	}
+
+}
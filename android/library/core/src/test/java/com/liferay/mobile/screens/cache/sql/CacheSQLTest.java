@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.cache.sql;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
+import com.liferay.mobile.screens.cache.tablecache.ListRowCache;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+import com.liferay.mobile.screens.context.LiferayScreensContext;
+import com.liferay.mobile.screens.ddl.model.Record;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_LIST;
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_LIST_COUNT;
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_RECORD;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class CacheSQLTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenStoringAListPage {
+
+		@Before
+		public void setUp() {
+			LiferayScreensContext.init(RuntimeEnvironment.application);
+
+			_cache = (CacheSQL<TableCache>) CacheSQL.getInstance();
+			_cache.clear(DDL_LIST);
+		}
+
+		@Test
+		public void shouldStoreTheRowsAndTheCountInOneBatch() throws Exception {
+			DatabaseResult result = _cache.saveAll(createPage("1", 0, PAGE_SIZE));
+
+			assertFalse(result.hasError());
+			assertEquals(PAGE_SIZE, _cache.get(DDL_LIST, "").size());
+			assertEquals(String.valueOf(PAGE_SIZE), _cache.getById(DDL_LIST_COUNT, "1", GROUP_ID, USER_ID, LOCALE).getContent());
+		}
+
+		@Test
+		public void shouldStoreTheSameRowsBatchedAsRowByRow() throws Exception {
+			for (int page = 0; page < PAGES; page++) {
+				for (TableCache row : createPage("rows", page * PAGE_SIZE, PAGE_SIZE)) {
+					CacheSQL.querySet(row);
+				}
+
+				assertFalse(_cache.saveAll(createPage("batch", page * PAGE_SIZE, PAGE_SIZE)).hasError());
+			}
+
+			String byListKey = " AND " + ListRowCache.LIST_KEY + " = ?";
+			List rowByRow = _cache.get(DDL_LIST, byListKey, "rows");
+			List batched = _cache.get(DDL_LIST, byListKey, "batch");
+
+			assertEquals(PAGES * PAGE_SIZE, rowByRow.size());
+			assertEquals(rowByRow.size(), batched.size());
+			for (int i = 0; i < batched.size(); i++) {
+				assertEquals(((ListRowCache) rowByRow.get(i)).getContent(), ((ListRowCache) batched.get(i)).getContent());
+			}
+		}
+
+		private List<TableCache> createPage(String id, int startRow, int rows) {
+			List<TableCache> page = new ArrayList<>();
+			page.add(new TableCache(id, DDL_LIST_COUNT, String.valueOf(rows), GROUP_ID, USER_ID, LOCALE));
+
+			for (int i = startRow; i < startRow + rows; i++) {
+				page.add(new ListRowCache(id, i, DDL_LIST, "{\"row\":" + i + "}", GROUP_ID, USER_ID, LOCALE));
+			}
+			return page;
+		}
+
+		private static final int PAGE_SIZE = 50;
+		private static final int PAGES = 10;
+		private static final Long GROUP_ID = 10184L;
+		private static final Long USER_ID = 10198L;
+		private static final Locale LOCALE = new Locale("en", "US");
+
+		private CacheSQL<TableCache> _cache;
+	}
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenReadingFromMemory {
+
+		@Before
+		public void setUp() {
+			LiferayScreensContext.init(RuntimeEnvironment.application);
+
+			CacheSQL.enableMemoryCache(10 * 1024);
+			_cache = (CacheSQL<TableCache>) CacheSQL.getInstance();
+			_cache.clear(DDL_LIST_COUNT);
+		}
+
+		@After
+		public void tearDown() {
+			CacheSQL.disableMemoryCache();
+		}
+
+		@Test
+		public void shouldUpdateTheLastAccessOfTheHits() throws Exception {
+			CacheSQL.querySet(new TableCache("1", DDL_LIST_COUNT, "10", GROUP_ID, USER_ID, LOCALE));
+
+			TableCache count = _cache.getById(DDL_LIST_COUNT, "1", GROUP_ID, USER_ID, LOCALE);
+			count.setLastAccess(0L);
+
+			assertSame(count, _cache.getById(DDL_LIST_COUNT, "1", GROUP_ID, USER_ID, LOCALE));
+			assertTrue(count.getLastAccess() > 0);
+		}
+
+		private static final Long GROUP_ID = 10184L;
+		private static final Long USER_ID = 10198L;
+		private static final Locale LOCALE = new Locale("en", "US");
+
+		private CacheSQL<TableCache> _cache;
+	}
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenStoringOfflineVersionsOfARecord {
+
+		@Before
+		public void setUp() {
+			LiferayScreensContext.init(RuntimeEnvironment.application);
+
+			_cache = (CacheSQL<DDLRecordCache>) CacheSQL.getInstance();
+			_cache.clear(DDL_RECORD);
+		}
+
+		@Test
+		public void shouldKeepOnlyTheLatestVersionOfANewRecord() throws Exception {
+			Record record = createRecord(0);
+
+			for (int i = 0; i < 5; i++) {
+				_cache.set(new DDLRecordCache(GROUP_ID, record, new JSONObject().put("version", i)));
+			}
+
+			List<DDLRecordCache> records = _cache.get(DDL_RECORD, DDLRecordCache.DIRTY + " = 1");
+			assertEquals(1, records.size());
+			assertEquals(4, records.get(0).getJSONContent().getInt("version"));
+			assertEquals(record.getLocalId(), records.get(0).getLocalId());
+		}
+
+		@Test
+		public void shouldSendTheNextVersionsAsUpdatesOnceTheRecordIsAdded() throws Exception {
+			Record record = createRecord(0);
+			_cache.set(new DDLRecordCache(GROUP_ID, record, new JSONObject().put("version", 0)));
+
+			DDLRecordCache added = (DDLRecordCache) _cache.get(DDL_RECORD, DDLRecordCache.DIRTY + " = 1").get(0);
+			added.setRecordId(RECORD_ID);
+			added.setDirty(false);
+			_cache.set(added);
+
+			_cache.set(new DDLRecordCache(GROUP_ID, record, new JSONObject().put("version", 1)));
+
+			List<DDLRecordCache> records = _cache.get(DDL_RECORD, DDLRecordCache.LOCAL_ID + " = ?", record.getLocalId());
+			assertEquals(1, records.size());
+			assertEquals(RECORD_ID, records.get(0).getRecordId());
+			assertTrue(records.get(0).isDirty());
+		}
+
+		@Test
+		public void shouldNotReplaceAPendingVersionWithAnOlderOne() throws Exception {
+			Record record = createRecord(RECORD_ID);
+			_cache.set(new DDLRecordCache(GROUP_ID, record, new JSONObject().put("version", 0)));
+
+			DDLRecordCache sent = (DDLRecordCache) _cache.get(DDL_RECORD, DDLRecordCache.DIRTY + " = 1").get(0);
+
+			DDLRecordCache edited = new DDLRecordCache(GROUP_ID, record, new JSONObject().put("version", 1));
+			edited.setDateAdded(sent.getDateAdded() + 1);
+			_cache.set(edited);
+
+			sent.setDirty(false);
+			_cache.set(sent);
+
+			DDLRecordCache loaded = new DDLRecordCache(GROUP_ID, record, new JSONObject().put("version", 2));
+			loaded.setDateAdded(sent.getDateAdded() + 2);
+			loaded.setDirty(false);
+			_cache.set(loaded);
+
+			List<DDLRecordCache> records = _cache.get(DDL_RECORD, DDLRecordCache.RECORD_ID + " = ?", RECORD_ID);
+			assertEquals(1, records.size());
+			assertEquals(1, records.get(0).getJSONContent().getInt("version"));
+			assertTrue(records.get(0).isDirty());
+		}
+
+		@Test
+		public void shouldSendTheFieldsChangedInEveryPendingVersion() throws Exception {
+			Record record = createRecord(RECORD_ID);
+
+			DDLRecordCache first = new DDLRecordCache(GROUP_ID, record, new JSONObject().put("a", 1).put("b", 1).put("c", 1));
+			first.setChangedFields("[\"a\"]");
+			_cache.set(first);
+			_cache.flush();
+
+			DDLRecordCache second = new DDLRecordCache(GROUP_ID, record, new JSONObject().put("a", 1).put("b", 2).put("c", 1));
+			second.setChangedFields("[\"b\"]");
+			_cache.set(second);
+
+			DDLRecordCache pending = (DDLRecordCache) _cache.get(DDL_RECORD, DDLRecordCache.DIRTY + " = 1").get(0);
+			JSONObject content = pending.getJSONContentToSync();
+
+			assertEquals(2, content.length());
+			assertEquals(1, content.getInt("a"));
+			assertEquals(2, content.getInt("b"));
+		}
+
+		private Record createRecord(long recordId) {
+			Record record = new Record(new Locale("en"));
+			record.setRecordId(recordId);
+			record.setRecordSetId(1);
+			record.setStructureId(1);
+			return record;
+		}
+
+		private static final long RECORD_ID = 12345;
+		private static final Long GROUP_ID = 10184L;
+
+		private CacheSQL<DDLRecordCache> _cache;
+	}
+
+}
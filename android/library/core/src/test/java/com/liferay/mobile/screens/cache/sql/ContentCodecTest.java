@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.liferay.mobile.screens.cache.sql;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+import com.liferay.mobile.screens.cache.CachedType;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+import com.liferay.mobile.screens.cache.tablecache.TableCacheStrategy;
+import com.liferay.mobile.screens.context.LiferayScreensContext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_FORM;
+import static com.liferay.mobile.screens.cache.DefaultCachedType.WEB_CONTENT;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class ContentCodecTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenEncodingContents {
+
+		@Test
+		public void shouldDecodeTheSameContent() throws Exception {
+			assertEquals(webContent(), ContentCodec.decode(ContentCodec.encode(WEB_CONTENT, webContent())));
+			assertEquals(structure(), ContentCodec.decode(ContentCodec.encode(DDL_FORM, structure())));
+		}
+
+		@Test
+		public void shouldDecodeContentsWithoutDictionary() throws Exception {
+			String content = "áéíóú ñ " + webContent();
+
+			assertEquals(content, ContentCodec.decode(ContentCodec.encode(null, content)));
+		}
+
+		@Test
+		public void shouldBeSmallerThanTheText() throws Exception {
+			assertSmallerThanTheText(WEB_CONTENT, webContent());
+			assertSmallerThanTheText(DDL_FORM, structure());
+		}
+
+		private void assertSmallerThanTheText(CachedType cachedType, String content) {
+			byte[] withDictionary = ContentCodec.encode(cachedType, content);
+			byte[] withoutDictionary = ContentCodec.encode(null, content);
+
+			assertTrue(withDictionary.length < content.length());
+			assertTrue(withoutDictionary.length < content.length());
+		}
+
+	}
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenStoringCompressedContents {
+
+		@Before
+		public void setUp() {
+			LiferayScreensContext.init(RuntimeEnvironment.application);
+
+			_strategy = new TableCacheStrategy(WEB_CONTENT);
+			_strategy.clear();
+		}
+
+		@After
+		public void tearDown() {
+			ContentCodec.disable();
+		}
+
+		@Test
+		public void shouldReadTheContentTransparently() throws Exception {
+			ContentCodec.enable();
+
+			_strategy.set(new TableCache("compressed", WEB_CONTENT, webContent()));
+			_strategy.set(new TableCache("small", WEB_CONTENT, "<p>small</p>"));
+
+			assertEquals(webContent(), _strategy.getById("compressed").getContent());
+			assertEquals("<p>small</p>", _strategy.getById("small").getContent());
+		}
+
+		@Test
+		public void shouldReadTheContentsStoredBeforeEnablingIt() throws Exception {
+			_strategy.set(new TableCache("text", WEB_CONTENT, webContent()));
+
+			ContentCodec.enable();
+
+			assertEquals(webContent(), _strategy.getById("text").getContent());
+		}
+
+		private TableCacheStrategy _strategy;
+	}
+
+	private static String webContent() {
+		StringBuilder html = new StringBuilder("<div class=\"journal-content-article\">");
+		for (int i = 0; i < 20; i++) {
+			html.append("<h2>Section ").append(i).append("</h2>")
+				.append("<p>Liferay Screens are the components of the Liferay mobile apps, <strong>")
+				.append("they connect to the portal</strong> and render the <a href=\"http://www.liferay.com/")
+				.append(i).append("\" target=\"_blank\">contents</a> natively.</p>")
+				.append("<img alt=\"\" src=\"/documents/10184/0/image").append(i).append(".png\" /><br />");
+		}
+		return html.append("</div>").toString();
+	}
+
+	private static String structure() {
+		StringBuilder xsd = new StringBuilder(
+			"<?xml version=\\\"1.0\\\"?>\\n\\n<root available-locales=\\\"en_US\\\" default-locale=\\\"en_US\\\">");
+		for (int i = 0; i < 15; i++) {
+			xsd.append("\\n\\t<dynamic-element dataType=\\\"string\\\" indexType=\\\"keyword\\\" name=\\\"Field")
+				.append(i).append("\\\" readOnly=\\\"false\\\" repeatable=\\\"false\\\" required=\\\"false\\\" ")
+				.append("showLabel=\\\"true\\\" type=\\\"text\\\" width=\\\"small\\\">\\n\\t\\t<meta-data locale=")
+				.append("\\\"en_US\\\">\\n\\t\\t\\t<entry name=\\\"label\\\"><![CDATA[Field ").append(i)
+				.append("]]></entry>\\n\\t\\t\\t<entry name=\\\"predefinedValue\\\"><![CDATA[]]></entry>")
+				.append("\\n\\t\\t</meta-data>\\n\\t</dynamic-element>");
+		}
+		xsd.append("\\n</root>");
+
+		return "{\"classNameId\":10098,\"companyId\":10157,\"createDate\":1440000000000,\"description\":\"\","
+			+ "\"groupId\":10184,\"name\":\"Contact form\",\"parentStructureId\":0,\"storageType\":\"xml\","
+			+ "\"structureId\":11501,\"structureKey\":\"11500\",\"userId\":10198,\"xsd\":\"" + xsd + "\"}";
+	}
+
+}
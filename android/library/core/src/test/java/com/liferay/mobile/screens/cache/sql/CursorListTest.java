@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.liferay.mobile.screens.cache.sql;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+import com.liferay.mobile.screens.cache.tablecache.ListRowCache;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+import com.liferay.mobile.screens.context.LiferayScreensContext;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_LIST;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class CursorListTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenReadingLazily {
+
+		@Before
+		public void setUp() {
+			LiferayScreensContext.init(RuntimeEnvironment.application);
+
+			_cache = (CacheSQL<TableCache>) CacheSQL.getInstance();
+			_cache.clear(DDL_LIST);
+
+			List<TableCache> rows = new ArrayList<>();
+			for (int i = 0; i < ROWS; i++) {
+				rows.add(new ListRowCache("1", i, DDL_LIST, "{\"row\":" + i + "}", null, null, null));
+			}
+			_cache.saveAll(rows);
+		}
+
+		@Test
+		public void shouldReturnTheSameRowsThanTheEagerGet() throws Exception {
+			List<TableCache> eager = _cache.get(DDL_LIST, "");
+			CursorList<TableCache> lazy = _cache.getLazy(DDL_LIST, "");
+
+			try {
+				assertEquals(eager.size(), lazy.size());
+
+				for (int i = 0; i < ROWS; i++) {
+					assertEquals(eager.get(i).getId(), lazy.get(i).getId());
+					assertEquals(eager.get(i).getContent(), lazy.get(i).getContent());
+					assertEquals(DDL_LIST, lazy.get(i).getCachedType());
+				}
+			}
+			finally {
+				lazy.close();
+			}
+		}
+
+		@Test
+		public void shouldMapTheRowsOnlyWhenRequested() throws Exception {
+			CursorList<TableCache> lazy = _cache.getLazy(DDL_LIST, "");
+
+			try {
+				assertNotSame(lazy.get(0), lazy.get(0));
+			}
+			finally {
+				lazy.close();
+			}
+
+			assertTrue(lazy.isClosed());
+		}
+
+		@Test(expected = IndexOutOfBoundsException.class)
+		public void shouldFailOutsideTheRows() throws Exception {
+			CursorList<TableCache> lazy = _cache.getLazy(DDL_LIST, "");
+
+			try {
+				lazy.get(ROWS);
+			}
+			finally {
+				lazy.close();
+			}
+		}
+
+		private static final int ROWS = 200;
+
+		private CacheSQL<TableCache> _cache;
+	}
+
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.cache.sql;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Locale;
+
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_FORM;
+import static com.liferay.mobile.screens.cache.DefaultCachedType.WEB_CONTENT;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class MemoryCacheTest {
+
+	@Config(constants = BuildConfig.class)
+	@RunWith(RobolectricTestRunner.class)
+	public static class WhenReadingAndWriting {
+
+		@Test
+		public void shouldCountHitsAndMissesByType() throws Exception {
+			MemoryCache memoryCache = new MemoryCache(10 * 1024);
+			TableCache article = createArticle("1", "<p>article</p>");
+
+			String key = createKey("1");
+			memoryCache.get(WEB_CONTENT, key);
+			memoryCache.put(key, article);
+
+			assertSame(article, memoryCache.get(WEB_CONTENT, key));
+			assertEquals(1, memoryCache.getHitCount(WEB_CONTENT));
+			assertEquals(1, memoryCache.getMissCount(WEB_CONTENT));
+			assertEquals(0, memoryCache.getMissCount(DDL_FORM));
+		}
+
+		@Test
+		public void shouldReplaceTheObjectsAlreadyInMemoryWhenWriting() throws Exception {
+			MemoryCache memoryCache = new MemoryCache(10 * 1024);
+
+			memoryCache.put(createKey("1"), createArticle("1", "old"));
+
+			TableCache newArticle = createArticle("1", "new");
+			memoryCache.update(createKey("1"), newArticle);
+
+			assertSame(newArticle, memoryCache.get(WEB_CONTENT, createKey("1")));
+		}
+
+		@Test
+		public void shouldNotStoreObjectsThatWereNotReadBeforeWhenWriting() throws Exception {
+			MemoryCache memoryCache = new MemoryCache(10 * 1024);
+
+			memoryCache.update(createKey("1"), createArticle("1", "content"));
+
+			assertEquals(0, memoryCache.size());
+		}
+
+		@Test
+		public void shouldEvictTheLeastRecentlyUsedWhenFull() throws Exception {
+			String content = new String(new char[400]);
+			MemoryCache memoryCache = new MemoryCache(2 * 1024);
+
+			memoryCache.put(createKey("1"), createArticle("1", content));
+			memoryCache.put(createKey("2"), createArticle("2", content));
+			memoryCache.get(WEB_CONTENT, createKey("1"));
+			memoryCache.put(createKey("3"), createArticle("3", content));
+
+			assertNull(memoryCache.get(WEB_CONTENT, createKey("2")));
+			assertEquals(2, memoryCache.size());
+		}
+
+		@Test
+		public void shouldRemoveEveryKeyOfAnId() throws Exception {
+			MemoryCache memoryCache = new MemoryCache(10 * 1024);
+
+			memoryCache.put(createKey("1"), createArticle("1", "content"));
+			memoryCache.put(MemoryCache.createKey(WEB_CONTENT, "1", GROUP_ID, USER_ID, "es_ES"),
+				createArticle("1", "contenido"));
+
+			memoryCache.remove(WEB_CONTENT, "1");
+
+			assertEquals(0, memoryCache.size());
+		}
+
+		private TableCache createArticle(String id, String content) {
+			return new TableCache(id, WEB_CONTENT, content, GROUP_ID, USER_ID, new Locale("en", "US"));
+		}
+
+		private String createKey(String id) {
+			return MemoryCache.createKey(WEB_CONTENT, id, GROUP_ID, USER_ID, "en_US");
+		}
+
+		private static final Long GROUP_ID = 10184L;
+		private static final Long USER_ID = 10198L;
+	}
+
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.cache.sql;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.cache.ddl.documentupload.DocumentUploadCache;
+import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
+import com.liferay.mobile.screens.cache.sql.migration.Migration;
+import com.liferay.mobile.screens.cache.tablecache.ListRowCache;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class MigrationTest {
+
+	@Config(constants = BuildConfig.class)
+	@RunWith(RobolectricTestRunner.class)
+	public static class WhenUpgradingAPopulatedDatabase {
+
+		@Before
+		public void setUp() {
+			_db = SQLiteDatabase.create(null);
+
+			ScreensSQLiteOpenHelper.createTable(_db);
+
+			populate(_db);
+		}
+
+		@After
+		public void tearDown() {
+			_db.close();
+		}
+
+		@Test
+		public void shouldKeepTheCachedContentsAndTheDirtyRows() throws Exception {
+			ScreensSQLiteOpenHelper.migrate(_db, 1, ScreensSQLiteOpenHelper.DB_VERSION);
+
+			assertEquals(1, count(TableCache.TABLE_NAME, null));
+			assertEquals(1, count(TableCache.TABLE_NAME,
+				TableCache.TYPE + " = 'USER_PORTRAIT_UPLOAD' AND " + TableCache.DIRTY + " = 1"));
+			assertEquals(CACHED_ROWS, count(ListRowCache.TABLE_NAME, null));
+			assertEquals(CACHED_ROWS, count(ListRowCache.TABLE_NAME, TableCache.LAST_ACCESS + " = " + TableCache.DATE));
+			assertEquals(1, count(ListRowCache.TABLE_NAME,
+				ListRowCache.LIST_KEY + " = '1' AND " + ListRowCache.ROW_INDEX + " = " + (CACHED_ROWS - 1)));
+			assertEquals(DIRTY_ROWS, count(DDLRecordCache.TABLE_NAME, DDLRecordCache.DIRTY + " = 1"));
+			assertEquals(DIRTY_ROWS, count(DocumentUploadCache.TABLE_NAME, DocumentUploadCache.DIRTY + " = 1"));
+		}
+
+		@Test
+		public void shouldKeepOnlyThePendingVersionOfEachRecord() throws Exception {
+			insertRecord(1, 1000, 0);
+			insertRecord(2, 1000, 1);
+			insertRecord(0, 1000, 1);
+
+			ScreensSQLiteOpenHelper.migrate(_db, 1, ScreensSQLiteOpenHelper.DB_VERSION);
+
+			assertEquals(1, count(DDLRecordCache.TABLE_NAME, DDLRecordCache.RECORD_ID + " = 1"));
+			assertEquals(1, count(DDLRecordCache.TABLE_NAME,
+				DDLRecordCache.RECORD_ID + " = 1 AND " + DDLRecordCache.DIRTY + " = 1"));
+			assertEquals(1, count(DDLRecordCache.TABLE_NAME,
+				DDLRecordCache.RECORD_ID + " = 2 AND " + DDLRecordCache.DATE_ADDED + " = 1000"));
+			assertEquals(2, count(DDLRecordCache.TABLE_NAME,
+				DDLRecordCache.RECORD_ID + " = 0 AND " + DDLRecordCache.LOCAL_ID + " IS NOT NULL"));
+			assertEquals(0, count(DDLRecordCache.TABLE_NAME,
+				DDLRecordCache.RECORD_ID + " != 0 AND " + DDLRecordCache.LOCAL_ID + " IS NOT NULL"));
+		}
+
+		@Test
+		public void shouldApplyEveryMigrationInOrder() throws Exception {
+			int version = 1;
+
+			for (Migration migration : ScreensSQLiteOpenHelper.getMigrations()) {
+				assertEquals(version + 1, migration.getVersion());
+
+				migration.migrate(_db);
+
+				version = migration.getVersion();
+			}
+
+			assertEquals(ScreensSQLiteOpenHelper.DB_VERSION, version);
+		}
+
+		private void populate(SQLiteDatabase db) {
+			db.beginTransaction();
+			try {
+				for (int i = 0; i < CACHED_ROWS; i++) {
+					db.execSQL("INSERT INTO " + TableCache.TABLE_NAME + " ("
+							+ TableCache.ID + ", " + TableCache.TYPE + ", " + TableCache.CONTENT + ", "
+							+ TableCache.DATE + ", " + TableCache.USER_ID + ", " + TableCache.GROUP_ID + ", "
+							+ TableCache.LOCALE + ", " + TableCache.DIRTY + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+						new Object[]{String.format("1_%05d", i), "DDL_LIST", "{\"row\":" + i + "}",
+							System.currentTimeMillis(), 10198, 10184, "en_US", 0});
+				}
+
+				db.execSQL("INSERT INTO " + TableCache.TABLE_NAME + " ("
+						+ TableCache.ID + ", " + TableCache.TYPE + ", " + TableCache.CONTENT + ", "
+						+ TableCache.DATE + ", " + TableCache.USER_ID + ", " + TableCache.GROUP_ID + ", "
+						+ TableCache.LOCALE + ", " + TableCache.DIRTY + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+					new Object[]{"10198", "USER_PORTRAIT_UPLOAD", "/sdcard/portrait.jpg",
+						System.currentTimeMillis(), 10198, 10184, "en_US", 1});
+
+				for (int i = 0; i < DIRTY_ROWS; i++) {
+					db.execSQL("INSERT INTO " + DDLRecordCache.TABLE_NAME + " ("
+							+ DDLRecordCache.RECORD_ID + ", " + DDLRecordCache.RECORD_SET_ID + ", "
+							+ DDLRecordCache.STRUCTURE_ID + ", " + DDLRecordCache.LOCALE + ", "
+							+ DDLRecordCache.CONTENT + ", " + DDLRecordCache.GROUP_ID + ", "
+							+ DDLRecordCache.DATE_ADDED + ", " + DDLRecordCache.DIRTY + ") "
+							+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+						new Object[]{i, 1, 1, "en", "{\"field\":" + i + "}", 10184, i, 1});
+
+					db.execSQL("INSERT INTO " + DocumentUploadCache.TABLE_NAME + " ("
+							+ DocumentUploadCache.PATH + ", " + DocumentUploadCache.USER_ID + ", "
+							+ DocumentUploadCache.GROUP_ID + ", " + DocumentUploadCache.REPOSITORY_ID + ", "
+							+ DocumentUploadCache.FOLDER_ID + ", " + DocumentUploadCache.FILE_PREFIX + ", "
+							+ DocumentUploadCache.DIRTY + ") VALUES (?, ?, ?, ?, ?, ?, ?)",
+						new Object[]{"/sdcard/file" + i + ".jpg", 10198, 10184, 10184, 0, "prefix", 1});
+				}
+				db.setTransactionSuccessful();
+			}
+			finally {
+				db.endTransaction();
+			}
+		}
+
+		private void insertRecord(long recordId, long dateAdded, int dirty) {
+			_db.execSQL("INSERT INTO " + DDLRecordCache.TABLE_NAME + " ("
+					+ DDLRecordCache.RECORD_ID + ", " + DDLRecordCache.RECORD_SET_ID + ", "
+					+ DDLRecordCache.STRUCTURE_ID + ", " + DDLRecordCache.LOCALE + ", "
+					+ DDLRecordCache.CONTENT + ", " + DDLRecordCache.GROUP_ID + ", "
+					+ DDLRecordCache.DATE_ADDED + ", " + DDLRecordCache.DIRTY + ") "
+					+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+				new Object[]{recordId, 1, 1, "en", "{\"field\":" + dateAdded + "}", 10184, dateAdded, dirty});
+		}
+
+		private long count(String table, String where) {
+			return DatabaseUtils.queryNumEntries(_db, table, where);
+		}
+
+		private static final int CACHED_ROWS = 5000;
+		private static final int DIRTY_ROWS = 100;
+
+		private SQLiteDatabase _db;
+	}
+
+}
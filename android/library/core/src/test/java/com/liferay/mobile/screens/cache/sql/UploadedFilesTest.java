@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.liferay.mobile.screens.cache.sql;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+import com.liferay.mobile.screens.context.LiferayScreensContext;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class UploadedFilesTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenUploadingTheSameFileAgain {
+
+		@Before
+		public void setUp() {
+			LiferayScreensContext.init(RuntimeEnvironment.application);
+
+			UploadedFiles.clear();
+		}
+
+		@Test
+		public void shouldHashFilesWithTheSameContentEqually() throws Exception {
+			String hash = UploadedFiles.hash(createFile("first", "content"));
+
+			assertEquals(hash, UploadedFiles.hash(createFile("second", "content")));
+			assertFalse(hash.equals(UploadedFiles.hash(createFile("third", "other content"))));
+		}
+
+		@Test
+		public void shouldFindTheResultOfTheFirstUpload() throws Exception {
+			String hash = UploadedFiles.hash(createFile("document", "content"));
+			String scope = UploadedFiles.getDocumentScope(10, 20);
+
+			UploadedFiles.put(hash, scope, new JSONObject().put("fileEntryId", 30));
+
+			assertEquals(30, UploadedFiles.find(hash, scope).getLong("fileEntryId"));
+		}
+
+		@Test
+		public void shouldNotReuseTheUploadsOfOtherFolders() throws Exception {
+			String hash = UploadedFiles.hash(createFile("document", "content"));
+
+			UploadedFiles.put(hash, UploadedFiles.getDocumentScope(10, 20), new JSONObject().put("fileEntryId", 30));
+
+			assertNull(UploadedFiles.find(hash, UploadedFiles.getDocumentScope(10, 21)));
+		}
+
+		@Test
+		public void shouldKeepOnlyTheLastPortraitOfTheUser() throws Exception {
+			String scope = UploadedFiles.getPortraitScope(10);
+			String firstHash = UploadedFiles.hash(createFile("first", "first portrait"));
+			String secondHash = UploadedFiles.hash(createFile("second", "second portrait"));
+
+			UploadedFiles.replace(firstHash, scope, new JSONObject().put("portraitId", 1));
+			UploadedFiles.replace(secondHash, scope, new JSONObject().put("portraitId", 2));
+
+			assertNull(UploadedFiles.find(firstHash, scope));
+			assertEquals(2, UploadedFiles.find(secondHash, scope).getLong("portraitId"));
+		}
+
+		@Test
+		public void shouldForgetAStaleUploadOnlyInItsScope() throws Exception {
+			String hash = UploadedFiles.hash(createFile("document", "content"));
+			String scope = UploadedFiles.getDocumentScope(10, 20);
+			String otherScope = UploadedFiles.getDocumentScope(10, 21);
+
+			UploadedFiles.put(hash, scope, new JSONObject().put("fileEntryId", 30));
+			UploadedFiles.put(hash, otherScope, new JSONObject().put("fileEntryId", 31));
+
+			assertEquals(1, UploadedFiles.remove(hash, scope));
+			assertNull(UploadedFiles.find(hash, scope));
+			assertEquals(31, UploadedFiles.find(hash, otherScope).getLong("fileEntryId"));
+		}
+
+		private File createFile(String name, String content) throws IOException {
+			File file = File.createTempFile(name, ".txt");
+			file.deleteOnExit();
+
+			FileOutputStream outputStream = new FileOutputStream(file);
+			try {
+				outputStream.write(content.getBytes("UTF-8"));
+			}
+			finally {
+				outputStream.close();
+			}
+			return file;
+		}
+
+	}
+
+}
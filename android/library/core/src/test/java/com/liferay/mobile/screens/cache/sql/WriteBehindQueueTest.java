@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.liferay.mobile.screens.cache.sql;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+import com.liferay.mobile.screens.cache.tablecache.TableCache;
+import com.liferay.mobile.screens.context.LiferayScreensContext;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.liferay.mobile.screens.cache.DefaultCachedType.USER_PORTRAIT_UPLOAD;
+import static com.liferay.mobile.screens.cache.DefaultCachedType.WEB_CONTENT;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class WriteBehindQueueTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenWritingInBursts {
+
+		@Before
+		public void setUp() {
+			LiferayScreensContext.init(RuntimeEnvironment.application);
+
+			_batches = Collections.synchronizedList(new ArrayList<List<TableCache>>());
+			_queue = new WriteBehindQueue<>(new WriteBehindQueue.Writer<TableCache>() {
+				@Override
+				public void write(List<TableCache> objects) {
+					_batches.add(objects);
+				}
+			}, MAX_BATCH_SIZE, 60 * 1000);
+		}
+
+		@Test
+		public void shouldStoreOnlyTheLastWriteOfTheSameObject() throws Exception {
+			for (int i = 0; i < 10; i++) {
+				_queue.add(new TableCache("1", USER_PORTRAIT_UPLOAD, "/sdcard/portrait" + i + ".jpg"));
+			}
+
+			_queue.flush();
+
+			assertEquals(1, _batches.size());
+			assertEquals(1, _batches.get(0).size());
+			assertEquals("/sdcard/portrait9.jpg", _batches.get(0).get(0).getContent());
+		}
+
+		@Test
+		public void shouldNotCoalesceDifferentObjects() throws Exception {
+			_queue.add(new TableCache("1", WEB_CONTENT, "content"));
+			_queue.add(new TableCache("2", WEB_CONTENT, "content"));
+			_queue.add(new TableCache("1", USER_PORTRAIT_UPLOAD, "content"));
+
+			_queue.flush();
+
+			assertEquals(3, _batches.get(0).size());
+		}
+
+		@Test
+		public void shouldWriteInBatchesOfTheMaxSize() throws Exception {
+			List<TableCache> objects = new ArrayList<>();
+			for (int i = 0; i < MAX_BATCH_SIZE * 2 + 1; i++) {
+				objects.add(new TableCache(String.valueOf(i), WEB_CONTENT, "content"));
+			}
+
+			_queue.addAll(objects);
+			_queue.flush();
+
+			assertEquals(3, _batches.size());
+			assertEquals(MAX_BATCH_SIZE, _batches.get(0).size());
+			assertEquals(1, _batches.get(2).size());
+			assertTrue(_queue.isEmpty());
+		}
+
+		@Test
+		public void shouldDiscardThePendingWritesOfAType() throws Exception {
+			_queue.add(new TableCache("1", WEB_CONTENT, "content"));
+			_queue.add(new TableCache("1", USER_PORTRAIT_UPLOAD, "content"));
+
+			_queue.discard(WEB_CONTENT);
+			_queue.flush();
+
+			assertEquals(1, _batches.get(0).size());
+			assertEquals(USER_PORTRAIT_UPLOAD, _batches.get(0).get(0).getCachedType());
+		}
+
+		@Test
+		public void shouldMeasureTheWritesSavedWhenRefreshingAPage() throws Exception {
+			int writes = 0;
+			for (int refresh = 0; refresh < 5; refresh++) {
+				for (int i = 0; i < 20; i++) {
+					_queue.add(new TableCache(String.valueOf(i), WEB_CONTENT, "refresh " + refresh));
+					writes++;
+				}
+			}
+
+			_queue.flush();
+
+			int stored = 0;
+			for (List<TableCache> batch : _batches) {
+				stored += batch.size();
+			}
+
+			assertEquals(100, writes);
+			assertEquals(20, stored);
+			assertEquals(1, _batches.size());
+		}
+
+		@Test
+		public void shouldOnlyFlushThePendingWritesOfTheType() throws Exception {
+			_queue.add(new TableCache("1", WEB_CONTENT, "content"));
+			_queue.add(new TableCache("1", USER_PORTRAIT_UPLOAD, "content"));
+			_queue.add(new TableCache("2", WEB_CONTENT, "content"));
+
+			_queue.flush(WEB_CONTENT);
+
+			assertEquals(1, _batches.size());
+			assertEquals(2, _batches.get(0).size());
+			assertEquals(WEB_CONTENT, _batches.get(0).get(0).getCachedType());
+			assertEquals(WEB_CONTENT, _batches.get(0).get(1).getCachedType());
+			assertEquals(1, _queue.size());
+
+			_queue.flush(WEB_CONTENT);
+
+			assertEquals(1, _batches.size());
+		}
+
+		private static final int MAX_BATCH_SIZE = 50;
+
+		private List<List<TableCache>> _batches;
+		private WriteBehindQueue<TableCache> _queue;
+	}
+
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.cache.sync;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+import com.liferay.mobile.screens.cache.Cache;
+import com.liferay.mobile.screens.cache.ddl.form.DDLRecordCache;
+import com.liferay.mobile.screens.ddl.model.Record;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class DDLRecordBatchTaskTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenSyncingABatch {
+
+		@Before
+		public void setUp() {
+			_sentOneByOne = new ArrayList<>();
+			_failingOneByOne = new HashSet<>();
+			_batchResults = null;
+		}
+
+		@Test
+		public void shouldSendOneByOneOnlyTheRecordsThatFailedInTheBatch() throws Exception {
+			DDLRecordBatchTask task = createTask(update(1), update(2), update(3));
+			_batchResults = new JSONArray()
+				.put(new JSONObject().put("recordId", 1))
+				.put(new JSONObject().put("exception", "error"))
+				.put(new JSONObject().put("recordId", 3));
+
+			task.sync();
+
+			assertEquals(Arrays.asList(2L), _sentOneByOne);
+			assertEquals(0, task.getSize());
+		}
+
+		@Test
+		public void shouldKeepTheRecordsThatFailAgainForTheNextAttempt() throws Exception {
+			DDLRecordBatchTask task = createTask(update(1), update(2));
+			_batchResults = new JSONArray()
+				.put(new JSONObject().put("exception", "error"))
+				.put(new JSONObject().put("recordId", 2));
+			_failingOneByOne.add(1L);
+
+			try {
+				task.sync();
+				fail("The failed record should be retried");
+			}
+			catch (IOException e) {
+				assertEquals(1, task.getSize());
+			}
+		}
+
+		@Test
+		public void shouldOnlySendTheUpdatesOneByOneWhenTheWholeBatchFails() throws Exception {
+			DDLRecordBatchTask task = createTask(add(), update(2), update(3));
+
+			try {
+				task.sync();
+				fail("The added record should be left for the next attempt");
+			}
+			catch (IOException e) {
+				assertEquals(Arrays.asList(2L, 3L), _sentOneByOne);
+				assertEquals(1, task.getSize());
+			}
+		}
+
+		@Test
+		public void shouldSucceedWhenTheWholeBatchFailsWithOnlyUpdates() throws Exception {
+			DDLRecordBatchTask task = createTask(update(2), update(3));
+
+			task.sync();
+
+			assertEquals(Arrays.asList(2L, 3L), _sentOneByOne);
+			assertEquals(0, task.getSize());
+		}
+
+		@Test
+		public void shouldMeasureTheEncodedBytesOfThePayload() throws Exception {
+			DDLRecordCache cachedRecord = new DDLRecordCache(1L, new Record(Locale.US),
+				new JSONObject().put("name", "ñandú"));
+
+			DDLRecordBatchTask task = createTask(cachedRecord);
+
+			long expected = cachedRecord.getJSONContentToSync().toString().getBytes("UTF-8").length;
+			assertEquals(expected, task.getSizeInBytes());
+			assertFalse(expected == cachedRecord.getContent().length());
+		}
+
+		private DDLRecordBatchTask createTask(DDLRecordCache... cachedRecords) {
+			DDLRecordBatchTask task = new DDLRecordBatchTask(mock(Cache.class), 1) {
+				@Override
+				protected JSONArray invokeBatch(List<DDLRecordCache> cachedRecords) throws Exception {
+					if (_batchResults == null) {
+						throw new IOException("The connection was closed");
+					}
+					return _batchResults;
+				}
+
+				@Override
+				protected JSONObject invoke(DDLRecordCache cachedRecord) throws Exception {
+					_sentOneByOne.add(cachedRecord.getRecordId());
+					if (_failingOneByOne.contains(cachedRecord.getRecordId())) {
+						throw new IOException("The record could not be sent");
+					}
+					return new JSONObject();
+				}
+			};
+
+			for (DDLRecordCache cachedRecord : cachedRecords) {
+				task.add(cachedRecord);
+			}
+			return task;
+		}
+
+		private DDLRecordCache add() {
+			return new DDLRecordCache(1L, new Record(Locale.US), new JSONObject());
+		}
+
+		private DDLRecordCache update(long recordId) {
+			Record record = new Record(Locale.US);
+			record.setRecordId(recordId);
+			return new DDLRecordCache(1L, record, new JSONObject());
+		}
+
+		private JSONArray _batchResults;
+		private Set<Long> _failingOneByOne;
+		private List<Long> _sentOneByOne;
+	}
+
+}
@@ -0,0 +1,443 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.liferay.mobile.screens.cache.sync;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+import com.liferay.mobile.screens.cache.CachedType;
+import com.liferay.mobile.screens.util.EventBusUtil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_RECORD;
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DOCUMENT_UPLOAD;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class SyncEngineTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenSyncingInParallel {
+
+		@Before
+		public void setUp() {
+			SyncEngine.setWorkers(4);
+			SyncEngine.setConcurrency(DOCUMENT_UPLOAD, 2);
+			SyncEngine.setBackoff(1, 10);
+			_engine = new SyncEngine();
+		}
+
+		@After
+		public void tearDown() {
+			_engine.shutdown();
+			SyncEngine.setWorkers(SyncEngine.DEFAULT_WORKERS);
+			SyncEngine.setBackoff(SyncEngine.DEFAULT_BASE_DELAY, SyncEngine.DEFAULT_MAX_DELAY);
+		}
+
+		@Test
+		public void shouldNotExceedTheConcurrencyOfTheType() throws Exception {
+			final AtomicInteger running = new AtomicInteger();
+			final AtomicInteger maxRunning = new AtomicInteger();
+
+			for (int i = 0; i < 20; i++) {
+				_engine.submit(new TestTask(DOCUMENT_UPLOAD, null) {
+					@Override
+					public void sync() throws Exception {
+						maxRunning.set(Math.max(maxRunning.get(), running.incrementAndGet()));
+						Thread.sleep(5);
+						running.decrementAndGet();
+					}
+				});
+			}
+			_engine.await();
+
+			assertTrue(maxRunning.get() <= 2);
+			assertEquals(20, getStats(_engine, DOCUMENT_UPLOAD).getSynced());
+		}
+
+		@Test
+		public void shouldRunTheTasksWithTheSameKeyInOrder() throws Exception {
+			final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+
+			for (int i = 0; i < 10; i++) {
+				final int version = i;
+				_engine.submit(new TestTask(DDL_RECORD, "record") {
+					@Override
+					public void sync() throws Exception {
+						Thread.sleep(10 - version);
+						order.add(version);
+					}
+				});
+			}
+			_engine.await();
+
+			for (int i = 0; i < 10; i++) {
+				assertEquals(i, (int) order.get(i));
+			}
+		}
+
+		@Test
+		public void shouldFinishTheFirstPhaseBeforeTheSecond() throws Exception {
+			final AtomicInteger documents = new AtomicInteger();
+			final AtomicInteger documentsSeenByRecords = new AtomicInteger(Integer.MAX_VALUE);
+
+			for (int i = 0; i < 10; i++) {
+				_engine.submit(new TestTask(DOCUMENT_UPLOAD, null) {
+					@Override
+					public void sync() throws Exception {
+						Thread.sleep(5);
+						documents.incrementAndGet();
+					}
+				});
+			}
+			_engine.await();
+
+			for (int i = 0; i < 10; i++) {
+				_engine.submit(new TestTask(DDL_RECORD, null) {
+					@Override
+					public void sync() throws Exception {
+						documentsSeenByRecords.set(Math.min(documentsSeenByRecords.get(), documents.get()));
+					}
+				});
+			}
+			_engine.await();
+
+			assertEquals(10, documentsSeenByRecords.get());
+		}
+
+		@Test
+		public void shouldRunTheTasksOfATypeInParallel() throws Exception {
+			final int concurrency = SyncEngine.getConcurrency(DDL_RECORD);
+			final CountDownLatch allRunning = new CountDownLatch(concurrency);
+			final AtomicInteger running = new AtomicInteger();
+			final AtomicInteger maxRunning = new AtomicInteger();
+			final AtomicInteger timeouts = new AtomicInteger();
+
+			for (int i = 0; i < concurrency; i++) {
+				_engine.submit(new TestTask(DDL_RECORD, null) {
+					@Override
+					public void sync() throws Exception {
+						int current = running.incrementAndGet();
+						synchronized (maxRunning) {
+							maxRunning.set(Math.max(maxRunning.get(), current));
+						}
+						allRunning.countDown();
+
+						// only returns before the timeout if the other tasks run at the same time
+						if (!allRunning.await(5, TimeUnit.SECONDS)) {
+							timeouts.incrementAndGet();
+						}
+						running.decrementAndGet();
+					}
+				});
+			}
+			_engine.await();
+
+			assertEquals(0, timeouts.get());
+			assertEquals(concurrency, maxRunning.get());
+			assertEquals(concurrency, getStats(_engine, DDL_RECORD).getSynced());
+		}
+
+		@Test
+		public void shouldRunTheOtherTypesDuringABurstOfOneType() throws Exception {
+			final CountDownLatch documentsReleased = new CountDownLatch(1);
+			final CountDownLatch recordSynced = new CountDownLatch(1);
+
+			for (int i = 0; i < 8; i++) {
+				_engine.submit(new TestTask(DOCUMENT_UPLOAD, null) {
+					@Override
+					public void sync() throws Exception {
+						documentsReleased.await(5, TimeUnit.SECONDS);
+					}
+				});
+			}
+			_engine.submit(new TestTask(DDL_RECORD, null) {
+				@Override
+				public void sync() throws Exception {
+					recordSynced.countDown();
+				}
+			});
+
+			// the documents waiting for a slot of their type don't hold the workers
+			boolean synced = recordSynced.await(5, TimeUnit.SECONDS);
+			documentsReleased.countDown();
+			_engine.await();
+
+			assertTrue(synced);
+			assertEquals(8, getStats(_engine, DOCUMENT_UPLOAD).getSynced());
+		}
+
+		private SyncEngine _engine;
+	}
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenATaskFails {
+
+		@Before
+		public void setUp() {
+			SyncEngine.setMaxAttempts(3);
+			SyncEngine.setBackoff(1, 10);
+			_engine = new SyncEngine();
+		}
+
+		@After
+		public void tearDown() {
+			_engine.shutdown();
+			SyncEngine.setMaxAttempts(SyncEngine.DEFAULT_MAX_ATTEMPTS);
+			SyncEngine.setBackoff(SyncEngine.DEFAULT_BASE_DELAY, SyncEngine.DEFAULT_MAX_DELAY);
+		}
+
+		@Test
+		public void shouldRetryUntilItSucceeds() throws Exception {
+			final AtomicInteger attempts = new AtomicInteger();
+
+			_engine.submit(new TestTask(DDL_RECORD, null) {
+				@Override
+				public void sync() throws Exception {
+					if (attempts.incrementAndGet() < 3) {
+						throw new Exception("Server unavailable");
+					}
+				}
+			});
+			_engine.await();
+
+			SyncStats stats = getStats(_engine, DDL_RECORD);
+			assertEquals(3, attempts.get());
+			assertEquals(1, stats.getSynced());
+			assertEquals(2, stats.getRetries());
+			assertEquals(0, stats.getFailed());
+		}
+
+		@Test
+		public void shouldGiveUpAfterTheMaxAttempts() throws Exception {
+			final AtomicInteger attempts = new AtomicInteger();
+
+			_engine.submit(new TestTask(DDL_RECORD, null) {
+				@Override
+				public void sync() throws Exception {
+					attempts.incrementAndGet();
+					throw new Exception("Server unavailable");
+				}
+			});
+			_engine.await();
+
+			assertEquals(3, attempts.get());
+			assertEquals(1, getStats(_engine, DDL_RECORD).getFailed());
+		}
+
+		@Test
+		public void shouldCountTheObjectsSentBeforeTheFailure() throws Exception {
+			final List<String> pending = new ArrayList<>(Arrays.asList("1", "2", "3"));
+
+			_engine.submit(new TestTask(DDL_RECORD, null) {
+				@Override
+				public int getSize() {
+					return pending.size();
+				}
+
+				@Override
+				public void sync() throws Exception {
+					pending.remove(0);
+					if (!pending.isEmpty()) {
+						throw new Exception("Only one record per request");
+					}
+				}
+			});
+			_engine.await();
+
+			SyncStats stats = getStats(_engine, DDL_RECORD);
+			assertEquals(3, stats.getSynced());
+			assertEquals(0, stats.getFailed());
+		}
+
+		@Test
+		public void shouldWaitExponentiallyLongerUpToTheMaxDelay() {
+			Backoff backoff = new Backoff(100, 1000);
+
+			assertEquals(100, backoff.getCeiling(1));
+			assertEquals(200, backoff.getCeiling(2));
+			assertEquals(400, backoff.getCeiling(3));
+			assertEquals(1000, backoff.getCeiling(5));
+			assertEquals(1000, backoff.getCeiling(100));
+
+			for (int i = 0; i < 100; i++) {
+				long delay = backoff.getDelay(3);
+				assertTrue(delay >= 0 && delay < 400);
+			}
+		}
+
+		private SyncEngine _engine;
+	}
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenObservingTheSync {
+
+		@Before
+		public void setUp() {
+			SyncEngine.setBackoff(1, 10);
+			_engine = new SyncEngine();
+			EventBusUtil.register(this);
+		}
+
+		@After
+		public void tearDown() {
+			EventBusUtil.unregister(this);
+			_engine.shutdown();
+			SyncEngine.setBackoff(SyncEngine.DEFAULT_BASE_DELAY, SyncEngine.DEFAULT_MAX_DELAY);
+		}
+
+		@Test
+		public void shouldPostEveryAttemptWithItsFailure() throws Exception {
+			final AtomicInteger attempts = new AtomicInteger();
+
+			_engine.submit(new TestTask(DOCUMENT_UPLOAD, null) {
+				@Override
+				public void sync() throws Exception {
+					if (attempts.incrementAndGet() == 1) {
+						throw new IOException("Connection reset");
+					}
+				}
+			});
+			_engine.await();
+
+			assertEquals(2, _items.size());
+
+			SyncItemEvent failed = _items.get(0);
+			assertTrue(failed.isFailed());
+			assertTrue(failed.isRetrying());
+			assertEquals(1, failed.getAttempt());
+			assertEquals(0, failed.getSynced());
+
+			SyncItemEvent synced = _items.get(1);
+			assertFalse(synced.isFailed());
+			assertEquals(2, synced.getAttempt());
+			assertEquals(1, synced.getSynced());
+
+			SyncStats stats = getStats(_engine, DOCUMENT_UPLOAD);
+			assertEquals(1, (int) stats.getFailureReasons().get("IOException"));
+			assertEquals("IOException: Connection reset", stats.getLastFailure());
+			assertEquals(2, stats.getAttempts());
+		}
+
+		@Test
+		public void shouldReportTheQueueDepthAndTheBytesSent() throws Exception {
+			_engine.expect(DDL_RECORD, 5);
+			_engine.defer(DDL_RECORD, 1);
+			_engine.postStatus(false);
+
+			assertEquals(4, _statuses.get(0).getPending());
+
+			for (int i = 0; i < 4; i++) {
+				_engine.submit(new TestTask(DDL_RECORD, null) {
+					@Override
+					public long getSizeInBytes() {
+						return 100;
+					}
+
+					@Override
+					public void sync() throws Exception {
+					}
+				});
+			}
+			_engine.await();
+			_engine.postStatus(true);
+
+			SyncStatusEvent last = _statuses.get(_statuses.size() - 1);
+			SyncStats stats = last.getStats(DDL_RECORD.name());
+
+			assertTrue(last.isFinished());
+			assertEquals(0, last.getPending());
+			assertEquals(0, last.getInFlight());
+			assertEquals(4, stats.getSynced());
+			assertEquals(1, stats.getDeferred());
+			assertEquals(400, stats.getBytesSent());
+		}
+
+		public void onEvent(SyncItemEvent event) {
+			_items.add(event);
+		}
+
+		public void onEvent(SyncStatusEvent event) {
+			_statuses.add(event);
+		}
+
+		private SyncEngine _engine;
+		private final List<SyncItemEvent> _items = Collections.synchronizedList(new ArrayList<SyncItemEvent>());
+		private final List<SyncStatusEvent> _statuses =
+			Collections.synchronizedList(new ArrayList<SyncStatusEvent>());
+	}
+
+	private static SyncStats getStats(SyncEngine engine, CachedType cachedType) {
+		for (SyncStats stats : engine.getStats()) {
+			if (stats.getCachedType().equals(cachedType.name())) {
+				return stats;
+			}
+		}
+		return new SyncStats(cachedType.name());
+	}
+
+	private abstract static class TestTask implements SyncTask {
+
+		TestTask(CachedType cachedType, String key) {
+			_cachedType = cachedType;
+			_key = key;
+		}
+
+		@Override
+		public CachedType getCachedType() {
+			return _cachedType;
+		}
+
+		@Override
+		public String getKey() {
+			return _key;
+		}
+
+		@Override
+		public int getSize() {
+			return 1;
+		}
+
+		@Override
+		public long getSizeInBytes() {
+			return 0;
+		}
+
+		private final CachedType _cachedType;
+		private final String _key;
+	}
+
+}
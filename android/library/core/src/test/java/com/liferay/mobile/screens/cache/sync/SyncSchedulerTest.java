@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.liferay.mobile.screens.cache.sync;
+
+import android.app.AlarmManager;
+import android.content.Context;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowAlarmManager;
+
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_RECORD;
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DOCUMENT_UPLOAD;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class SyncSchedulerTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenRequestingSyncs {
+
+		@Before
+		public void setUp() {
+			_context = RuntimeEnvironment.application;
+			_alarmManager = shadowOf((AlarmManager) _context.getSystemService(Context.ALARM_SERVICE));
+
+			SyncScheduler.onSyncStarted(_context);
+			SyncScheduler.setWindow(60 * 1000);
+		}
+
+		@After
+		public void tearDown() {
+			SyncScheduler.setWindow(SyncScheduler.DEFAULT_WINDOW);
+		}
+
+		@Test
+		public void shouldScheduleOneSyncForTheRequestsOfAWindow() throws Exception {
+			long start = System.currentTimeMillis();
+
+			for (int i = 0; i < 10; i++) {
+				SyncScheduler.requestSync(_context);
+			}
+
+			assertEquals(1, _alarmManager.getScheduledAlarms().size());
+
+			long nextRun = SyncScheduler.getNextRun(_context);
+			assertTrue(nextRun >= start + 60 * 1000);
+			assertEquals(nextRun, _alarmManager.getNextScheduledAlarm().triggerAtTime);
+		}
+
+		@Test
+		public void shouldScheduleANewSyncAfterTheSyncStarts() throws Exception {
+			SyncScheduler.requestSync(_context);
+			SyncScheduler.onSyncStarted(_context);
+
+			assertEquals(0, SyncScheduler.getNextRun(_context));
+
+			SyncScheduler.requestSync(_context);
+
+			assertTrue(SyncScheduler.getNextRun(_context) > 0);
+		}
+
+		@Test
+		public void shouldNotDelayAScheduledSyncWhenDeferringWork() throws Exception {
+			SyncScheduler.requestSync(_context);
+			long nextRun = SyncScheduler.getNextRun(_context);
+
+			SyncScheduler.requestDeferredSync(_context);
+
+			assertEquals(nextRun, SyncScheduler.getNextRun(_context));
+		}
+
+		@Test
+		public void shouldBringADeferredSyncForwardWhenRequestingASync() throws Exception {
+			SyncScheduler.requestDeferredSync(_context);
+			long deferredRun = SyncScheduler.getNextRun(_context);
+
+			SyncScheduler.requestSync(_context);
+			long nextRun = SyncScheduler.getNextRun(_context);
+
+			assertTrue(nextRun < deferredRun);
+			assertTrue(nextRun <= System.currentTimeMillis() + 60 * 1000);
+			assertEquals(nextRun, _alarmManager.getNextScheduledAlarm().triggerAtTime);
+		}
+
+		private Context _context;
+		private ShadowAlarmManager _alarmManager;
+	}
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenCheckingTheConstraints {
+
+		@Test
+		public void shouldUploadLargeDocumentsOnlyOnUnmeteredNetworksOrCharging() throws Exception {
+			long large = SyncScheduler.DEFAULT_LARGE_SIZE;
+
+			assertFalse(SyncScheduler.canSync(DOCUMENT_UPLOAD, large, true, false));
+			assertTrue(SyncScheduler.canSync(DOCUMENT_UPLOAD, large, true, true));
+			assertTrue(SyncScheduler.canSync(DOCUMENT_UPLOAD, large, false, false));
+		}
+
+		@Test
+		public void shouldUploadSmallDocumentsAndRecordsAnytime() throws Exception {
+			assertTrue(SyncScheduler.canSync(DOCUMENT_UPLOAD, 1024, true, false));
+			assertTrue(SyncScheduler.canSync(DDL_RECORD, SyncScheduler.DEFAULT_LARGE_SIZE, true, false));
+		}
+
+	}
+
+}
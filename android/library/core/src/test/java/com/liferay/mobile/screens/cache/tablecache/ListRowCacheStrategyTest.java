@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.liferay.mobile.screens.cache.tablecache;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+import com.liferay.mobile.screens.cache.CachedType;
+import com.liferay.mobile.screens.cache.sql.CacheSQL;
+import com.liferay.mobile.screens.context.LiferayScreensContext;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.Locale;
+
+import static com.liferay.mobile.screens.cache.DefaultCachedType.ASSET_LIST;
+import static com.liferay.mobile.screens.cache.DefaultCachedType.DDL_LIST;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class ListRowCacheStrategyTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenReadingAPage {
+
+		@Before
+		public void setUp() {
+			LiferayScreensContext.init(RuntimeEnvironment.application);
+
+			_strategy = new ListRowCacheStrategy(DDL_LIST);
+			_strategy.clear();
+		}
+
+		@Test
+		public void shouldReturnTheRowsOfTheRangeInOrder() throws Exception {
+			for (int i = 99995; i < 100005; i++) {
+				store("1", i, DDL_LIST);
+			}
+
+			List<ListRowCache> rows = _strategy.get("", PAGE_QUERY, "1", 99998, 100002);
+
+			assertEquals(4, rows.size());
+			for (int i = 0; i < rows.size(); i++) {
+				assertEquals(99998 + i, rows.get(i).getRowIndex());
+				assertEquals(DDL_LIST, rows.get(i).getCachedType());
+			}
+		}
+
+		@Test
+		public void shouldOnlyReturnTheRowsOfTheListAndType() throws Exception {
+			store("1", 0, DDL_LIST);
+			store("2", 0, DDL_LIST);
+			store("1", 0, ASSET_LIST);
+
+			assertEquals(1, _strategy.get("", PAGE_QUERY, "1", 0, 10).size());
+		}
+
+		@Test
+		public void shouldClearOnlyOneList() throws Exception {
+			store("1", 0, DDL_LIST);
+			store("1", 1, DDL_LIST);
+			store("2", 0, DDL_LIST);
+
+			assertEquals(2, _strategy.clear("1"));
+			assertEquals(1, _strategy.get("", "").size());
+		}
+
+		@Test
+		public void shouldReadARowById() throws Exception {
+			store("1_en_US", 7, DDL_LIST);
+			store("1_en_US", 8, DDL_LIST);
+
+			ListRowCache row = _strategy.getById(new ListRowCache("1_en_US", 8, DDL_LIST, "", null, null, null).getId());
+
+			assertEquals("1_en_US", row.getListKey());
+			assertEquals(8, row.getRowIndex());
+			assertEquals(DDL_LIST, row.getCachedType());
+		}
+
+		@Test
+		public void shouldReturnNullWhenTheRowIsNotCached() throws Exception {
+			store("1", 0, DDL_LIST);
+
+			assertNull(_strategy.getById("1_1"));
+			assertNull(_strategy.getById("1"));
+			assertNull(_strategy.getById("1_a"));
+		}
+
+		@Test
+		public void shouldReadTheRowOfTheLocaleAndUser() throws Exception {
+			CacheSQL.querySet(new ListRowCache("1", 0, DDL_LIST, "{\"locale\":\"en\"}", GROUP_ID, USER_ID,
+				new Locale("en", "US")));
+			CacheSQL.querySet(new ListRowCache("1", 0, DDL_LIST, "{\"locale\":\"es\"}", GROUP_ID, USER_ID,
+				new Locale("es", "ES")));
+			CacheSQL.querySet(new ListRowCache("1", 0, DDL_LIST, "{\"user\":2}", GROUP_ID, USER_ID + 1,
+				new Locale("es", "ES")));
+
+			String id = new ListRowCache("1", 0, DDL_LIST, "", GROUP_ID, USER_ID, null).getId();
+
+			assertEquals("{\"locale\":\"es\"}",
+				_strategy.getById(id, GROUP_ID, USER_ID, new Locale("es", "ES")).getContent());
+			assertEquals("{\"user\":2}",
+				_strategy.getById(id, GROUP_ID, USER_ID + 1, new Locale("es", "ES")).getContent());
+			assertNull(_strategy.getById(id, GROUP_ID + 1, USER_ID, new Locale("es", "ES")));
+		}
+
+		private void store(String listKey, int rowIndex, CachedType cachedType) {
+			CacheSQL.querySet(new ListRowCache(listKey, rowIndex, cachedType, "{\"row\":" + rowIndex + "}",
+				null, null, null));
+		}
+
+		private static final String PAGE_QUERY = " AND "
+			+ ListRowCache.LIST_KEY + " = ? AND "
+			+ ListRowCache.ROW_INDEX + " >= ? AND "
+			+ ListRowCache.ROW_INDEX + " < ? ";
+
+		private static final Long GROUP_ID = 10184L;
+		private static final Long USER_ID = 10198L;
+
+		private ListRowCacheStrategy _strategy;
+	}
+
+}
@@ -0,0 +1,296 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.screens.ddl.form.service;
+
+import com.liferay.mobile.screens.BuildConfig;
+import com.liferay.mobile.screens.RobolectricManifestTestRunner;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+/**
+ * @author Javier Gamarra
+ */
+@RunWith(Enclosed.class)
+public class ResumableUploadTest {
+
+	@Config(constants = BuildConfig.class, emulateSdk = 18)
+	@RunWith(RobolectricManifestTestRunner.class)
+	public static class WhenUploadingAFile {
+
+		@Before
+		public void setUp() throws Exception {
+			ResumableUpload.setChunkSize(CHUNK_SIZE);
+			_content = createContent(FILE_SIZE);
+			_file = createFile(_content);
+		}
+
+		@After
+		public void tearDown() throws Exception {
+			ResumableUpload.setChunkSize(ResumableUpload.DEFAULT_CHUNK_SIZE);
+			_server.stop();
+			_file.delete();
+		}
+
+		@Test
+		public void shouldSendTheFileInChunks() throws Exception {
+			_server = new UploadServer(NO_DROP, false);
+
+			JSONObject fileEntry = createUpload().upload(false);
+
+			assertEquals(FILE_SIZE, fileEntry.getLong("size"));
+			assertTrue(Arrays.equals(_content, _server.getContent()));
+			assertEquals(Arrays.asList(32768L, 65536L, 98304L, (long) FILE_SIZE), _progress);
+		}
+
+		@Test
+		public void shouldResumeFromTheBytesStoredByThePortal() throws Exception {
+			_server = new UploadServer(CHUNK_SIZE + 10000, false);
+
+			try {
+				createUpload().upload(false);
+				fail("The connection should have dropped");
+			}
+			catch (IOException e) {
+				assertEquals(Long.valueOf(CHUNK_SIZE), _progress.get(_progress.size() - 1));
+			}
+
+			createUpload().upload(true);
+
+			assertTrue(Arrays.equals(_content, _server.getContent()));
+			assertEquals(FILE_SIZE, _server.getReceivedBytes());
+		}
+
+		@Test
+		public void shouldStartAgainIfThePortalDiscardedTheUpload() throws Exception {
+			_server = new UploadServer(NO_DROP, false);
+			_server.discard();
+
+			createUpload().upload(true);
+
+			assertTrue(Arrays.equals(_content, _server.getContent()));
+		}
+
+		@Test(expected = UnsupportedOperationException.class)
+		public void shouldFailIfThePortalDoesNotSupportResumableUploads() throws Exception {
+			_server = new UploadServer(NO_DROP, true);
+
+			createUpload().upload(false);
+		}
+
+		private ResumableUpload createUpload() {
+			return new ResumableUpload(_server.getUrl(), null, _file, new ResumableUpload.Listener() {
+				@Override
+				public void onProgress(long uploadedBytes, long totalBytes) {
+					_progress.add(uploadedBytes);
+				}
+			});
+		}
+
+		private static final int CHUNK_SIZE = 32 * 1024;
+		private static final int FILE_SIZE = 100 * 1024;
+
+		private final List<Long> _progress = new ArrayList<>();
+		private byte[] _content;
+		private File _file;
+		private UploadServer _server;
+	}
+
+	private static final int NO_DROP = -1;
+
+	private static byte[] createContent(int size) {
+		byte[] content = new byte[size];
+		new Random(size).nextBytes(content);
+		return content;
+	}
+
+	private static File createFile(byte[] content) throws IOException {
+		File file = File.createTempFile("upload", ".bin");
+		OutputStream outputStream = new FileOutputStream(file);
+		try {
+			outputStream.write(content);
+		}
+		finally {
+			outputStream.close();
+		}
+		return file;
+	}
+
+	/**
+	 * Stand-in of the resumable upload endpoint, it can drop the connection once
+	 * after receiving some bytes of the file, keeping them
+	 */
+	private static class UploadServer implements Runnable {
+
+		UploadServer(int dropAfter, boolean unsupported) throws IOException {
+			_dropAfter = dropAfter;
+			_unsupported = unsupported;
+			_serverSocket = new ServerSocket(0);
+
+			Thread thread = new Thread(this, "upload-server");
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		String getUrl() {
+			return "http://127.0.0.1:" + _serverSocket.getLocalPort() + "/upload?uploadId=1";
+		}
+
+		synchronized byte[] getContent() {
+			return _content.toByteArray();
+		}
+
+		synchronized int getReceivedBytes() {
+			return _receivedBytes;
+		}
+
+		synchronized void discard() {
+			_discarded = true;
+		}
+
+		void stop() throws IOException {
+			_serverSocket.close();
+		}
+
+		@Override
+		public void run() {
+			while (!_serverSocket.isClosed()) {
+				try {
+					Socket socket = _serverSocket.accept();
+					try {
+						handle(socket);
+					}
+					finally {
+						socket.close();
+					}
+				}
+				catch (IOException e) {
+					// closed
+				}
+			}
+		}
+
+		private void handle(Socket socket) throws IOException {
+			InputStream inputStream = new BufferedInputStream(socket.getInputStream());
+			OutputStream outputStream = socket.getOutputStream();
+
+			int contentLength = 0;
+			String contentRange = null;
+
+			String line;
+			while (!(line = readLine(inputStream)).isEmpty()) {
+				String header = line.toLowerCase();
+				if (header.startsWith("content-length:")) {
+					contentLength = Integer.parseInt(line.substring(15).trim());
+				}
+				else if (header.startsWith("content-range:")) {
+					contentRange = line.substring(14).trim();
+				}
+			}
+
+			if (_unsupported) {
+				respond(outputStream, "501 Not Implemented", null, "");
+				return;
+			}
+
+			long total = Long.parseLong(contentRange.substring(contentRange.indexOf('/') + 1));
+
+			synchronized (this) {
+				if (_discarded) {
+					_discarded = false;
+					respond(outputStream, "404 Not Found", null, "");
+					return;
+				}
+
+				for (int i = 0; i < contentLength; i++) {
+					if (_dropAfter != NO_DROP && _content.size() == _dropAfter) {
+						_dropAfter = NO_DROP;
+						return;
+					}
+					_content.write(inputStream.read());
+					_receivedBytes++;
+				}
+
+				if (_content.size() == total) {
+					respond(outputStream, "201 Created", null, "{\"fileEntryId\":1,\"size\":" + total + "}");
+				}
+				else {
+					String range = _content.size() == 0 ? null : "bytes=0-" + (_content.size() - 1);
+					respond(outputStream, "308 Resume Incomplete", range, "");
+				}
+			}
+		}
+
+		private String readLine(InputStream inputStream) throws IOException {
+			StringBuilder line = new StringBuilder();
+			int c;
+			while ((c = inputStream.read()) != '\n') {
+				if (c == -1) {
+					throw new IOException("Closed connection");
+				}
+				if (c != '\r') {
+					line.append((char) c);
+				}
+			}
+			return line.toString();
+		}
+
+		private void respond(OutputStream outputStream, String status, String range, String body)
+			throws IOException {
+
+			StringBuilder response = new StringBuilder("HTTP/1.1 ").append(status).append("\r\n");
+			if (range != null) {
+				response.append("Range: ").append(range).append("\r\n");
+			}
+			response.append("Content-Length: ").append(body.length()).append("\r\n")
+				.append("Connection: close\r\n\r\n")
+				.append(body);
+
+			outputStream.write(response.toString().getBytes("UTF-8"));
+			outputStream.flush();
+		}
+
+		private final ByteArrayOutputStream _content = new ByteArrayOutputStream();
+		private final ServerSocket _serverSocket;
+		private final boolean _unsupported;
+		private int _dropAfter;
+		private int _receivedBytes;
+		private boolean _discarded;
+	}
+
+}
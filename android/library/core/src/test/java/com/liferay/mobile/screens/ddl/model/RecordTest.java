@@ -24,6 +24,7 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -178,6 +179,115 @@ public class RecordTest {
 
 	}
 
+	@Config(constants = BuildConfig.class)
+	@RunWith(RobolectricTestRunner.class)
+	public static class WhenTrackingChanges {
+
+		@Test
+		public void shouldReturnEveryFieldIfTheRecordWasNotLoaded() throws Exception {
+			Record record = createRecord();
+
+			assertEquals(2, record.getChangedData().size());
+			assertEquals(2, record.getChangedFieldNames().size());
+		}
+
+		@Test
+		public void shouldReturnOnlyTheFieldsChangedAfterLoadingTheRecord() throws Exception {
+			Record record = createRecord();
+			load(record);
+
+			assertTrue(record.getChangedData().isEmpty());
+
+			((StringField) record.getField(0)).setCurrentValue("new value");
+
+			Map<String, String> changedData = record.getChangedData();
+			assertEquals(1, changedData.size());
+			assertEquals("new value", changedData.get("A_Text"));
+			assertEquals(Arrays.asList("A_Text"), record.getChangedFieldNames());
+		}
+
+		@Test
+		public void shouldNotReturnAFieldChangedBackToTheLoadedValue() throws Exception {
+			Record record = createRecord();
+			load(record);
+
+			StringField field = (StringField) record.getField(0);
+			field.setCurrentValue("new value");
+			field.setCurrentValue("xyz");
+
+			assertTrue(record.getChangedData().isEmpty());
+		}
+
+		@Test
+		public void shouldNotReturnTheFieldsAlreadySynced() throws Exception {
+			Record record = createRecord();
+			load(record);
+
+			((StringField) record.getField(0)).setCurrentValue("new value");
+			record.markAsSynced();
+
+			assertTrue(record.getChangedData().isEmpty());
+		}
+
+		@Test
+		public void shouldKeepTheFieldsChangedAfterTheValuesWereSent() throws Exception {
+			Record record = createRecord();
+			load(record);
+
+			StringField field = (StringField) record.getField(0);
+			field.setCurrentValue("sent value");
+			Map<String, String> sentData = record.getChangedData();
+
+			field.setCurrentValue("edited while sending");
+			record.markAsSynced(sentData);
+
+			assertEquals(Arrays.asList("A_Text"), record.getChangedFieldNames());
+
+			field.setCurrentValue("sent value");
+
+			assertTrue(record.getChangedData().isEmpty());
+		}
+
+		private Record createRecord() {
+			String xsd =
+				"<root available-locales=\"en_US\" default-locale=\"en_US\"> " +
+					"<dynamic-element " +
+					"dataType=\"string\" " +
+					"type=\"text\" " +
+					"name=\"A_Text\" > " +
+					"<meta-data locale=\"en_US\"> " +
+					"<entry name=\"predefinedValue\"><![CDATA[abc]]></entry> " +
+					"</meta-data> " +
+					"</dynamic-element>" +
+					"<dynamic-element " +
+					"dataType=\"boolean\" " +
+					"type=\"checkbox\" " +
+					"name=\"A_Bool\" > " +
+					"<meta-data locale=\"en_US\"> " +
+					"<entry name=\"predefinedValue\"><![CDATA[false]]></entry> " +
+					"</meta-data> " +
+					"</dynamic-element>" +
+					"</root>";
+
+			Record record = new Record(new Locale("en", "US"));
+			record.parseXsd(xsd);
+			return record;
+		}
+
+		private void load(Record record) {
+			Map<String, Object> data = new HashMap<>();
+			data.put("A_Text", "xyz");
+			data.put("A_Bool", "true");
+
+			Map<String, Object> values = new HashMap<>();
+			values.put("modelValues", data);
+
+			record.setValuesAndAttributes(values);
+			record.refresh();
+		}
+
+	}
+
 	@Config(constants = BuildConfig.class)
 	@RunWith(RobolectricTestRunner.class)
 	public static class WhenSerialize {
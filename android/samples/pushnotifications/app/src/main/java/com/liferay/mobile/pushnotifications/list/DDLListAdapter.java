@@ -29,6 +29,7 @@ import com.liferay.mobile.screens.base.list.BaseListAdapterListener;
 import com.liferay.mobile.screens.context.LiferayScreensContext;
 import com.liferay.mobile.screens.context.LiferayServerContext;
 import com.liferay.mobile.screens.context.SessionContext;
+import com.liferay.mobile.screens.ddl.list.BaseDDLListAdapter;
 import com.liferay.mobile.screens.ddl.model.Record;
 import com.liferay.mobile.screens.util.LiferayLogger;
 
@@ -40,7 +41,7 @@ import java.util.List;
  * @author Javier Gamarra
  */
 public class DDLListAdapter
-	extends BaseListAdapter<Record, DDLListAdapter.ImageViewHolder> {
+	extends BaseDDLListAdapter<DDLListAdapter.ImageViewHolder> {
 
 	public static class ImageViewHolder
 		extends BaseListAdapter.ViewHolder implements View.OnClickListener {
@@ -21,6 +21,7 @@ import android.widget.TextView;
 
 import com.liferay.mobile.screens.base.list.BaseListAdapter;
 import com.liferay.mobile.screens.base.list.BaseListAdapterListener;
+import com.liferay.mobile.screens.ddl.list.BaseDDLListAdapter;
 import com.liferay.mobile.screens.ddl.model.Record;
 import com.liferay.mobile.screens.viewsets.R;
 
@@ -31,7 +32,7 @@ import java.util.List;
  * @author Silvio Santos
  */
 public class DDLListAdapter
-	extends BaseListAdapter<Record, DDLListAdapter.TwoTextsViewHolder> {
+	extends BaseDDLListAdapter<DDLListAdapter.TwoTextsViewHolder> {
 
 	public DDLListAdapter(
 		int layoutId, int progressLayoutId, BaseListAdapterListener listener) {
@@ -19,6 +19,7 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import com.daimajia.swipe.SwipeLayout;
+import com.liferay.mobile.screens.ddl.list.BaseDDLListAdapter;
 import com.liferay.mobile.screens.ddl.model.Record;
 import com.liferay.mobile.screens.viewsets.westeros.*;
 import com.liferay.mobile.screens.base.list.BaseListAdapter;
@@ -32,7 +33,7 @@ import java.util.List;
  * @author Silvio Santos
  */
 public class DDLListAdapter
-        extends BaseListAdapter<Record, DDLListAdapter.SwipeActionsViewHolder> {
+        extends BaseDDLListAdapter<DDLListAdapter.SwipeActionsViewHolder> {
 
     public static class SwipeActionsViewHolder
             extends BaseListAdapter.ViewHolder implements View.OnClickListener {